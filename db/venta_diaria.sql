@@ -0,0 +1,253 @@
+-- Resumen diario de ventas del reporte de ventas (yahveh.reportes.ventas.resumen.habilitado).
+-- Desplegar en la base antes de activar la propiedad: la aplicación no crea tablas ni funciones.
+-- Las filas se arman con p_list_nota_entrega(p_accion := 'V') filtrado solo por fechas, igual que el reporte.
+-- Las escrituras de notas mantienen el resumen rearmando las filas del cliente en el día de la nota;
+-- la carga inicial y la reconstrucción rearman días completos.
+
+CREATE TABLE IF NOT EXISTS venta_diaria (
+    fecha DATE NOT NULL,
+    cod_cliente BIGINT NOT NULL,
+    cod_articulo VARCHAR(50) NOT NULL,
+    tipo_fila VARCHAR(10) NOT NULL,
+    nombre_cliente VARCHAR(200),
+    direccion VARCHAR(300),
+    zona VARCHAR(100),
+    linea_articulo VARCHAR(100),
+    producto_completo VARCHAR(300),
+    cantidad BIGINT,
+    precio_unitario NUMERIC,
+    descuento NUMERIC,
+    total_bs NUMERIC,
+    desc_bs NUMERIC,
+    bs_unitario NUMERIC,
+    total_bs_desc NUMERIC,
+    total_general_bs NUMERIC,
+    lineas INTEGER NOT NULL,
+    PRIMARY KEY (fecha, cod_cliente, tipo_fila, cod_articulo)
+);
+
+-- Avance de la carga inicial: hasta qué día quedó armada y si terminó (una sola fila)
+CREATE TABLE IF NOT EXISTS venta_diaria_carga (
+    id INTEGER PRIMARY KEY CHECK (id = 1),
+    cargado_hasta DATE,
+    completa BOOLEAN NOT NULL DEFAULT FALSE
+);
+
+
+-- Insertar las filas del resumen de los días del rango (con p_clientes, solo las de esos clientes).
+-- Cantidades e importes se suman; precio y descuento se conservan si son iguales en el grupo, si no el
+-- precio queda como promedio ponderado y el descuento en NULL. Uso interno de p_abm_venta_diaria.
+CREATE OR REPLACE FUNCTION f_venta_diaria_insertar(
+    p_desde DATE,
+    p_hasta DATE,
+    p_clientes BIGINT[] DEFAULT NULL
+) RETURNS INTEGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_filas INTEGER;
+BEGIN
+    INSERT INTO venta_diaria (fecha, cod_cliente, cod_articulo, tipo_fila, nombre_cliente, direccion,
+        zona, linea_articulo, producto_completo, cantidad, precio_unitario, descuento, total_bs,
+        desc_bs, bs_unitario, total_bs_desc, total_general_bs, lineas)
+    SELECT v.fecha,
+           COALESCE(v.cod_cliente, 0),
+           COALESCE(v.cod_articulo::VARCHAR, ''),
+           CASE WHEN v.estado_texto = 'TOTAL' THEN 'TOTAL' ELSE 'DETALLE' END,
+           MAX(v.nombre_cliente),
+           MAX(v.direccion),
+           MAX(v.zona),
+           MAX(v.linea_articulo),
+           MAX(v.producto_completo),
+           SUM(v.cantidad),
+           CASE WHEN MIN(v.precio_unitario) = MAX(v.precio_unitario) THEN MIN(v.precio_unitario)
+                ELSE SUM(v.total_bs) / NULLIF(SUM(v.cantidad), 0) END,
+           CASE WHEN MIN(v.descuento) = MAX(v.descuento) THEN MIN(v.descuento) END,
+           SUM(v.total_bs),
+           SUM(v.desc_bs),
+           CASE WHEN MIN(v.bs_unitario) = MAX(v.bs_unitario) THEN MIN(v.bs_unitario)
+                ELSE SUM(v.total_bs_desc) / NULLIF(SUM(v.cantidad), 0) END,
+           SUM(v.total_bs_desc),
+           SUM(v.total_general_bs),
+           COUNT(*)
+    FROM p_list_nota_entrega(
+        p_accion := 'V'::VARCHAR,
+        p_codnotaentrega := NULL::BIGINT,
+        p_codcliente := NULL::BIGINT,
+        p_fecha_desde := p_desde,
+        p_fecha_hasta := p_hasta,
+        p_estado := 1::INTEGER
+    ) v
+    WHERE p_clientes IS NULL OR COALESCE(v.cod_cliente, 0) = ANY (p_clientes)
+    GROUP BY 1, 2, 3, 4;
+
+    GET DIAGNOSTICS v_filas = ROW_COUNT;
+    RETURN v_filas;
+END;
+$$;
+
+
+-- Filas del resumen para el reporte de ventas
+CREATE OR REPLACE FUNCTION p_list_venta_diaria(
+    p_fecha_desde DATE,
+    p_fecha_hasta DATE
+) RETURNS TABLE (
+    fecha DATE,
+    cod_cliente BIGINT,
+    nombre_cliente VARCHAR,
+    direccion VARCHAR,
+    zona VARCHAR,
+    cod_articulo VARCHAR,
+    cantidad BIGINT,
+    linea_articulo VARCHAR,
+    producto_completo VARCHAR,
+    precio_unitario NUMERIC,
+    descuento NUMERIC,
+    total_bs NUMERIC,
+    desc_bs NUMERIC,
+    bs_unitario NUMERIC,
+    total_bs_desc NUMERIC,
+    total_general_bs NUMERIC,
+    tipo_fila VARCHAR
+)
+LANGUAGE sql STABLE AS $$
+    SELECT vd.fecha, NULLIF(vd.cod_cliente, 0), vd.nombre_cliente, vd.direccion, vd.zona,
+           NULLIF(vd.cod_articulo, ''), vd.cantidad, vd.linea_articulo, vd.producto_completo,
+           vd.precio_unitario, vd.descuento, vd.total_bs, vd.desc_bs, vd.bs_unitario, vd.total_bs_desc,
+           vd.total_general_bs, vd.tipo_fila
+    FROM venta_diaria vd
+    WHERE vd.fecha BETWEEN p_fecha_desde AND p_fecha_hasta
+    ORDER BY vd.fecha, vd.cod_cliente, vd.tipo_fila, vd.cod_articulo;
+$$;
+
+
+-- Estado de la carga inicial. Mientras no está completa devuelve también el último día con notas válidas,
+-- para que la carga cubra las notas fechadas a futuro.
+CREATE OR REPLACE FUNCTION p_list_venta_diaria_carga()
+RETURNS TABLE (
+    cargado_hasta DATE,
+    completa BOOLEAN,
+    ultima_fecha DATE
+)
+LANGUAGE plpgsql STABLE AS $$
+DECLARE
+    v_cargado_hasta DATE;
+    v_completa BOOLEAN := FALSE;
+BEGIN
+    SELECT c.cargado_hasta, c.completa INTO v_cargado_hasta, v_completa
+    FROM venta_diaria_carga c
+    WHERE c.id = 1;
+
+    cargado_hasta := v_cargado_hasta;
+    completa := COALESCE(v_completa, FALSE);
+    IF NOT completa THEN
+        SELECT MAX(n.fecha) INTO ultima_fecha FROM p_list_nota_entrega(p_estado := 1) n;
+    END IF;
+    RETURN NEXT;
+END;
+$$;
+
+
+-- Mantenimiento del resumen:
+--   'B' tomar la nota p_codnotaentrega hasta el fin de la transacción (ordena las escrituras de una misma nota)
+--       y devolver su día y cliente actuales en p_fecha / p_codcliente (p_result 0 si no existe)
+--   'N' rearmar las filas de los pares día/cliente (p_fechas[i], p_clientes[i]) dentro de la transacción de la
+--       escritura de la nota; cada día se toma en modo compartido y cada par en exclusiva
+--   'R' rearmar los días de p_fecha_desde a p_fecha_hasta, tomados en exclusiva
+--   'C' como 'R' y además registrar que la carga inicial llegó hasta p_fecha_hasta
+--   'F' registrar la carga inicial como completa hasta p_fecha_hasta
+-- Los locks se toman en sentencias previas a la lectura: con READ COMMITTED cada sentencia siguiente de la
+-- función ve lo confirmado por quien tenía el lock.
+CREATE OR REPLACE FUNCTION p_abm_venta_diaria(
+    p_accion VARCHAR,
+    p_codnotaentrega BIGINT DEFAULT NULL,
+    p_fecha_desde DATE DEFAULT NULL,
+    p_fecha_hasta DATE DEFAULT NULL,
+    p_fechas DATE[] DEFAULT NULL,
+    p_clientes BIGINT[] DEFAULT NULL,
+    OUT p_error INTEGER,
+    OUT p_errormsg VARCHAR,
+    OUT p_result INTEGER,
+    OUT p_fecha DATE,
+    OUT p_codcliente BIGINT
+)
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_dia DATE;
+    v_cliente BIGINT;
+BEGIN
+    p_error := 0;
+    p_errormsg := '';
+    p_result := 0;
+
+    IF p_accion = 'B' THEN
+        IF p_codnotaentrega IS NULL THEN
+            p_error := 1;
+            p_errormsg := 'Debe indicar la nota de entrega';
+            RETURN;
+        END IF;
+        PERFORM pg_advisory_xact_lock(hashtext('venta_diaria_nota'), (p_codnotaentrega % 2147483647)::INTEGER);
+
+        SELECT n.fecha, n.cod_cliente INTO p_fecha, p_codcliente
+        FROM p_list_nota_entrega(p_codnotaentrega := p_codnotaentrega) n
+        LIMIT 1;
+        IF FOUND THEN
+            p_result := 1;
+        END IF;
+
+    ELSIF p_accion = 'N' THEN
+        IF p_fechas IS NULL OR p_clientes IS NULL
+                OR cardinality(p_fechas) <> cardinality(p_clientes) THEN
+            p_error := 1;
+            p_errormsg := 'Debe indicar los pares de día y cliente';
+            RETURN;
+        END IF;
+
+        -- Días en modo compartido (solo esperan a una reconstrucción), luego cada par día/cliente en exclusiva;
+        -- siempre en el mismo orden para no cruzarse con otras escrituras
+        FOR v_dia IN SELECT DISTINCT t.f FROM unnest(p_fechas) AS t(f) ORDER BY 1 LOOP
+            PERFORM pg_advisory_xact_lock_shared(hashtext('venta_diaria'), v_dia - DATE '2000-01-01');
+        END LOOP;
+        FOR v_dia, v_cliente IN
+            SELECT DISTINCT t.f, t.c FROM unnest(p_fechas, p_clientes) AS t(f, c) ORDER BY 1, 2
+        LOOP
+            PERFORM pg_advisory_xact_lock(((v_dia - DATE '2000-01-01')::BIGINT << 32) | (v_cliente & 4294967295));
+        END LOOP;
+
+        DELETE FROM venta_diaria vd
+        USING unnest(p_fechas, p_clientes) AS t(f, c)
+        WHERE vd.fecha = t.f AND vd.cod_cliente = t.c;
+
+        FOR v_dia IN SELECT DISTINCT t.f FROM unnest(p_fechas) AS t(f) ORDER BY 1 LOOP
+            p_result := p_result + f_venta_diaria_insertar(v_dia, v_dia,
+                    ARRAY(SELECT t.c FROM unnest(p_fechas, p_clientes) AS t(f, c) WHERE t.f = v_dia));
+        END LOOP;
+
+    ELSIF p_accion IN ('R', 'C') THEN
+        IF p_fecha_desde IS NULL OR p_fecha_hasta IS NULL OR p_fecha_hasta < p_fecha_desde THEN
+            p_error := 1;
+            p_errormsg := 'Rango de fechas inválido';
+            RETURN;
+        END IF;
+
+        FOR v_dia IN SELECT d::DATE FROM generate_series(p_fecha_desde, p_fecha_hasta, INTERVAL '1 day') d LOOP
+            PERFORM pg_advisory_xact_lock(hashtext('venta_diaria'), v_dia - DATE '2000-01-01');
+        END LOOP;
+
+        DELETE FROM venta_diaria WHERE fecha BETWEEN p_fecha_desde AND p_fecha_hasta;
+        p_result := f_venta_diaria_insertar(p_fecha_desde, p_fecha_hasta);
+
+        IF p_accion = 'C' THEN
+            INSERT INTO venta_diaria_carga (id, cargado_hasta, completa) VALUES (1, p_fecha_hasta, FALSE)
+            ON CONFLICT (id) DO UPDATE SET cargado_hasta = EXCLUDED.cargado_hasta, completa = FALSE;
+        END IF;
+
+    ELSIF p_accion = 'F' THEN
+        INSERT INTO venta_diaria_carga (id, cargado_hasta, completa) VALUES (1, p_fecha_hasta, TRUE)
+        ON CONFLICT (id) DO UPDATE SET cargado_hasta = EXCLUDED.cargado_hasta, completa = TRUE;
+
+    ELSE
+        p_error := 1;
+        p_errormsg := 'Acción no válida: ' || COALESCE(p_accion, 'NULL');
+    END IF;
+END;
+$$;
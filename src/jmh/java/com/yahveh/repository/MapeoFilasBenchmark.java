@@ -0,0 +1,146 @@
+package com.yahveh.repository;
+
+import com.yahveh.dto.VentaReporteDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por fila del mapeo del reporte de ventas (p_list_nota_entrega 'V'):
+ * <ul>
+ *   <li>antes: el mapper anterior, por nombre de columna y con getObject antes de cada getter numérico</li>
+ *   <li>despues: {@link NotaEntregaRepository#mapVentaReporte()}, índices resueltos una vez y wasNull()</li>
+ * </ul>
+ * Ejecutar con {@code ./mvnw -Pbenchmark test-compile exec:exec}; el resultado queda en target/jmh-result.json.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MapeoFilasBenchmark {
+
+    private static final int FILAS = 1000;
+
+    private static final String[] COLUMNAS = {
+            "estado_texto", "fecha", "cod_cliente", "nombre_cliente", "direccion", "zona", "cod_articulo",
+            "cantidad", "linea_articulo", "producto_completo", "precio_unitario", "descuento", "total_bs",
+            "desc_bs", "bs_unitario", "total_bs_desc", "total_general_bs"
+    };
+
+    private static final ResultSetEnMemoria.Tipo[] TIPOS;
+
+    static {
+        TIPOS = new ResultSetEnMemoria.Tipo[COLUMNAS.length];
+        for (int i = 0; i < TIPOS.length; i++) {
+            TIPOS[i] = i >= 10 ? ResultSetEnMemoria.Tipo.NUMERICO : ResultSetEnMemoria.Tipo.TEXTO;
+        }
+        TIPOS[1] = ResultSetEnMemoria.Tipo.FECHA;
+        TIPOS[2] = ResultSetEnMemoria.Tipo.LARGO;
+        TIPOS[7] = ResultSetEnMemoria.Tipo.ENTERO;
+    }
+
+    private String[][] filas;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        LocalDate inicio = LocalDate.of(2025, 1, 1);
+        filas = new String[FILAS][];
+        for (int i = 0; i < FILAS; i++) {
+            int cantidad = 1 + random.nextInt(50);
+            double precio = 5 + random.nextInt(50_000) / 100.0;
+            boolean conDescuento = random.nextInt(3) == 0;
+            double descuento = conDescuento ? random.nextInt(20) : 0;
+            double total = precio * cantidad;
+            double descBs = total * descuento / 100;
+            filas[i] = new String[]{
+                    i % 50 == 49 ? "TOTAL" : "ACTIVO",
+                    inicio.plusDays(random.nextInt(365)).toString(),
+                    Long.toString(1 + random.nextInt(2_000)),
+                    "CLIENTE " + random.nextInt(2_000),
+                    "AV. PRINCIPAL " + random.nextInt(900),
+                    "ZONA " + random.nextInt(30),
+                    "ART-" + random.nextInt(5_000),
+                    Integer.toString(cantidad),
+                    "LINEA " + random.nextInt(40),
+                    "PRODUCTO " + random.nextInt(5_000),
+                    monto(precio),
+                    conDescuento ? monto(descuento) : null,
+                    monto(total),
+                    monto(descBs),
+                    monto((total - descBs) / cantidad),
+                    monto(total - descBs),
+                    monto(total - descBs)
+            };
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public void antes(Blackhole blackhole) throws SQLException {
+        ResultSet rs = ResultSetEnMemoria.abrir(COLUMNAS, TIPOS, filas);
+        while (rs.next()) {
+            blackhole.consume(mapearAntes(rs));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public void despues(Blackhole blackhole) throws SQLException {
+        ResultSet rs = ResultSetEnMemoria.abrir(COLUMNAS, TIPOS, filas);
+        BaseRepository.ResultSetMapper<VentaReporteDTO> mapper = NotaEntregaRepository.mapVentaReporte();
+        while (rs.next()) {
+            blackhole.consume(mapper.map(rs));
+        }
+    }
+
+    /**
+     * Copia del mapper de obtenerReporteVentas previo a la resolución de índices por ResultSet
+     */
+    private static VentaReporteDTO mapearAntes(ResultSet rs) throws SQLException {
+        String estadoTexto = rs.getString("estado_texto");
+        String tipoFila = "TOTAL".equals(estadoTexto) ? "TOTAL" : "DETALLE";
+
+        return VentaReporteDTO.builder()
+                .fecha(rs.getDate("fecha") != null ? rs.getDate("fecha").toLocalDate() : null)
+                .codCliente(rs.getObject("cod_cliente") != null ? rs.getLong("cod_cliente") : null)
+                .nombreCliente(rs.getString("nombre_cliente"))
+                .direccion(rs.getString("direccion"))
+                .ciudad(rs.getString("zona"))
+                .codArticulo(rs.getString("cod_articulo"))
+                .cantidad(rs.getObject("cantidad") != null ? rs.getInt("cantidad") : null)
+                .lineaArticulo(rs.getString("linea_articulo"))
+                .productoCompleto(rs.getString("producto_completo"))
+                .precioUnitario(rs.getObject("precio_unitario") != null ? rs.getFloat("precio_unitario") : null)
+                .descuento(rs.getObject("descuento") != null ? rs.getFloat("descuento") : null)
+                .totalBs(rs.getObject("total_bs") != null ? rs.getFloat("total_bs") : null)
+                .descBs(rs.getObject("desc_bs") != null ? rs.getFloat("desc_bs") : null)
+                .bsUnitario(rs.getObject("bs_unitario") != null ? rs.getFloat("bs_unitario") : null)
+                .totalBsDesc(rs.getObject("total_bs_desc") != null ? rs.getFloat("total_bs_desc") : null)
+                .totalGeneralBs(rs.getObject("total_general_bs") != null ? rs.getFloat("total_general_bs") : null)
+                .tipoFila(tipoFila)
+                .build();
+    }
+
+    private static String monto(double valor) {
+        return String.format(Locale.ROOT, "%.2f", valor);
+    }
+}
@@ -0,0 +1,131 @@
+package com.yahveh.repository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ResultSet de solo avance sobre filas en memoria, para medir mappers sin base de datos.
+ * Imita lo que cuesta en el driver de Postgres con protocolo de texto: cada getter decodifica el texto
+ * de la celda (getObject de un numeric arma un BigDecimal, getFloat parsea el float) y la búsqueda
+ * por nombre pasa por un HashMap con reintento en minúsculas, como PgResultSet.findColumn.
+ */
+final class ResultSetEnMemoria implements InvocationHandler {
+
+    enum Tipo {TEXTO, ENTERO, LARGO, NUMERICO, FECHA}
+
+    private final String[] columnas;
+    private final Tipo[] tipos;
+    private final String[][] filas;
+    private final Map<String, Integer> indicePorNombre = new HashMap<>();
+    private final ResultSetMetaData metaData;
+
+    private int fila = -1;
+    private boolean ultimoNulo;
+
+    private ResultSetEnMemoria(String[] columnas, Tipo[] tipos, String[][] filas) {
+        this.columnas = columnas;
+        this.tipos = tipos;
+        this.filas = filas;
+        for (int i = columnas.length - 1; i >= 0; i--) {
+            indicePorNombre.put(columnas[i], i + 1);
+        }
+        this.metaData = (ResultSetMetaData) Proxy.newProxyInstance(ResultSetMetaData.class.getClassLoader(),
+                new Class<?>[]{ResultSetMetaData.class}, this::metaData);
+    }
+
+    /**
+     * Un ResultSet nuevo, posicionado antes de la primera fila
+     */
+    static ResultSet abrir(String[] columnas, Tipo[] tipos, String[][] filas) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, new ResultSetEnMemoria(columnas, tipos, filas));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws SQLException {
+        return switch (method.getName()) {
+            case "next" -> ++fila < filas.length;
+            case "wasNull" -> ultimoNulo;
+            case "getMetaData" -> metaData;
+            case "close" -> null;
+            case "isClosed" -> false;
+            case "findColumn" -> buscar((String) args[0]);
+            case "getString" -> leer(args[0]);
+            case "getInt" -> {
+                String texto = leer(args[0]);
+                yield texto == null ? 0 : Integer.parseInt(texto);
+            }
+            case "getLong" -> {
+                String texto = leer(args[0]);
+                yield texto == null ? 0L : Long.parseLong(texto);
+            }
+            case "getFloat" -> {
+                String texto = leer(args[0]);
+                yield texto == null ? 0f : Float.parseFloat(texto);
+            }
+            case "getBigDecimal" -> {
+                String texto = leer(args[0]);
+                yield texto == null ? null : new BigDecimal(texto);
+            }
+            case "getDate" -> {
+                String texto = leer(args[0]);
+                yield texto == null ? null : Date.valueOf(texto);
+            }
+            case "getObject" -> objeto(args[0]);
+            default -> throw new UnsupportedOperationException("ResultSet." + method.getName());
+        };
+    }
+
+    private Object metaData(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "getColumnCount" -> columnas.length;
+            case "getColumnLabel", "getColumnName" -> columnas[(Integer) args[0] - 1];
+            default -> throw new UnsupportedOperationException("ResultSetMetaData." + method.getName());
+        };
+    }
+
+    private int buscar(String nombre) throws SQLException {
+        Integer indice = indicePorNombre.get(nombre);
+        if (indice == null) {
+            indice = indicePorNombre.get(nombre.toLowerCase(Locale.ROOT));
+        }
+        if (indice == null) {
+            throw new SQLException("Columna no encontrada: " + nombre);
+        }
+        return indice;
+    }
+
+    private int indice(Object columna) throws SQLException {
+        return columna instanceof String nombre ? buscar(nombre) : (Integer) columna;
+    }
+
+    private String leer(Object columna) throws SQLException {
+        String texto = filas[fila][indice(columna) - 1];
+        ultimoNulo = texto == null;
+        return texto;
+    }
+
+    private Object objeto(Object columna) throws SQLException {
+        int indice = indice(columna);
+        String texto = leer(indice);
+        if (texto == null) {
+            return null;
+        }
+        return switch (tipos[indice - 1]) {
+            case TEXTO -> texto;
+            case ENTERO -> Integer.valueOf(texto);
+            case LARGO -> Long.valueOf(texto);
+            case NUMERICO -> new BigDecimal(texto);
+            case FECHA -> Date.valueOf(texto);
+        };
+    }
+}
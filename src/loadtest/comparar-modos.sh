@@ -0,0 +1,60 @@
+#!/usr/bin/env bash
+# Compara pool de workers vs hilos virtuales en el listado y el alta de notas de entrega.
+# Levanta la aplicación empaquetada dos veces contra la misma base (usar una base de pruebas: el escenario
+# "crear" inserta notas) y corre PruebaCarga con los mismos parámetros en cada modo.
+#
+#   LOGIN=admin PASSWORD=secreto CLIENTE=1 ARTICULO=ABC-01 src/loadtest/comparar-modos.sh
+#
+# En modo "trabajadores" se arranca con quarkus.virtual-threads.enabled=false: los métodos con
+# @RunOnVirtualThread corren en el pool de workers (quarkus.thread-pool.max-threads). @LimiteConcurrencia
+# queda activo en los dos modos.
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+
+USUARIOS="${USUARIOS:-200}"
+CALENTAMIENTO="${CALENTAMIENTO:-15}"
+DURACION="${DURACION:-60}"
+PUERTO="${PUERTO:-8080}"
+SALIDA="${SALIDA:-target/carga/resultados-$(date +%Y%m%d-%H%M%S).csv}"
+HARNESS=src/loadtest/java/com/yahveh/carga/PruebaCarga.java
+
+if [[ "${SIN_EMPAQUETAR:-}" != "1" ]]; then
+    ./mvnw -B -q package -DskipTests
+fi
+mkdir -p target/carga
+
+for modo in trabajadores virtuales; do
+    opciones=("-Dquarkus.http.port=${PUERTO}")
+    if [[ "$modo" == "trabajadores" ]]; then
+        opciones+=("-Dquarkus.virtual-threads.enabled=false")
+    fi
+
+    java "${opciones[@]}" -jar target/quarkus-app/quarkus-run.jar > "target/carga/app-${modo}.log" 2>&1 &
+    app=$!
+    trap 'kill $app 2>/dev/null || true' EXIT
+
+    until curl -sf "http://localhost:${PUERTO}/q/health/ready" > /dev/null; do
+        if ! kill -0 "$app" 2>/dev/null; then
+            echo "La aplicación no arrancó en modo ${modo}, ver target/carga/app-${modo}.log" >&2
+            exit 1
+        fi
+        sleep 1
+    done
+
+    for escenario in listar crear; do
+        java "$HARNESS" \
+            --url="http://localhost:${PUERTO}" \
+            --login="${LOGIN:-admin}" --password="${PASSWORD:-admin}" \
+            --escenario="$escenario" --modo="$modo" \
+            --usuarios="$USUARIOS" --calentamiento="$CALENTAMIENTO" --duracion="$DURACION" \
+            --cliente="${CLIENTE:-1}" ${ARTICULO:+--articulo="$ARTICULO"} \
+            --salida="$SALIDA"
+    done
+
+    kill "$app"
+    wait "$app" 2>/dev/null || true
+    trap - EXIT
+done
+
+echo "Resultados en ${SALIDA}"
@@ -0,0 +1,235 @@
+package com.yahveh.carga;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generador de carga de lazo cerrado para los endpoints de notas de entrega.
+ * Cada usuario virtual repite la petición del escenario apenas recibe la respuesta; solo se miden las
+ * peticiones que empiezan después del calentamiento. Al final imprime throughput y percentiles y agrega
+ * una fila al CSV de resultados.
+ * <p>
+ * Se ejecuta sin compilar (Java 21): {@code java src/loadtest/java/com/yahveh/carga/PruebaCarga.java --escenario=listar}
+ * <p>
+ * Opciones (--clave=valor): url, login, password, escenario (listar | crear), usuarios, calentamiento y
+ * duracion (segundos), limite (filas por página al listar), cliente y articulo (nota creada), modo
+ * (etiqueta para el CSV) y salida (archivo CSV).
+ */
+public class PruebaCarga {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opciones = opciones(args);
+        String url = opciones.getOrDefault("url", "http://localhost:8080");
+        String escenario = opciones.getOrDefault("escenario", "listar");
+        int usuarios = Integer.parseInt(opciones.getOrDefault("usuarios", "200"));
+        long calentamiento = Long.parseLong(opciones.getOrDefault("calentamiento", "15"));
+        long duracion = Long.parseLong(opciones.getOrDefault("duracion", "60"));
+        String modo = opciones.getOrDefault("modo", "-");
+
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String token = login(cliente, url, opciones.getOrDefault("login", "admin"),
+                opciones.getOrDefault("password", "admin"));
+        HttpRequest peticion = peticion(url, token, escenario, opciones);
+
+        long inicio = System.nanoTime();
+        long inicioMedicion = inicio + Duration.ofSeconds(calentamiento).toNanos();
+        long fin = inicioMedicion + Duration.ofSeconds(duracion).toNanos();
+
+        List<Future<Usuario>> futuros = new ArrayList<>(usuarios);
+        try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < usuarios; i++) {
+                futuros.add(ejecutor.submit(() -> new Usuario().correr(cliente, peticion, inicioMedicion, fin)));
+            }
+        }
+
+        Resultado resultado = Resultado.de(futuros, duracion);
+        String resumen = String.format(Locale.ROOT,
+                "modo=%s escenario=%s usuarios=%d peticiones=%d errores=%d throughput=%.1f req/s "
+                        + "p50=%.2f ms p99=%.2f ms max=%.2f ms",
+                modo, escenario, usuarios, resultado.peticiones(), resultado.errores(), resultado.throughput(),
+                ms(resultado.p50()), ms(resultado.p99()), ms(resultado.maximo()));
+        System.out.println(resumen);
+        if (!resultado.estados().isEmpty()) {
+            System.out.println("Respuestas con error por estado: " + resultado.estados());
+        }
+
+        String salida = opciones.get("salida");
+        if (salida != null) {
+            guardar(Path.of(salida), String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%.1f,%.2f,%.2f,%.2f",
+                    modo, escenario, usuarios, duracion, resultado.peticiones(), resultado.errores(),
+                    resultado.throughput(), ms(resultado.p50()), ms(resultado.p99()), ms(resultado.maximo())));
+        }
+    }
+
+    private static String login(HttpClient cliente, String url, String login, String password)
+            throws IOException, InterruptedException {
+        String cuerpo = "{\"login\":\"" + login + "\",\"password\":\"" + password + "\"}";
+        HttpResponse<String> respuesta = cliente.send(HttpRequest.newBuilder(URI.create(url + "/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher token = TOKEN.matcher(respuesta.body());
+        if (respuesta.statusCode() != 200 || !token.find()) {
+            throw new IllegalStateException("Login fallido (" + respuesta.statusCode() + "): " + respuesta.body());
+        }
+        return token.group(1);
+    }
+
+    private static HttpRequest peticion(String url, String token, String escenario, Map<String, String> opciones) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30));
+        return switch (escenario) {
+            case "listar" -> builder
+                    .uri(URI.create(url + "/api/notas-entrega?limit=" + opciones.getOrDefault("limite", "50")))
+                    .GET()
+                    .build();
+            case "crear" -> builder
+                    .uri(URI.create(url + "/api/notas-entrega"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(notaNueva(opciones)))
+                    .build();
+            default -> throw new IllegalArgumentException("Escenario desconocido: " + escenario);
+        };
+    }
+
+    /**
+     * Nota del cliente indicado; con artículo lleva una línea de cantidad 1 (descuenta stock)
+     */
+    private static String notaNueva(Map<String, String> opciones) {
+        String articulo = opciones.get("articulo");
+        String detalles = articulo == null ? "[]"
+                : "[{\"codArticulo\":\"" + articulo + "\",\"cantidad\":1,"
+                + "\"precioUnitario\":1.0,\"precioSinFactura\":1.0}]";
+        return "{\"codCliente\":" + opciones.getOrDefault("cliente", "1")
+                + ",\"fecha\":\"" + LocalDate.now() + "\""
+                + ",\"direccion\":\"PRUEBA DE CARGA\",\"zona\":\"PRUEBA\""
+                + ",\"detalles\":" + detalles + "}";
+    }
+
+    private static Map<String, String> opciones(String[] args) {
+        Map<String, String> opciones = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Opción inválida (se espera --clave=valor): " + arg);
+            }
+            int igual = arg.indexOf('=');
+            opciones.put(arg.substring(2, igual), arg.substring(igual + 1));
+        }
+        return opciones;
+    }
+
+    private static void guardar(Path archivo, String fila) throws IOException {
+        if (archivo.getParent() != null) {
+            Files.createDirectories(archivo.getParent());
+        }
+        if (!Files.exists(archivo)) {
+            Files.writeString(archivo, "modo,escenario,usuarios,duracion_s,peticiones,errores,"
+                    + "throughput_rps,p50_ms,p99_ms,max_ms\n");
+        }
+        Files.writeString(archivo, fila + "\n", StandardOpenOption.APPEND);
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Latencias y errores de un usuario virtual (sin compartir estado entre hilos)
+     */
+    private static final class Usuario {
+        private long[] latencias = new long[1024];
+        private int cantidad;
+        private final Map<Integer, Integer> errores = new HashMap<>();
+
+        Usuario correr(HttpClient cliente, HttpRequest peticion, long inicioMedicion, long fin) {
+            long ahora;
+            while ((ahora = System.nanoTime()) < fin) {
+                int estado;
+                try {
+                    estado = cliente.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (IOException e) {
+                    estado = -1;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                long latencia = System.nanoTime() - ahora;
+                if (ahora < inicioMedicion) {
+                    continue;
+                }
+                if (estado < 200 || estado >= 300) {
+                    errores.merge(estado, 1, Integer::sum);
+                    continue;
+                }
+                if (cantidad == latencias.length) {
+                    latencias = Arrays.copyOf(latencias, cantidad * 2);
+                }
+                latencias[cantidad++] = latencia;
+            }
+            return this;
+        }
+    }
+
+    private record Resultado(long peticiones, long errores, double throughput, long p50, long p99, long maximo,
+                             Map<Integer, Integer> estados) {
+
+        /**
+         * Throughput de respuestas correctas por segundo medido; percentiles sobre esas mismas respuestas
+         */
+        static Resultado de(List<Future<Usuario>> futuros, long duracion) throws Exception {
+            int total = 0;
+            List<Usuario> usuarios = new ArrayList<>(futuros.size());
+            Map<Integer, Integer> estados = new HashMap<>();
+            for (Future<Usuario> futuro : futuros) {
+                Usuario usuario = futuro.get();
+                usuarios.add(usuario);
+                total += usuario.cantidad;
+                usuario.errores.forEach((estado, veces) -> estados.merge(estado, veces, Integer::sum));
+            }
+            long[] todas = new long[total];
+            int posicion = 0;
+            for (Usuario usuario : usuarios) {
+                System.arraycopy(usuario.latencias, 0, todas, posicion, usuario.cantidad);
+                posicion += usuario.cantidad;
+            }
+            Arrays.sort(todas);
+            long errores = estados.values().stream().mapToLong(Integer::longValue).sum();
+            return new Resultado(total, errores, (double) total / duracion,
+                    percentil(todas, 0.50), percentil(todas, 0.99), total == 0 ? 0 : todas[total - 1], estados);
+        }
+
+        private static long percentil(long[] ordenadas, double fraccion) {
+            if (ordenadas.length == 0) {
+                return 0;
+            }
+            int indice = (int) Math.ceil(fraccion * ordenadas.length) - 1;
+            return ordenadas[Math.max(0, indice)];
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.yahveh.cache;
+
+import com.yahveh.dto.LineaVentaDTO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Líneas de venta en memoria en formato columnar para consultas de análisis.
+ * Cada día es un segmento inmutable de arreglos primitivos: cliente, artículo, zona y línea como
+ * identificadores de diccionario, cantidad e importe en centavos. Un cambio en las notas reemplaza
+ * solo los segmentos de sus días. Todas las cargas se aplican en un único hilo, en orden.
+ */
+@Slf4j
+public class AlmacenVentas implements CacheAdministrable {
+
+    public enum Dimension {CLIENTE, ARTICULO, ZONA, LINEA}
+
+    /**
+     * Acumulado de un grupo (un cliente, un artículo, una zona, una línea o un mes)
+     */
+    public record Total(String clave, String descripcion, long cantidad, long importeCentavos, int lineas) {
+    }
+
+    private final String nombre;
+    private final BiFunction<LocalDate, LocalDate, List<LineaVentaDTO>> cargador;
+
+    private final Diccionario clientes = new Diccionario();
+    private final Diccionario articulos = new Diccionario();
+    private final Diccionario zonas = new Diccionario();
+    private final Diccionario lineas = new Diccionario();
+
+    /**
+     * Segmentos por día (epoch day); se reemplaza completo en cada carga total
+     */
+    private volatile ConcurrentSkipListMap<Long, Segmento> segmentos = new ConcurrentSkipListMap<>();
+
+    private final ExecutorService actualizador = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().daemon().name("almacen-ventas").factory());
+    private final AtomicBoolean cargaPendiente = new AtomicBoolean();
+
+    private volatile boolean cargado;
+    private volatile LocalDate cargarDesde;
+
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder cargas = new LongAdder();
+    private final LongAdder invalidaciones = new LongAdder();
+
+    public AlmacenVentas(String nombre, BiFunction<LocalDate, LocalDate, List<LineaVentaDTO>> cargador) {
+        this.nombre = nombre;
+        this.cargador = cargador;
+    }
+
+    /**
+     * Programar la carga completa desde la fecha indicada hasta hoy
+     */
+    public void cargar(LocalDate desde) {
+        cargarDesde = desde;
+        programarCargaCompleta();
+    }
+
+    /**
+     * Programar la recarga de los días modificados
+     */
+    public void recargarDias(Collection<LocalDate> dias) {
+        List<LocalDate> ordenados = List.copyOf(new TreeSet<>(dias));
+        actualizador.execute(() -> {
+            for (LocalDate dia : ordenados) {
+                try {
+                    reemplazarDia(dia, cargador.apply(dia, dia));
+                } catch (RuntimeException e) {
+                    // El día queda desactualizado; se corrige con la próxima carga completa
+                    log.error("No se pudo recargar el día {} del almacén de ventas: {}", dia, e.getMessage());
+                }
+            }
+        });
+    }
+
+    public boolean isCargado() {
+        return cargado;
+    }
+
+    public void cerrar() {
+        actualizador.shutdownNow();
+    }
+
+    /**
+     * Totales del período agrupados por la dimensión, de mayor a menor importe (o cantidad)
+     *
+     * @param limite 0 para todos los grupos
+     */
+    public List<Total> totales(Dimension dimension, LocalDate desde, LocalDate hasta, int limite,
+                               boolean porCantidad) {
+        consultas.increment();
+        List<Segmento> periodo = segmentos(desde, hasta);
+        Diccionario diccionario = diccionario(dimension);
+
+        // Los ids de los segmentos ya publicados son menores que el tamaño leído después
+        int grupos = diccionario.tamanio();
+        long[] cantidad = new long[grupos];
+        long[] importe = new long[grupos];
+        int[] cuenta = new int[grupos];
+
+        for (Segmento segmento : periodo) {
+            int[] ids = segmento.columna(dimension);
+            for (int i = 0; i < segmento.filas; i++) {
+                int id = ids[i];
+                cantidad[id] += segmento.cantidad[i];
+                importe[id] += segmento.importe[i];
+                cuenta[id]++;
+            }
+        }
+
+        long[] orden = porCantidad ? cantidad : importe;
+        List<Total> resultado = new ArrayList<>();
+        for (int id = 0; id < grupos; id++) {
+            if (cuenta[id] > 0) {
+                resultado.add(new Total(diccionario.clave(id), diccionario.descripcion(id),
+                        cantidad[id], importe[id], cuenta[id]));
+            }
+        }
+
+        Comparator<Total> comparador = porCantidad
+                ? Comparator.comparingLong(Total::cantidad)
+                : Comparator.comparingLong(Total::importeCentavos);
+        resultado.sort(comparador.reversed().thenComparing(Total::clave));
+
+        return limite > 0 && resultado.size() > limite ? List.copyOf(resultado.subList(0, limite)) : resultado;
+    }
+
+    /**
+     * Totales del período por mes (clave yyyy-MM), en orden cronológico
+     */
+    public List<Total> totalesPorMes(LocalDate desde, LocalDate hasta) {
+        consultas.increment();
+        NavigableMap<YearMonth, long[]> meses = new TreeMap<>();
+
+        for (Segmento segmento : segmentos(desde, hasta)) {
+            long[] acumulado = meses.computeIfAbsent(YearMonth.from(LocalDate.ofEpochDay(segmento.dia)),
+                    mes -> new long[3]);
+            acumulado[0] += segmento.cantidadTotal;
+            acumulado[1] += segmento.importeTotal;
+            acumulado[2] += segmento.filas;
+        }
+
+        List<Total> resultado = new ArrayList<>(meses.size());
+        meses.forEach((mes, acumulado) -> resultado.add(
+                new Total(mes.toString(), mes.toString(), acumulado[0], acumulado[1], (int) acumulado[2])));
+        return resultado;
+    }
+
+    @Override
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Se vuelve a cargar todo en segundo plano; mientras tanto se siguen sirviendo los datos anteriores
+     */
+    @Override
+    public void invalidar() {
+        invalidaciones.increment();
+        if (cargarDesde != null) {
+            programarCargaCompleta();
+        }
+    }
+
+    @Override
+    public EstadisticasCache estadisticas() {
+        int filas = 0;
+        for (Segmento segmento : segmentos.values()) {
+            filas += segmento.filas;
+        }
+        return EstadisticasCache.builder()
+                .nombre(nombre)
+                .aciertos(consultas.sum())
+                .cargas(cargas.sum())
+                .invalidaciones(invalidaciones.sum())
+                .tamanio(filas)
+                .build();
+    }
+
+    /**
+     * Varias invalidaciones seguidas se resuelven con una sola carga
+     */
+    private void programarCargaCompleta() {
+        if (!cargaPendiente.compareAndSet(false, true)) {
+            return;
+        }
+        actualizador.execute(() -> {
+            cargaPendiente.set(false);
+            try {
+                cargarCompleto();
+            } catch (RuntimeException e) {
+                log.error("Falló la carga del almacén de ventas", e);
+            }
+        });
+    }
+
+    private void cargarCompleto() {
+        long inicio = System.currentTimeMillis();
+        ConcurrentSkipListMap<Long, Segmento> nuevos = new ConcurrentSkipListMap<>();
+        LocalDate hoy = LocalDate.now();
+        int filas = 0;
+
+        // Por meses para no traer todo el historial en una sola consulta
+        LocalDate desde = cargarDesde;
+        while (!desde.isAfter(hoy)) {
+            LocalDate finMes = desde.withDayOfMonth(desde.lengthOfMonth());
+            LocalDate hasta = finMes.isBefore(hoy) ? finMes : hoy;
+
+            for (Segmento segmento : construir(cargador.apply(desde, hasta))) {
+                nuevos.put(segmento.dia, segmento);
+                filas += segmento.filas;
+            }
+            desde = hasta.plusDays(1);
+        }
+
+        // Días posteriores a hoy (notas con fecha futura) se conservan tal como se recargaron
+        nuevos.putAll(segmentos.tailMap(hoy.plusDays(1).toEpochDay()));
+
+        segmentos = nuevos;
+        cargado = true;
+        cargas.increment();
+        log.info("Almacén de ventas cargado: {} líneas en {} días, {} ms", filas, nuevos.size(),
+                System.currentTimeMillis() - inicio);
+    }
+
+    private void reemplazarDia(LocalDate dia, List<LineaVentaDTO> ventas) {
+        List<Segmento> nuevos = construir(ventas);
+        if (nuevos.isEmpty()) {
+            segmentos.remove(dia.toEpochDay());
+        } else {
+            nuevos.forEach(segmento -> segmentos.put(segmento.dia, segmento));
+        }
+    }
+
+    /**
+     * Convertir las líneas de venta en un segmento por día
+     */
+    private List<Segmento> construir(List<LineaVentaDTO> ventas) {
+        Map<LocalDate, List<LineaVentaDTO>> porDia = new HashMap<>();
+        for (LineaVentaDTO venta : ventas) {
+            porDia.computeIfAbsent(venta.getFecha(), dia -> new ArrayList<>()).add(venta);
+        }
+
+        List<Segmento> resultado = new ArrayList<>(porDia.size());
+        porDia.forEach((dia, filas) -> {
+            Segmento segmento = new Segmento(dia.toEpochDay(), filas.size());
+            for (int i = 0; i < filas.size(); i++) {
+                LineaVentaDTO venta = filas.get(i);
+                segmento.cliente[i] = clientes.id(
+                        venta.getCodCliente() != null ? venta.getCodCliente().toString() : "",
+                        venta.getNombreCliente());
+                segmento.articulo[i] = articulos.id(venta.getCodArticulo(), venta.getProductoCompleto());
+                segmento.zona[i] = zonas.id(venta.getZona(), venta.getZona());
+                segmento.linea[i] = lineas.id(venta.getLineaArticulo(), venta.getLineaArticulo());
+                segmento.cantidad[i] = venta.getCantidad();
+                segmento.importe[i] = venta.getImporteCentavos();
+                segmento.cantidadTotal += segmento.cantidad[i];
+                segmento.importeTotal += segmento.importe[i];
+            }
+            resultado.add(segmento);
+        });
+        return resultado;
+    }
+
+    private List<Segmento> segmentos(LocalDate desde, LocalDate hasta) {
+        return new ArrayList<>(segmentos.subMap(desde.toEpochDay(), true, hasta.toEpochDay(), true).values());
+    }
+
+    private Diccionario diccionario(Dimension dimension) {
+        return switch (dimension) {
+            case CLIENTE -> clientes;
+            case ARTICULO -> articulos;
+            case ZONA -> zonas;
+            case LINEA -> lineas;
+        };
+    }
+
+    private static final class Segmento {
+        private final long dia;
+        private final int filas;
+        private final int[] cliente;
+        private final int[] articulo;
+        private final int[] zona;
+        private final int[] linea;
+        private final int[] cantidad;
+        private final long[] importe;
+        private long cantidadTotal;
+        private long importeTotal;
+
+        Segmento(long dia, int filas) {
+            this.dia = dia;
+            this.filas = filas;
+            this.cliente = new int[filas];
+            this.articulo = new int[filas];
+            this.zona = new int[filas];
+            this.linea = new int[filas];
+            this.cantidad = new int[filas];
+            this.importe = new long[filas];
+        }
+
+        int[] columna(Dimension dimension) {
+            return switch (dimension) {
+                case CLIENTE -> cliente;
+                case ARTICULO -> articulo;
+                case ZONA -> zona;
+                case LINEA -> linea;
+            };
+        }
+    }
+
+    /**
+     * Códigos a enteros consecutivos; los ids no cambian mientras viva el almacén.
+     * Solo escribe el hilo del almacén, las consultas leen los arreglos publicados.
+     */
+    private static final class Diccionario {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private volatile String[] claves = new String[64];
+        private volatile String[] descripciones = new String[64];
+        private volatile int tamanio;
+
+        synchronized int id(String clave, String descripcion) {
+            String normalizada = clave != null ? clave : "";
+            Integer existente = ids.get(normalizada);
+            if (existente != null) {
+                // Se conserva la descripción más reciente (p. ej. un cliente que cambió de nombre)
+                if (descripcion != null) {
+                    descripciones[existente] = descripcion;
+                }
+                return existente;
+            }
+
+            int id = tamanio;
+            if (id == claves.length) {
+                claves = Arrays.copyOf(claves, id * 2);
+                descripciones = Arrays.copyOf(descripciones, id * 2);
+            }
+            claves[id] = normalizada;
+            descripciones[id] = descripcion;
+            ids.put(normalizada, id);
+            tamanio = id + 1;
+            return id;
+        }
+
+        int tamanio() {
+            return tamanio;
+        }
+
+        String clave(int id) {
+            return claves[id];
+        }
+
+        String descripcion(int id) {
+            return descripciones[id];
+        }
+    }
+}
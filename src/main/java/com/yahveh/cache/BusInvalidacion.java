@@ -0,0 +1,357 @@
+package com.yahveh.cache;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Invalidación de caches entre nodos con LISTEN/NOTIFY de PostgreSQL.
+ * Cada escritura confirmada publica sus etiquetas (entidades modificadas) en el canal; los demás nodos
+ * descartan las consultas en cache con esas etiquetas y los catálogos que dependen de ellas.
+ * Un evento puede llevar además las claves afectadas (etiqueta=clave1,clave2): si para esa etiqueta hay
+ * un manejador registrado solo se descartan esas claves, si no (o si el evento llega sin claves) la cache entera.
+ * Los mensajes llevan nodo y secuencia: si un nodo detecta un salto, o estuvo desconectado del canal,
+ * vacía todas sus caches porque no sabe qué se perdió.
+ */
+@Slf4j
+@ApplicationScoped
+public class BusInvalidacion {
+
+    private static final String CANAL = "yahveh_invalidacion";
+
+    private static final int ESPERA_NOTIFICACIONES_MS = 250;
+
+    /**
+     * Con más claves que esto un evento viaja sin claves (se invalida la entidad completa)
+     */
+    private static final int MAXIMO_CLAVES_POR_EVENTO = 200;
+
+    /**
+     * NOTIFY admite hasta 8000 bytes por mensaje
+     */
+    private static final int MAXIMO_BYTES_MENSAJE = 7900;
+
+    /**
+     * Catálogos en memoria que dependen de cada entidad (lo mismo que invalidan los servicios localmente)
+     */
+    private static final Map<String, List<String>> CACHES_POR_ETIQUETA = Map.ofEntries(
+            Map.entry("pais", List.of(CacheRegistro.PAIS)),
+            Map.entry("ciudad", List.of(CacheRegistro.CIUDAD, CacheRegistro.PAIS)),
+            Map.entry("zona", List.of(CacheRegistro.ZONA, CacheRegistro.CIUDAD)),
+            Map.entry("linea", List.of(CacheRegistro.LINEA, CacheRegistro.FAMILIA, CacheRegistro.ARTICULOS)),
+            Map.entry("familia", List.of(CacheRegistro.FAMILIA)),
+            Map.entry("articulo", List.of(CacheRegistro.LINEA, CacheRegistro.ARTICULOS)),
+            Map.entry("cliente", List.of(CacheRegistro.ZONA)),
+            Map.entry("usuario", List.of(CacheRegistro.MENU)),
+            Map.entry("precio_articulo", List.of(CacheRegistro.ARTICULOS, CacheRegistro.PRECIOS)),
+            Map.entry("inventario", List.of(CacheRegistro.ARTICULOS)),
+            // Otro nodo no informa qué artículos cambió: el libro de stock se recarga completo.
+            // Las ventas y los PDFs llegan por sus eventos con claves (días y notas)
+            Map.entry("nota_entrega", List.of(CacheRegistro.ARTICULOS)),
+            Map.entry("detalle_nota_entrega", List.of(CacheRegistro.ARTICULOS)),
+            // Eventos con claves; llegan sin claves solo si eran demasiadas
+            Map.entry(PdfNotaEntregaCache.EVENTO, List.of(CacheRegistro.PDF_NOTA_ENTREGA)),
+            Map.entry("ventas_dia", List.of(CacheRegistro.VENTAS))
+    );
+
+    @Inject
+    CacheConsultas cacheConsultas;
+
+    @Inject
+    CacheRegistro cacheRegistro;
+
+    @Inject
+    TransactionSynchronizationRegistry transacciones;
+
+    @ConfigProperty(name = "yahveh.cache.invalidacion.habilitada", defaultValue = "false")
+    boolean habilitada;
+
+    @ConfigProperty(name = "yahveh.cache.invalidacion.reintento", defaultValue = "PT5S")
+    Duration reintento;
+
+    @ConfigProperty(name = "quarkus.datasource.jdbc.url")
+    String url;
+
+    @ConfigProperty(name = "quarkus.datasource.username")
+    String usuario;
+
+    @ConfigProperty(name = "quarkus.datasource.password")
+    String clave;
+
+    private final String nodo = UUID.randomUUID().toString().substring(0, 8);
+    private final Queue<Map<String, Set<String>>> pendientes = new ConcurrentLinkedQueue<>();
+    private final Map<String, Consumer<Set<String>>> manejadores = new ConcurrentHashMap<>();
+
+    /**
+     * Solo los usa el hilo del bus
+     */
+    private final Map<String, Long> ultimaSecuencia = new HashMap<>();
+    private long secuencia;
+
+    private volatile boolean activo;
+    private Thread hilo;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!habilitada) {
+            return;
+        }
+        activo = true;
+        hilo = Thread.ofPlatform().daemon().name("bus-invalidacion").start(this::escuchar);
+        log.info("Bus de invalidación activo en el canal {} (nodo {})", CANAL, nodo);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        activo = false;
+        if (hilo != null) {
+            hilo.interrupt();
+        }
+    }
+
+    /**
+     * Con el bus apagado los cambios de otros nodos no llegan: las caches que solo se invalidan por eventos
+     * necesitan vencer solas
+     */
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    /**
+     * Atender en este nodo los eventos con claves de una etiqueta publicados por otros nodos
+     * (se llama en el hilo del bus, debe ser rápido)
+     */
+    public void alRecibir(String etiqueta, Consumer<Set<String>> manejador) {
+        manejadores.put(etiqueta, manejador);
+    }
+
+    /**
+     * Publicar las etiquetas modificadas (entidades completas); dentro de una transacción solo si se confirma
+     */
+    public void publicar(Collection<String> etiquetas) {
+        if (!habilitada || etiquetas.isEmpty()) {
+            return;
+        }
+        Map<String, Set<String>> eventos = new HashMap<>();
+        etiquetas.forEach(etiqueta -> eventos.put(etiqueta, Set.of()));
+        encolar(eventos);
+    }
+
+    /**
+     * Publicar las claves modificadas de una etiqueta; dentro de una transacción solo si se confirma
+     */
+    public void publicar(String etiqueta, Collection<String> claves) {
+        if (!habilitada || claves.isEmpty()) {
+            return;
+        }
+        boolean validas = claves.stream().allMatch(BusInvalidacion::claveValida);
+        encolar(Map.of(etiqueta, validas ? Set.copyOf(claves) : Set.of()));
+    }
+
+    private void encolar(Map<String, Set<String>> copia) {
+
+        if (transacciones.getTransactionKey() != null
+                && transacciones.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            transacciones.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == Status.STATUS_COMMITTED) {
+                        pendientes.offer(copia);
+                    }
+                }
+            });
+            return;
+        }
+        pendientes.offer(copia);
+    }
+
+    private void escuchar() {
+        boolean reconexion = false;
+
+        while (activo) {
+            try (Connection conn = DriverManager.getConnection(url, usuario, clave)) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("LISTEN " + CANAL);
+                }
+                ultimaSecuencia.clear();
+                if (reconexion) {
+                    // Mientras no se escuchaba pudieron perderse invalidaciones de otros nodos
+                    log.warn("Bus de invalidación reconectado, se vacían todas las caches");
+                    cacheRegistro.invalidarTodo();
+                }
+                reconexion = true;
+
+                PGConnection pg = conn.unwrap(PGConnection.class);
+                while (activo) {
+                    enviarPendientes(conn);
+                    PGNotification[] notificaciones = pg.getNotifications(ESPERA_NOTIFICACIONES_MS);
+                    if (notificaciones != null) {
+                        for (PGNotification notificacion : notificaciones) {
+                            recibir(notificacion.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!activo) {
+                    return;
+                }
+                log.error("Bus de invalidación desconectado, reintento en {}: {}", reintento, e.getMessage());
+                try {
+                    Thread.sleep(reintento.toMillis());
+                } catch (InterruptedException interrumpido) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Enviar en un solo NOTIFY todos los eventos acumulados; si falla se reintentan al reconectar
+     */
+    private void enviarPendientes(Connection conn) throws SQLException {
+        List<Map<String, Set<String>>> lote = new ArrayList<>();
+        Map<String, Set<String>> eventos;
+        while ((eventos = pendientes.poll()) != null) {
+            lote.add(eventos);
+        }
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        // Un evento sin claves (entidad completa) absorbe los de la misma etiqueta con claves
+        Map<String, Set<String>> union = new LinkedHashMap<>();
+        for (Map<String, Set<String>> evento : lote) {
+            evento.forEach((etiqueta, claves) -> union.merge(etiqueta, claves, BusInvalidacion::unir));
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT pg_notify(?, ?)")) {
+            stmt.setString(1, CANAL);
+            stmt.setString(2, nodo + "|" + (secuencia + 1) + "|" + serializar(union));
+            stmt.execute();
+            secuencia++;
+        } catch (SQLException e) {
+            pendientes.addAll(lote);
+            throw e;
+        }
+    }
+
+    private static Set<String> unir(Set<String> actuales, Set<String> nuevas) {
+        if (actuales.isEmpty() || nuevas.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> union = new LinkedHashSet<>(actuales);
+        union.addAll(nuevas);
+        return union.size() > MAXIMO_CLAVES_POR_EVENTO ? Set.of() : union;
+    }
+
+    /**
+     * "etiqueta1;etiqueta2=clave1,clave2"; si no entra en un NOTIFY los eventos van sin claves
+     */
+    private static String serializar(Map<String, Set<String>> eventos) {
+        StringBuilder conClaves = new StringBuilder();
+        StringBuilder sinClaves = new StringBuilder();
+        eventos.forEach((etiqueta, claves) -> {
+            if (!conClaves.isEmpty()) {
+                conClaves.append(';');
+                sinClaves.append(';');
+            }
+            conClaves.append(etiqueta);
+            sinClaves.append(etiqueta);
+            if (!claves.isEmpty()) {
+                conClaves.append('=').append(String.join(",", claves));
+            }
+        });
+        return conClaves.length() <= MAXIMO_BYTES_MENSAJE ? conClaves.toString() : sinClaves.toString();
+    }
+
+    private static Map<String, Set<String>> deserializar(String texto) {
+        Map<String, Set<String>> eventos = new LinkedHashMap<>();
+        for (String evento : texto.split(";")) {
+            String[] partes = evento.split("=", 2);
+            Set<String> claves = partes.length == 2 && !partes[1].isEmpty()
+                    ? Set.of(partes[1].split(","))
+                    : Set.of();
+            eventos.merge(partes[0], claves, BusInvalidacion::unir);
+        }
+        return eventos;
+    }
+
+    private static boolean claveValida(String clave) {
+        return clave != null && !clave.isEmpty()
+                && clave.chars().noneMatch(c -> c == ';' || c == '=' || c == ',' || c == '|');
+    }
+
+    /**
+     * Mensaje "nodo|secuencia|etiqueta1;etiqueta2=clave1,clave2"
+     */
+    private void recibir(String mensaje) {
+        String[] partes = mensaje.split("\\|", 3);
+        if (partes.length < 3 || nodo.equals(partes[0])) {
+            return;
+        }
+
+        long recibida;
+        try {
+            recibida = Long.parseLong(partes[1]);
+        } catch (NumberFormatException e) {
+            log.warn("Mensaje de invalidación inválido: {}", mensaje);
+            return;
+        }
+
+        Long anterior = ultimaSecuencia.put(partes[0], recibida);
+        if (anterior != null && recibida != anterior + 1) {
+            log.warn("Se perdieron invalidaciones del nodo {} ({} -> {}), se vacían todas las caches",
+                    partes[0], anterior, recibida);
+            cacheRegistro.invalidarTodo();
+            return;
+        }
+
+        Map<String, Set<String>> eventos = deserializar(partes[2]);
+        cacheConsultas.invalidarEtiquetas(eventos.keySet());
+        eventos.forEach((etiqueta, claves) -> {
+            Consumer<Set<String>> manejador = manejadores.get(etiqueta);
+            if (manejador != null && !claves.isEmpty()) {
+                try {
+                    manejador.accept(claves);
+                    return;
+                } catch (RuntimeException e) {
+                    log.warn("Falló la invalidación de {} con claves {}: {}", etiqueta, claves, e.getMessage());
+                }
+            }
+            CACHES_POR_ETIQUETA.getOrDefault(etiqueta, List.of()).forEach(cacheRegistro::invalidar);
+        });
+        log.debug("Invalidación recibida del nodo {}: {}", partes[0], eventos);
+    }
+}
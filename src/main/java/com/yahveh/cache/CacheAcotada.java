@@ -0,0 +1,136 @@
+package com.yahveh.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Cache clave-valor acotada: descarta la entrada menos usada al superar el máximo
+ * y considera vencidas las entradas más antiguas que el TTL.
+ */
+public class CacheAcotada<K, V> implements CacheAdministrable {
+
+    private final String nombre;
+    private final int maxEntradas;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder cargas = new LongAdder();
+    private final LongAdder invalidaciones = new LongAdder();
+
+    public CacheAcotada(String nombre, int maxEntradas, Duration ttl) {
+        this.nombre = nombre;
+        this.maxEntradas = maxEntradas;
+        this.ttlNanos = ttl.toNanos();
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> eldest) {
+                return size() > CacheAcotada.this.maxEntradas;
+            }
+        };
+    }
+
+    /**
+     * Obtener el valor en cache, si existe y no venció
+     */
+    public Optional<V> obtener(K clave) {
+        synchronized (entradas) {
+            Entrada<V> entrada = entradas.get(clave);
+            if (entrada != null && !entrada.vencida()) {
+                aciertos.increment();
+                return Optional.of(entrada.valor());
+            }
+            if (entrada != null) {
+                entradas.remove(clave);
+            }
+        }
+        fallos.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Obtener el valor o calcularlo y guardarlo. El cálculo se hace fuera del bloqueo.
+     */
+    public V obtener(K clave, Function<K, V> cargador) {
+        Optional<V> enCache = obtener(clave);
+        if (enCache.isPresent()) {
+            return enCache.get();
+        }
+        V valor = cargador.apply(clave);
+        cargas.increment();
+        if (valor != null) {
+            guardar(clave, valor);
+        }
+        return valor;
+    }
+
+    public void guardar(K clave, V valor) {
+        synchronized (entradas) {
+            entradas.put(clave, new Entrada<>(valor, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    public void invalidar(K clave) {
+        synchronized (entradas) {
+            if (entradas.remove(clave) != null) {
+                invalidaciones.increment();
+            }
+        }
+    }
+
+    /**
+     * Invalidar las entradas cuya clave cumple la condición
+     */
+    public void invalidarSi(Predicate<K> condicion) {
+        synchronized (entradas) {
+            entradas.keySet().removeIf(clave -> {
+                boolean eliminar = condicion.test(clave);
+                if (eliminar) {
+                    invalidaciones.increment();
+                }
+                return eliminar;
+            });
+        }
+    }
+
+    @Override
+    public String getNombre() {
+        return nombre;
+    }
+
+    @Override
+    public void invalidar() {
+        synchronized (entradas) {
+            entradas.clear();
+        }
+        invalidaciones.increment();
+    }
+
+    @Override
+    public EstadisticasCache estadisticas() {
+        int tamanio;
+        synchronized (entradas) {
+            tamanio = entradas.size();
+        }
+        return EstadisticasCache.builder()
+                .nombre(nombre)
+                .aciertos(aciertos.sum())
+                .fallos(fallos.sum())
+                .cargas(cargas.sum())
+                .invalidaciones(invalidaciones.sum())
+                .tamanio(tamanio)
+                .build();
+    }
+
+    private record Entrada<V>(V valor, long venceEnNanos) {
+        boolean vencida() {
+            return System.nanoTime() - venceEnNanos > 0;
+        }
+    }
+}
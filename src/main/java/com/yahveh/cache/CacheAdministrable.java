@@ -0,0 +1,13 @@
+package com.yahveh.cache;
+
+/**
+ * Cache en memoria que puede invalidarse y reportar sus estadísticas desde el CacheRegistro
+ */
+public interface CacheAdministrable {
+
+    String getNombre();
+
+    void invalidar();
+
+    EstadisticasCache estadisticas();
+}
@@ -0,0 +1,163 @@
+package com.yahveh.cache;
+
+import com.yahveh.repository.Sentencia;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache de lecturas de repositorio para sentencias declaradas con cache (Sentencia.cache).
+ * La clave es la sentencia más sus parámetros; cada entrada recuerda la generación de sus etiquetas
+ * (p. ej. "articulo", "precio_articulo") al momento de consultar. Una escritura con esas etiquetas
+ * sube la generación y las entradas anteriores dejan de servirse, sin recorrer la cache.
+ * Los resultados se comparten entre solicitudes: no deben modificarse.
+ */
+@Slf4j
+@ApplicationScoped
+public class CacheConsultas implements CacheAdministrable {
+
+    public static final String NOMBRE = "consultas";
+
+    @Inject
+    CacheRegistro cacheRegistro;
+
+    @Inject
+    TransactionSynchronizationRegistry transacciones;
+
+    @ConfigProperty(name = "yahveh.cache.consultas.max-entradas", defaultValue = "5000")
+    int maxEntradas;
+
+    /**
+     * Vigencia máxima de cualquier entrada; cada sentencia puede declarar una menor
+     */
+    @ConfigProperty(name = "yahveh.cache.consultas.ttl-maximo", defaultValue = "PT1H")
+    Duration ttlMaximo;
+
+    private CacheAcotada<ClaveConsulta, EntradaConsulta> entradas;
+    private final Map<String, AtomicLong> generaciones = new ConcurrentHashMap<>();
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder cargas = new LongAdder();
+    private final LongAdder invalidaciones = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        entradas = new CacheAcotada<>(NOMBRE, maxEntradas, ttlMaximo);
+        cacheRegistro.registrar(this);
+    }
+
+    /**
+     * Obtener el resultado en cache o ejecutar la consulta y guardarlo
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R obtener(Sentencia sentencia, Object[] parametros, Supplier<R> consulta) {
+        ClaveConsulta clave = new ClaveConsulta(sentencia.getNombre(), Arrays.asList(parametros.clone()));
+        long[] vigentes = generaciones(sentencia.getEtiquetas());
+
+        Optional<EntradaConsulta> entrada = entradas.obtener(clave);
+        if (entrada.isPresent() && entrada.get().valida(vigentes)) {
+            aciertos.increment();
+            return (R) entrada.get().valor();
+        }
+        fallos.increment();
+
+        // Las generaciones se toman antes de consultar: si alguien escribe mientras tanto, la entrada nace vencida
+        R valor = consulta.get();
+        cargas.increment();
+        entradas.guardar(clave, new EntradaConsulta(valor, vigentes,
+                System.nanoTime() + sentencia.getCache().toNanos()));
+        return valor;
+    }
+
+    /**
+     * Descartar las lecturas con alguna de las etiquetas. Dentro de una transacción se repite al
+     * terminarla, porque hasta el commit otra solicitud puede volver a cachear el valor anterior.
+     */
+    public void invalidarEtiquetas(Collection<String> etiquetas) {
+        if (etiquetas.isEmpty()) {
+            return;
+        }
+        subirGeneracion(etiquetas);
+
+        if (transacciones.getTransactionKey() != null
+                && transacciones.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            transacciones.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    subirGeneracion(etiquetas);
+                }
+            });
+        }
+    }
+
+    private void subirGeneracion(Collection<String> etiquetas) {
+        for (String etiqueta : etiquetas) {
+            generaciones.computeIfAbsent(etiqueta, e -> new AtomicLong()).incrementAndGet();
+        }
+        invalidaciones.increment();
+        log.debug("Consultas invalidadas por {}", etiquetas);
+    }
+
+    private long[] generaciones(List<String> etiquetas) {
+        long[] actuales = new long[etiquetas.size()];
+        for (int i = 0; i < actuales.length; i++) {
+            AtomicLong generacion = generaciones.get(etiquetas.get(i));
+            actuales[i] = generacion != null ? generacion.get() : 0;
+        }
+        return actuales;
+    }
+
+    @Override
+    public String getNombre() {
+        return NOMBRE;
+    }
+
+    @Override
+    public void invalidar() {
+        entradas.invalidar();
+        invalidaciones.increment();
+    }
+
+    @Override
+    public EstadisticasCache estadisticas() {
+        return EstadisticasCache.builder()
+                .nombre(NOMBRE)
+                .aciertos(aciertos.sum())
+                .fallos(fallos.sum())
+                .cargas(cargas.sum())
+                .invalidaciones(invalidaciones.sum())
+                .tamanio(entradas.estadisticas().getTamanio())
+                .build();
+    }
+
+    private record ClaveConsulta(String sentencia, List<Object> parametros) {
+    }
+
+    private record EntradaConsulta(Object valor, long[] generaciones, long expiraNanos) {
+
+        boolean valida(long[] vigentes) {
+            return System.nanoTime() < expiraNanos && Arrays.equals(generaciones, vigentes);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.yahveh.cache;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Registro central de caches en memoria: permite invalidarlas por nombre y consultar sus estadísticas
+ */
+@Slf4j
+@ApplicationScoped
+public class CacheRegistro {
+
+    public static final String PAIS = "pais";
+    public static final String CIUDAD = "ciudad";
+    public static final String ZONA = "zona";
+    public static final String LINEA = "linea";
+    public static final String FAMILIA = "familia";
+    public static final String MENU = "menu";
+    public static final String PDF_NOTA_ENTREGA = "pdf-nota-entrega";
+    public static final String RESPUESTAS_GZIP = "respuestas-gzip";
+    public static final String VENTAS = "ventas";
+    public static final String ARTICULOS = "articulos";
+    public static final String PRECIOS = "precios";
+
+    private final Map<String, CacheAdministrable> caches = new ConcurrentHashMap<>();
+
+    @ConfigProperty(name = "yahveh.cache.catalogos.ttl", defaultValue = "PT10M")
+    Duration ttlCatalogos;
+
+    @ConfigProperty(name = "yahveh.cache.catalogos.max-entradas", defaultValue = "10000")
+    int maxEntradasCatalogos;
+
+    /**
+     * Crear y registrar la cache de un catálogo con la configuración común de catálogos
+     */
+    public <T> CatalogoCache<T> crearCatalogo(String nombre, Supplier<List<T>> cargador,
+                                              ToLongFunction<T> codigo, ToLongFunction<T> codigoPadre) {
+        CatalogoCache<T> cache = new CatalogoCache<>(nombre, cargador, codigo, codigoPadre,
+                ttlCatalogos, maxEntradasCatalogos);
+        registrar(cache);
+        return cache;
+    }
+
+    /**
+     * Crear y registrar una cache clave-valor acotada
+     */
+    public <K, V> CacheAcotada<K, V> crearAcotada(String nombre, int maxEntradas, Duration ttl) {
+        CacheAcotada<K, V> cache = new CacheAcotada<>(nombre, maxEntradas, ttl);
+        registrar(cache);
+        return cache;
+    }
+
+    public void registrar(CacheAdministrable cache) {
+        caches.put(cache.getNombre(), cache);
+    }
+
+    public void invalidar(String nombre) {
+        CacheAdministrable cache = caches.get(nombre);
+        if (cache != null) {
+            cache.invalidar();
+            log.debug("Cache {} invalidada", nombre);
+        }
+    }
+
+    public void invalidarTodo() {
+        caches.values().forEach(CacheAdministrable::invalidar);
+        log.info("Todas las caches fueron invalidadas");
+    }
+
+    public List<EstadisticasCache> estadisticas() {
+        return caches.values().stream()
+                .map(CacheAdministrable::estadisticas)
+                .sorted(Comparator.comparing(EstadisticasCache::getNombre))
+                .toList();
+    }
+}
@@ -0,0 +1,139 @@
+package com.yahveh.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Snapshot completo de un catálogo pequeño (país, ciudad, zona, línea, familia),
+ * indexado por código y por código del padre. Se recarga al vencer el TTL o al invalidarse.
+ */
+@Slf4j
+public class CatalogoCache<T> implements CacheAdministrable {
+
+    private final String nombre;
+    private final Supplier<List<T>> cargador;
+    private final ToLongFunction<T> codigo;
+    private final ToLongFunction<T> codigoPadre;
+    private final Duration ttl;
+    private final int maxEntradas;
+
+    private volatile Snapshot<T> snapshot;
+    private final AtomicLong generacion = new AtomicLong();
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder cargas = new LongAdder();
+    private final LongAdder invalidaciones = new LongAdder();
+
+    /**
+     * @param codigoPadre null si el catálogo no tiene padre
+     */
+    public CatalogoCache(String nombre, Supplier<List<T>> cargador, ToLongFunction<T> codigo,
+                         ToLongFunction<T> codigoPadre, Duration ttl, int maxEntradas) {
+        this.nombre = nombre;
+        this.cargador = cargador;
+        this.codigo = codigo;
+        this.codigoPadre = codigoPadre;
+        this.ttl = ttl;
+        this.maxEntradas = maxEntradas;
+    }
+
+    public List<T> listar() {
+        return snapshot().todos;
+    }
+
+    public Optional<T> buscarPorCodigo(long codigo) {
+        return Optional.ofNullable(snapshot().porCodigo.get(codigo));
+    }
+
+    public List<T> listarPorPadre(long codigoPadre) {
+        return snapshot().porPadre.getOrDefault(codigoPadre, List.of());
+    }
+
+    @Override
+    public String getNombre() {
+        return nombre;
+    }
+
+    @Override
+    public void invalidar() {
+        generacion.incrementAndGet();
+        snapshot = null;
+        invalidaciones.increment();
+    }
+
+    @Override
+    public EstadisticasCache estadisticas() {
+        Snapshot<T> actual = snapshot;
+        return EstadisticasCache.builder()
+                .nombre(nombre)
+                .aciertos(aciertos.sum())
+                .fallos(fallos.sum())
+                .cargas(cargas.sum())
+                .invalidaciones(invalidaciones.sum())
+                .tamanio(actual != null ? actual.todos.size() : 0)
+                .build();
+    }
+
+    private Snapshot<T> snapshot() {
+        Snapshot<T> actual = snapshot;
+        if (actual != null && !actual.vencido()) {
+            aciertos.increment();
+            return actual;
+        }
+
+        fallos.increment();
+        synchronized (this) {
+            actual = snapshot;
+            if (actual != null && !actual.vencido()) {
+                return actual;
+            }
+
+            long generacionInicial = generacion.get();
+            Snapshot<T> nuevo = cargar();
+
+            if (nuevo.todos.size() > maxEntradas) {
+                log.warn("Catálogo {} excede el máximo de {} entradas ({}), no se guarda en cache",
+                        nombre, maxEntradas, nuevo.todos.size());
+            } else if (generacion.get() == generacionInicial) {
+                // Solo se publica si no hubo una invalidación mientras se cargaba
+                snapshot = nuevo;
+            }
+            return nuevo;
+        }
+    }
+
+    private Snapshot<T> cargar() {
+        long inicio = System.currentTimeMillis();
+        List<T> todos = List.copyOf(cargador.get());
+
+        Map<Long, T> porCodigo = new HashMap<>();
+        Map<Long, List<T>> porPadre = new HashMap<>();
+        for (T item : todos) {
+            porCodigo.put(codigo.applyAsLong(item), item);
+            if (codigoPadre != null) {
+                porPadre.computeIfAbsent(codigoPadre.applyAsLong(item), k -> new ArrayList<>()).add(item);
+            }
+        }
+        porPadre.replaceAll((k, v) -> List.copyOf(v));
+
+        cargas.increment();
+        log.info("Catálogo {} cargado en cache: {} registros en {} ms",
+                nombre, todos.size(), System.currentTimeMillis() - inicio);
+
+        return new Snapshot<>(todos, porCodigo, porPadre, System.nanoTime() + ttl.toNanos());
+    }
+
+    private record Snapshot<T>(List<T> todos, Map<Long, T> porCodigo, Map<Long, List<T>> porPadre,
+                               long venceEnNanos) {
+        boolean vencido() {
+            return System.nanoTime() - venceEnNanos > 0;
+        }
+    }
+}
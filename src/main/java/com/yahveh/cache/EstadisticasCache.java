@@ -0,0 +1,19 @@
+package com.yahveh.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasCache {
+    private String nombre;
+    private long aciertos;
+    private long fallos;
+    private long cargas;
+    private long invalidaciones;
+    private int tamanio;
+}
@@ -0,0 +1,361 @@
+package com.yahveh.cache;
+
+import com.yahveh.dto.response.PrecioArticuloResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Precios de artículos en memoria por (artículo, lista de precio), para cotizar sin ir a la base.
+ * El código de artículo se interna una vez a un entero y la clave (artículo, lista) se empaqueta en un long;
+ * la tabla es de direccionamiento abierto con los tres precios en arreglos paralelos de float, sin un objeto
+ * por precio. Las lecturas son optimistas (StampedLock) y solo reintentan con lock si hubo una escritura
+ * en el medio. Invalidar descarta todo y se recarga en la siguiente consulta; con vigencia también se
+ * recarga todo cuando vence (cambios que no avisa nadie, p. ej. los de otros nodos sin bus de invalidación).
+ * Los códigos de artículo se guardan en mayúsculas y sin espacios, vengan de la carga o de una escritura.
+ */
+@Slf4j
+public class IndicePrecios implements CacheAdministrable {
+
+    private static final long VACIA = -1L;
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    private final String nombre;
+    private final Supplier<List<PrecioArticuloResponse>> cargador;
+    private final Duration vigencia;
+
+    private final StampedLock lock = new StampedLock();
+    private final ReentrantLock carga = new ReentrantLock();
+
+    /**
+     * Solo se modifican con el lock de escritura (los artículos también se leen sin él)
+     */
+    private final Map<String, Integer> articulos = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> clavePorCodPrecio = new HashMap<>();
+
+    private volatile Tabla tabla = new Tabla(CAPACIDAD_INICIAL);
+    private volatile boolean cargado;
+    private volatile long venceEnNanos;
+
+    /**
+     * Escrituras recibidas; si cambia mientras se lee la base la carga no queda como vigente
+     */
+    private final AtomicLong cambios = new AtomicLong();
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder cargas = new LongAdder();
+    private final LongAdder invalidaciones = new LongAdder();
+
+    /**
+     * @param vigencia tiempo hasta recargar todos los precios; null no vence
+     */
+    public IndicePrecios(String nombre, Supplier<List<PrecioArticuloResponse>> cargador, Duration vigencia) {
+        this.nombre = nombre;
+        this.cargador = cargador;
+        this.vigencia = vigencia;
+    }
+
+    /**
+     * Precio del artículo en la lista indicada, null si no tiene
+     */
+    public Precio buscar(String codArticulo, int listaPrecio) {
+        asegurarCarga();
+
+        long marca = lock.tryOptimisticRead();
+        Precio precio = leer(codArticulo, listaPrecio);
+        if (!lock.validate(marca)) {
+            marca = lock.readLock();
+            try {
+                precio = leer(codArticulo, listaPrecio);
+            } finally {
+                lock.unlockRead(marca);
+            }
+        }
+
+        if (precio != null) {
+            aciertos.increment();
+        } else {
+            fallos.increment();
+        }
+        return precio;
+    }
+
+    /**
+     * Cargar de nuevo todos los precios (de a una carga a la vez)
+     */
+    public void cargar() {
+        carga.lock();
+        try {
+            cargarTodo();
+        } finally {
+            carga.unlock();
+        }
+    }
+
+    private void cargarTodo() {
+        long inicio = System.currentTimeMillis();
+        long version = cambios.get();
+        List<PrecioArticuloResponse> precios = cargador.get();
+
+        long marca = lock.writeLock();
+        try {
+            articulos.clear();
+            clavePorCodPrecio.clear();
+            tabla = new Tabla(capacidadPara(precios.size()));
+            for (PrecioArticuloResponse precio : precios) {
+                poner(precio.getCodPrecio(), precio.getCodArticulo(), precio.getListaPrecio(),
+                        precio.getPrecioBase(), precio.getPrecio(), precio.getPrecioSinFactura());
+            }
+            // Un precio escrito durante la lectura puede faltar: se vuelve a cargar en la próxima consulta
+            cargado = version == cambios.get();
+            venceEnNanos = vigencia != null ? System.nanoTime() + vigencia.toNanos() : 0;
+        } finally {
+            lock.unlockWrite(marca);
+        }
+
+        cargas.increment();
+        log.info("Índice de precios cargado: {} precios de {} artículos en {} ms", precios.size(),
+                articulos.size(), System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Alta o modificación de un precio (si cambió de artículo o de lista se quita la clave anterior)
+     */
+    public void fijar(int codPrecio, String codArticulo, int listaPrecio,
+                      float precioBase, float precio, float precioSinFactura) {
+        cambios.incrementAndGet();
+        if (!cargado) {
+            // La próxima consulta carga todo, que ya incluye este precio
+            return;
+        }
+        long marca = lock.writeLock();
+        try {
+            poner(codPrecio, codArticulo, listaPrecio, precioBase, precio, precioSinFactura);
+        } finally {
+            lock.unlockWrite(marca);
+        }
+    }
+
+    /**
+     * Baja de un precio
+     */
+    public void quitar(int codPrecio) {
+        cambios.incrementAndGet();
+        if (!cargado) {
+            return;
+        }
+        long marca = lock.writeLock();
+        try {
+            Long clave = clavePorCodPrecio.remove(codPrecio);
+            if (clave != null) {
+                tabla.borrar(clave);
+            }
+        } finally {
+            lock.unlockWrite(marca);
+        }
+    }
+
+    @Override
+    public String getNombre() {
+        return nombre;
+    }
+
+    @Override
+    public void invalidar() {
+        cargado = false;
+        invalidaciones.increment();
+    }
+
+    @Override
+    public EstadisticasCache estadisticas() {
+        return EstadisticasCache.builder()
+                .nombre(nombre)
+                .aciertos(aciertos.sum())
+                .fallos(fallos.sum())
+                .cargas(cargas.sum())
+                .invalidaciones(invalidaciones.sum())
+                .tamanio(cargado ? tabla.tamanio : 0)
+                .build();
+    }
+
+    private void asegurarCarga() {
+        if (cargado && !vencido()) {
+            return;
+        }
+        carga.lock();
+        try {
+            if (!cargado || vencido()) {
+                cargarTodo();
+            }
+        } finally {
+            carga.unlock();
+        }
+    }
+
+    private boolean vencido() {
+        return vigencia != null && System.nanoTime() - venceEnNanos > 0;
+    }
+
+    /**
+     * Lectura sin lock: los valores pueden ser inconsistentes si hubo una escritura, lo detecta validate()
+     */
+    private Precio leer(String codArticulo, int listaPrecio) {
+        Integer articulo = articulos.get(codArticulo);
+        if (articulo == null) {
+            return null;
+        }
+        Tabla actual = tabla;
+        int posicion = actual.posicion(clave(articulo, listaPrecio));
+        if (posicion < 0) {
+            return null;
+        }
+        return new Precio(actual.codPrecio[posicion], actual.precioBase[posicion],
+                actual.precio[posicion], actual.precioSinFactura[posicion]);
+    }
+
+    /**
+     * Llamar con el lock de escritura
+     */
+    private void poner(int codPrecio, String codArticulo, int listaPrecio,
+                       float precioBase, float precio, float precioSinFactura) {
+        String codigo = codArticulo.trim().toUpperCase();
+        Integer articulo = articulos.get(codigo);
+        if (articulo == null) {
+            articulo = articulos.size();
+            articulos.put(codigo.intern(), articulo);
+        }
+        long clave = clave(articulo, listaPrecio);
+
+        Long anterior = clavePorCodPrecio.put(codPrecio, clave);
+        if (anterior != null && anterior != clave) {
+            tabla.borrar(anterior);
+        }
+
+        if (tabla.llena()) {
+            tabla = tabla.agrandada();
+        }
+        tabla.poner(clave, codPrecio, precioBase, precio, precioSinFactura);
+    }
+
+    private static long clave(int articulo, int listaPrecio) {
+        return ((long) articulo << 32) | (listaPrecio & 0xFFFFFFFFL);
+    }
+
+    private static int capacidadPara(int precios) {
+        int capacidad = CAPACIDAD_INICIAL;
+        while (capacidad < precios * 2) {
+            capacidad <<= 1;
+        }
+        return capacidad;
+    }
+
+    /**
+     * Precio de un artículo en una lista
+     */
+    public record Precio(int codPrecio, float precioBase, float precio, float precioSinFactura) {
+    }
+
+    /**
+     * Tabla de sondeo lineal con ocupación máxima de la mitad (siempre queda un hueco que corta la búsqueda)
+     */
+    private static final class Tabla {
+        private final long[] claves;
+        private final int[] codPrecio;
+        private final float[] precioBase;
+        private final float[] precio;
+        private final float[] precioSinFactura;
+        private final int mascara;
+        private int tamanio;
+
+        private Tabla(int capacidad) {
+            claves = new long[capacidad];
+            Arrays.fill(claves, VACIA);
+            codPrecio = new int[capacidad];
+            precioBase = new float[capacidad];
+            precio = new float[capacidad];
+            precioSinFactura = new float[capacidad];
+            mascara = capacidad - 1;
+        }
+
+        private int posicion(long clave) {
+            for (int i = inicio(clave); ; i = (i + 1) & mascara) {
+                long actual = claves[i];
+                if (actual == clave) {
+                    return i;
+                }
+                if (actual == VACIA) {
+                    return -1;
+                }
+            }
+        }
+
+        private void poner(long clave, int cod, float base, float valor, float sinFactura) {
+            int i = inicio(clave);
+            while (claves[i] != VACIA && claves[i] != clave) {
+                i = (i + 1) & mascara;
+            }
+            if (claves[i] == VACIA) {
+                tamanio++;
+            }
+            codPrecio[i] = cod;
+            precioBase[i] = base;
+            precio[i] = valor;
+            precioSinFactura[i] = sinFactura;
+            claves[i] = clave;
+        }
+
+        /**
+         * Borrado con corrimiento hacia atrás: no deja lápidas que alarguen las búsquedas
+         */
+        private void borrar(long clave) {
+            int hueco = posicion(clave);
+            if (hueco < 0) {
+                return;
+            }
+            tamanio--;
+            for (int i = (hueco + 1) & mascara; claves[i] != VACIA; i = (i + 1) & mascara) {
+                int deseada = inicio(claves[i]);
+                // Se mueve si su posición deseada no queda entre el hueco y donde está ahora
+                if (((i - deseada) & mascara) >= ((i - hueco) & mascara)) {
+                    claves[hueco] = claves[i];
+                    codPrecio[hueco] = codPrecio[i];
+                    precioBase[hueco] = precioBase[i];
+                    precio[hueco] = precio[i];
+                    precioSinFactura[hueco] = precioSinFactura[i];
+                    hueco = i;
+                }
+            }
+            claves[hueco] = VACIA;
+        }
+
+        private boolean llena() {
+            return (tamanio + 1) * 2 > claves.length;
+        }
+
+        private Tabla agrandada() {
+            Tabla nueva = new Tabla(claves.length * 2);
+            for (int i = 0; i < claves.length; i++) {
+                if (claves[i] != VACIA) {
+                    nueva.poner(claves[i], codPrecio[i], precioBase[i], precio[i], precioSinFactura[i]);
+                }
+            }
+            return nueva;
+        }
+
+        private int inicio(long clave) {
+            long h = clave * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mascara;
+        }
+    }
+}
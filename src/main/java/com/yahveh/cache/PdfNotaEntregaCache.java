@@ -0,0 +1,351 @@
+package com.yahveh.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * PDFs de notas de entrega ya generados. La versión (estado + aud_fecha) viaja con cada entrada,
+ * así una nota modificada nunca devuelve el PDF anterior aunque se pierda una invalidación.
+ * Opcionalmente se guarda una copia en disco que sobrevive reinicios, con el mismo TTL que la memoria
+ * y un tope de archivos y de bytes (al pasarlo se borran los más viejos). El directorio se recorre una
+ * sola vez al iniciar; después los archivos, su tamaño total y sus fechas se llevan en memoria.
+ * Descartar el PDF de una nota se avisa a los demás nodos con el código de la nota (los procedimientos
+ * de detalle pueden no mover aud_fecha, así que la versión sola no alcanza).
+ */
+@Slf4j
+@ApplicationScoped
+public class PdfNotaEntregaCache implements CacheAdministrable {
+
+    /**
+     * Evento del bus de invalidación con los códigos de nota cuyo PDF se descartó
+     */
+    public static final String EVENTO = "pdf_nota_entrega";
+
+    private static final DateTimeFormatter FORMATO_VERSION = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+
+    @Inject
+    CacheRegistro cacheRegistro;
+
+    @Inject
+    BusInvalidacion busInvalidacion;
+
+    @ConfigProperty(name = "yahveh.reportes.pdf-cache.max-entradas", defaultValue = "200")
+    int maxEntradas;
+
+    @ConfigProperty(name = "yahveh.reportes.pdf-cache.ttl", defaultValue = "PT24H")
+    Duration ttl;
+
+    /**
+     * Directorio para la copia en disco; sin configurar solo se usa memoria
+     */
+    @ConfigProperty(name = "yahveh.reportes.pdf-cache.directorio")
+    Optional<String> directorio;
+
+    @ConfigProperty(name = "yahveh.reportes.pdf-cache.disco.max-archivos", defaultValue = "2000")
+    int maxArchivosDisco;
+
+    @ConfigProperty(name = "yahveh.reportes.pdf-cache.disco.max-megabytes", defaultValue = "512")
+    long maxMegabytesDisco;
+
+    /**
+     * Cada cuánto se buscan PDFs vencidos en disco aunque no se pase el tope
+     */
+    private static final Duration REVISION_MAXIMA = Duration.ofHours(1);
+
+    private CacheAcotada<Long, PdfVersionado> memoria;
+    private Path carpeta;
+    private final ReentrantLock poda = new ReentrantLock();
+
+    /**
+     * Archivo en disco de cada nota (siempre uno solo: guardar una versión borra la anterior)
+     */
+    private final Map<Long, ArchivoPdf> enDisco = new ConcurrentHashMap<>();
+    private final AtomicLong bytesEnDisco = new AtomicLong();
+    private volatile long proximaRevisionNanos;
+
+    @PostConstruct
+    void init() {
+        memoria = new CacheAcotada<>(CacheRegistro.PDF_NOTA_ENTREGA, maxEntradas, ttl);
+
+        if (directorio.isPresent()) {
+            try {
+                carpeta = Files.createDirectories(Path.of(directorio.get()));
+                log.info("Cache de PDFs en disco: {}", carpeta);
+                indexarDisco();
+                podarDisco();
+            } catch (IOException e) {
+                log.error("No se pudo crear el directorio de PDFs {}: {}", directorio.get(), e.getMessage());
+            }
+        }
+
+        cacheRegistro.registrar(this);
+        busInvalidacion.alRecibir(EVENTO, codigos -> codigos.forEach(codigo -> descartar(Long.parseLong(codigo))));
+    }
+
+    /**
+     * Versión de una nota a partir de su estado y fecha de auditoría
+     */
+    public static String version(int estado, LocalDateTime audFecha) {
+        return estado + "-" + (audFecha != null ? FORMATO_VERSION.format(audFecha) : "0");
+    }
+
+    /**
+     * Obtener el PDF si está en cache con la misma versión
+     */
+    public Optional<byte[]> obtener(long codNotaEntrega, String version) {
+        Optional<PdfVersionado> enMemoria = memoria.obtener(codNotaEntrega);
+        if (enMemoria.isPresent()) {
+            if (enMemoria.get().version().equals(version)) {
+                return Optional.of(enMemoria.get().pdf());
+            }
+            memoria.invalidar(codNotaEntrega);
+        }
+
+        Optional<byte[]> enDisco = leerDisco(codNotaEntrega, version);
+        enDisco.ifPresent(pdf -> memoria.guardar(codNotaEntrega, new PdfVersionado(version, pdf)));
+        return enDisco;
+    }
+
+    public void guardar(long codNotaEntrega, String version, byte[] pdf) {
+        memoria.guardar(codNotaEntrega, new PdfVersionado(version, pdf));
+        escribirDisco(codNotaEntrega, version, pdf);
+    }
+
+    /**
+     * Descartar el PDF de una nota (modificación, anulación o cambio de detalle), aquí y en los demás nodos
+     */
+    public void invalidar(long codNotaEntrega) {
+        descartar(codNotaEntrega);
+        busInvalidacion.publicar(EVENTO, List.of(String.valueOf(codNotaEntrega)));
+    }
+
+    @Override
+    public String getNombre() {
+        return CacheRegistro.PDF_NOTA_ENTREGA;
+    }
+
+    @Override
+    public void invalidar() {
+        memoria.invalidar();
+        enDisco.clear();
+        bytesEnDisco.set(0);
+        borrarDisco("nota_entrega_*.pdf");
+    }
+
+    @Override
+    public EstadisticasCache estadisticas() {
+        return memoria.estadisticas();
+    }
+
+    private void descartar(long codNotaEntrega) {
+        memoria.invalidar(codNotaEntrega);
+        ArchivoPdf archivo = enDisco.get(codNotaEntrega);
+        if (archivo != null) {
+            quitarDeDisco(codNotaEntrega, archivo);
+        }
+    }
+
+    private Optional<byte[]> leerDisco(long codNotaEntrega, String version) {
+        if (carpeta == null) {
+            return Optional.empty();
+        }
+        ArchivoPdf archivo = enDisco.get(codNotaEntrega);
+        if (archivo == null || !archivo.ruta().equals(archivo(codNotaEntrega, version))) {
+            return Optional.empty();
+        }
+        if (vencido(archivo.modificado())) {
+            quitarDeDisco(codNotaEntrega, archivo);
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Files.readAllBytes(archivo.ruta()));
+        } catch (NoSuchFileException e) {
+            // Lo borraron por fuera: se olvida
+            if (enDisco.remove(codNotaEntrega, archivo)) {
+                bytesEnDisco.addAndGet(-archivo.bytes());
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("No se pudo leer {}: {}", archivo.ruta(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void escribirDisco(long codNotaEntrega, String version, byte[] pdf) {
+        if (carpeta == null) {
+            return;
+        }
+        Path ruta = archivo(codNotaEntrega, version);
+        try {
+            // Escribir a un temporal y mover, para no dejar PDFs a medias si el proceso se corta
+            Path temporal = Files.createTempFile(carpeta, "nota_entrega_", ".tmp");
+            Files.write(temporal, pdf);
+            Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("No se pudo guardar {}: {}", ruta, e.getMessage());
+            return;
+        }
+
+        ArchivoPdf nuevo = new ArchivoPdf(ruta, FileTime.from(Instant.now()), pdf.length);
+        ArchivoPdf anterior = enDisco.put(codNotaEntrega, nuevo);
+        bytesEnDisco.addAndGet(pdf.length - (anterior != null ? anterior.bytes() : 0));
+        if (anterior != null && !anterior.ruta().equals(ruta)) {
+            borrarArchivo(anterior.ruta());
+        }
+        podarDisco();
+    }
+
+    /**
+     * Único recorrido del directorio: registra los PDFs vigentes (el más nuevo de cada nota) y borra el resto
+     */
+    private void indexarDisco() {
+        try (DirectoryStream<Path> listado = Files.newDirectoryStream(carpeta, "nota_entrega_*.pdf")) {
+            for (Path ruta : listado) {
+                Long codNotaEntrega = codigoNota(ruta);
+                FileTime modificado = Files.getLastModifiedTime(ruta);
+                if (codNotaEntrega == null || vencido(modificado)) {
+                    borrarArchivo(ruta);
+                    continue;
+                }
+                ArchivoPdf archivo = new ArchivoPdf(ruta, modificado, Files.size(ruta));
+                ArchivoPdf otro = enDisco.get(codNotaEntrega);
+                if (otro != null && otro.modificado().compareTo(modificado) >= 0) {
+                    borrarArchivo(ruta);
+                    continue;
+                }
+                enDisco.put(codNotaEntrega, archivo);
+                bytesEnDisco.addAndGet(archivo.bytes() - (otro != null ? otro.bytes() : 0));
+                if (otro != null) {
+                    borrarArchivo(otro.ruta());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo revisar la cache de PDFs en {}: {}", carpeta, e.getMessage());
+        }
+        log.info("Cache de PDFs en disco: {} archivos, {} KB", enDisco.size(), bytesEnDisco.get() / 1024);
+    }
+
+    /**
+     * Con los totales en memoria: si se pasa del tope de archivos o bytes (o toca la revisión periódica) se
+     * borran los vencidos y, si todavía sobra, los más viejos. Si otra escritura ya está podando no se
+     * espera: esa poda alcanza
+     */
+    private void podarDisco() {
+        long maxBytes = maxMegabytesDisco * 1024 * 1024;
+        boolean revisar = System.nanoTime() - proximaRevisionNanos > 0;
+        if (!revisar && enDisco.size() <= maxArchivosDisco && bytesEnDisco.get() <= maxBytes) {
+            return;
+        }
+        if (!poda.tryLock()) {
+            return;
+        }
+        try {
+            enDisco.forEach((codNotaEntrega, archivo) -> {
+                if (vencido(archivo.modificado())) {
+                    quitarDeDisco(codNotaEntrega, archivo);
+                }
+            });
+            Duration intervalo = ttl.compareTo(REVISION_MAXIMA) < 0 ? ttl : REVISION_MAXIMA;
+            proximaRevisionNanos = System.nanoTime() + intervalo.toNanos();
+
+            if (enDisco.size() <= maxArchivosDisco && bytesEnDisco.get() <= maxBytes) {
+                return;
+            }
+            List<Map.Entry<Long, ArchivoPdf>> archivos = new ArrayList<>(enDisco.entrySet());
+            archivos.sort(Comparator.comparing(entrada -> entrada.getValue().modificado()));
+            for (Map.Entry<Long, ArchivoPdf> entrada : archivos) {
+                if (enDisco.size() <= maxArchivosDisco && bytesEnDisco.get() <= maxBytes) {
+                    break;
+                }
+                quitarDeDisco(entrada.getKey(), entrada.getValue());
+            }
+        } finally {
+            poda.unlock();
+        }
+    }
+
+    /**
+     * Olvidar y borrar el archivo de la nota si sigue siendo ese (otra escritura pudo reemplazarlo)
+     */
+    private void quitarDeDisco(long codNotaEntrega, ArchivoPdf archivo) {
+        if (enDisco.remove(codNotaEntrega, archivo)) {
+            bytesEnDisco.addAndGet(-archivo.bytes());
+            borrarArchivo(archivo.ruta());
+        }
+    }
+
+    private void borrarArchivo(Path ruta) {
+        try {
+            Files.deleteIfExists(ruta);
+        } catch (IOException e) {
+            log.warn("No se pudo borrar {}: {}", ruta, e.getMessage());
+        }
+    }
+
+    private boolean vencido(FileTime modificado) {
+        return modificado.toInstant().isBefore(Instant.now().minus(ttl));
+    }
+
+    /**
+     * Código de nota del nombre nota_entrega_{codigo}_{version}.pdf; null si no tiene esa forma
+     */
+    private static Long codigoNota(Path ruta) {
+        String nombre = ruta.getFileName().toString();
+        int inicio = "nota_entrega_".length();
+        int fin = nombre.indexOf('_', inicio);
+        if (fin < 0) {
+            return null;
+        }
+        try {
+            return Long.parseLong(nombre.substring(inicio, fin));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void borrarDisco(String patron) {
+        if (carpeta == null) {
+            return;
+        }
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(carpeta, patron)) {
+            for (Path archivo : archivos) {
+                Files.deleteIfExists(archivo);
+            }
+        } catch (IOException e) {
+            log.warn("No se pudieron borrar PDFs {} en {}: {}", patron, carpeta, e.getMessage());
+        }
+    }
+
+    private Path archivo(long codNotaEntrega, String version) {
+        return carpeta.resolve("nota_entrega_" + codNotaEntrega + "_" + version + ".pdf");
+    }
+
+    private record PdfVersionado(String version, byte[] pdf) {
+    }
+
+    private record ArchivoPdf(Path ruta, FileTime modificado, long bytes) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.yahveh.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Línea de venta (fila de detalle del reporte de ventas) para el almacén de análisis; el importe va
+ * en centavos tomado del NUMERIC de la base, sin pasar por float
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LineaVentaDTO {
+    private LocalDate fecha;
+    private Long codCliente;
+    private String nombreCliente;
+    private String zona;
+    private String codArticulo;
+    private String productoCompleto;
+    private String lineaArticulo;
+    private int cantidad;
+    private long importeCentavos;
+}
@@ -0,0 +1,23 @@
+package com.yahveh.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CotizacionRequest {
+
+    @NotNull(message = "La lista de precio es obligatoria")
+    private Integer listaPrecio;
+
+    @Valid
+    @NotEmpty(message = "Debe indicar al menos una línea")
+    private List<LineaCotizacionRequest> lineas;
+}
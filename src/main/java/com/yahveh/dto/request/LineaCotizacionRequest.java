@@ -0,0 +1,19 @@
+package com.yahveh.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LineaCotizacionRequest {
+
+    @NotBlank(message = "El código de artículo es obligatorio")
+    private String codArticulo;
+
+    @Min(value = 1, message = "La cantidad debe ser mayor a 0")
+    private int cantidad;
+}
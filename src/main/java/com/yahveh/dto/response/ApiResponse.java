@@ -1,10 +1,13 @@
 package com.yahveh.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -14,6 +17,9 @@ public class ApiResponse<T> {
     private String message;
     private T data;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
     public static <T> ApiResponse<T> success(T data) {
         return ApiResponse.<T>builder()
                 .success(true)
@@ -30,6 +36,15 @@ public class ApiResponse<T> {
                 .build();
     }
 
+    public static <T> ApiResponse<List<T>> pagina(String message, Pagina<T> pagina) {
+        return ApiResponse.<List<T>>builder()
+                .success(true)
+                .message(message)
+                .data(pagina.getItems())
+                .nextCursor(pagina.getNextCursor())
+                .build();
+    }
+
     public static <T> ApiResponse<T> error(String message) {
         return ApiResponse.<T>builder()
                 .success(false)
@@ -0,0 +1,27 @@
+package com.yahveh.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComparacionVentas {
+    private String clave;
+    private String descripcion;
+    private BigDecimal importeActual;
+    private BigDecimal importeAnterior;
+    private BigDecimal diferencia;
+    private long cantidadActual;
+    private long cantidadAnterior;
+
+    /**
+     * Variación del importe en porcentaje; null si no hubo ventas en el período anterior
+     */
+    private BigDecimal variacionPorcentaje;
+}
@@ -0,0 +1,25 @@
+package com.yahveh.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CotizacionResponse {
+    private int listaPrecio;
+    private List<LineaCotizacionResponse> lineas;
+    private BigDecimal total;
+    private BigDecimal totalSinFactura;
+
+    /**
+     * Líneas cuyo artículo no tiene precio en la lista (no suman al total)
+     */
+    private int lineasSinPrecio;
+}
@@ -0,0 +1,28 @@
+package com.yahveh.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasPool {
+    private String nombre;
+    private int maximo;
+    private long activas;
+    private long disponibles;
+    private long esperando;
+    private long maximoUsadas;
+    private long adquisiciones;
+    private long agotamientos;
+    private double esperaPromedioMs;
+    private double esperaMaximaMs;
+
+    /**
+     * Conexiones en uso sobre el máximo (0 a 100)
+     */
+    private double saturacion;
+}
@@ -0,0 +1,33 @@
+package com.yahveh.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasReservas {
+    private int franjas;
+    private long reservas;
+    private long rechazos;
+    private long liberadasPorError;
+    private int reservasActivas;
+    private long unidadesReservadas;
+
+    /**
+     * Veces que se tomó el lock de una franja y cuántas tuvieron que esperar a otro vendedor
+     */
+    private long bloqueos;
+    private long contenciones;
+    private double esperaPromedioMs;
+    private double esperaMaximaMs;
+
+    /**
+     * Franja con más contenciones y cuántas tuvo
+     */
+    private int franjaMasDisputada;
+    private long contencionesFranjaMasDisputada;
+}
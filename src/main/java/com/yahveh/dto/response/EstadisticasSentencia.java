@@ -0,0 +1,25 @@
+package com.yahveh.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasSentencia {
+    private String nombre;
+    private long ejecuciones;
+    private long errores;
+    private long filas;
+    private double promedioMs;
+    private double maximoMs;
+    private long p50Ms;
+    private long p95Ms;
+    private long p99Ms;
+    private Map<String, Long> histograma;
+}
@@ -0,0 +1,26 @@
+package com.yahveh.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LineaCotizacionResponse {
+    private String codArticulo;
+    private int cantidad;
+    private boolean conPrecio;
+    private Integer codPrecio;
+    private Float precioBase;
+    private Float precio;
+    private Float precioSinFactura;
+    private BigDecimal subtotal;
+    private BigDecimal subtotalSinFactura;
+}
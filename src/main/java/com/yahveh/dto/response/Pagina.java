@@ -0,0 +1,23 @@
+package com.yahveh.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados con cursor (keyset) para solicitar la siguiente
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Pagina<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    public <R> Pagina<R> map(Function<T, R> mapper) {
+        return new Pagina<>(items.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -0,0 +1,23 @@
+package com.yahveh.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TotalVentas {
+    /**
+     * Código del cliente o artículo, nombre de zona o línea, o mes (yyyy-MM)
+     */
+    private String clave;
+    private String descripcion;
+    private long cantidad;
+    private BigDecimal importe;
+    private int lineas;
+}
@@ -0,0 +1,25 @@
+package com.yahveh.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TrabajoReporteResponse {
+    private String id;
+    private String tipo;
+    private String estado;
+    private String nombreArchivo;
+    private Integer tamanio;
+    private String error;
+    private LocalDateTime fechaCreacion;
+    private LocalDateTime fechaFin;
+}
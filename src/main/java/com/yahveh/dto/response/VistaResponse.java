@@ -1,5 +1,6 @@
 package com.yahveh.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,4 +19,7 @@ public class VistaResponse {
     private String direccion;
     private String titulo;
 
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<VistaResponse> hijos;
+
 }
\ No newline at end of file
@@ -32,6 +32,15 @@ public class GlobalExceptionHandler implements ExceptionMapper<Exception> {
                     .build();
         }
 
+        if (exception instanceof ServicioSaturadoException saturado) {
+            return Response.status(saturado.isColaLlena()
+                            ? Response.Status.TOO_MANY_REQUESTS
+                            : Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", saturado.getReintentarEnSegundos())
+                    .entity(ApiResponse.error(exception.getMessage()))
+                    .build();
+        }
+
         // Error genérico
         return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity(ApiResponse.error("Error interno del servidor"))
@@ -0,0 +1,27 @@
+package com.yahveh.exception;
+
+/**
+ * El servicio no puede aceptar más trabajo por ahora; el cliente debe reintentar luego
+ */
+public class ServicioSaturadoException extends RuntimeException {
+
+    private final boolean colaLlena;
+    private final int reintentarEnSegundos;
+
+    public ServicioSaturadoException(String message, boolean colaLlena, int reintentarEnSegundos) {
+        super(message);
+        this.colaLlena = colaLlena;
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    /**
+     * true: la cola rechazó el trabajo (429); false: se agotó la espera (503)
+     */
+    public boolean isColaLlena() {
+        return colaLlena;
+    }
+
+    public int getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
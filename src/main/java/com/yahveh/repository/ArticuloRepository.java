@@ -1,6 +1,7 @@
 package com.yahveh.repository;
 
 import com.yahveh.dto.response.ArticuloResponse;
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.exception.BusinessException;
 import com.yahveh.model.Articulo;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -8,7 +9,10 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
@@ -28,6 +32,19 @@ public class ArticuloRepository extends BaseRepository<Articulo> {
         }
     }
 
+    /**
+     * Stock de varios artículos en una sola llamada (siempre a la primaria: se usa justo después de escribir)
+     */
+    private static final Sentencia STOCK_POR_ARTICULOS = Sentencia.builder()
+            .nombre("articulo.stock_por_articulos")
+            .sql("""
+                SELECT a.*
+                FROM unnest(?::VARCHAR[]) c(codigo)
+                CROSS JOIN LATERAL p_list_articulo(p_codarticulo := c.codigo, p_accion := 'L') a
+                """)
+            .prepararEnServidor(true)
+            .build();
+
     /**
      * Listar todos los artículos con información completa
      */
@@ -37,6 +54,17 @@ public class ArticuloRepository extends BaseRepository<Articulo> {
         return executeQueryList(sql, this::mapArticuloResponse, "L");
     }
 
+    /**
+     * Listar artículos paginados por código (keyset)
+     */
+    public Pagina<ArticuloResponse> listarTodosPaginado(String cursor, int limite) {
+        String sql = "SELECT * " +
+                "FROM p_list_articulo(p_accion := ?)";
+        String desde = cursor == null || cursor.isBlank() ? null : cursor.trim();
+        return executeQueryPage(sql, "cod_articulo", ArticuloResponse::getCodArticulo,
+                this::mapArticuloResponse, desde, limite, "L");
+    }
+
     /**
      * Buscar artículo por ID con información completa
      */
@@ -73,6 +101,23 @@ public class ArticuloRepository extends BaseRepository<Articulo> {
         return executeQueryList(sql, this::mapArticuloResponse, articulo, "L");
     }
 
+    /**
+     * Stock actual por código de artículo (los que no existen no vienen en el mapa)
+     */
+    public Map<String, Integer> stockPorArticulos(Collection<String> codArticulos) {
+        Map<String, Integer> stock = new HashMap<>();
+        executeQueryRows(STOCK_POR_ARTICULOS, rs -> {
+            long filas = 0;
+            while (rs.next()) {
+                // Mismas posiciones que mapArticuloResponse: código en 1, stock en 6
+                stock.put(rs.getString(1), rs.getInt(6));
+                filas++;
+            }
+            return filas;
+        }, List.copyOf(codArticulos));
+        return stock;
+    }
+
     /**
      * Crear nuevo artículo con manejo de errores
      */
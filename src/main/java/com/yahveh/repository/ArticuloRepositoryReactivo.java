@@ -0,0 +1,44 @@
+package com.yahveh.repository;
+
+import com.yahveh.dto.response.ArticuloResponse;
+import com.yahveh.model.Articulo;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Row;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.Optional;
+
+/**
+ * Lecturas de artículos sin bloqueo (mismos procedimientos que ArticuloRepository)
+ */
+@ApplicationScoped
+public class ArticuloRepositoryReactivo extends BaseRepositoryReactivo<Articulo> {
+
+    private static final Sentencia LISTAR = Sentencia.de("articulo.reactivo.listar",
+            "SELECT * FROM p_list_articulo(p_accion := ?)");
+
+    private static final Sentencia BUSCAR_POR_CODIGO = Sentencia.de("articulo.reactivo.buscar_por_codigo",
+            "SELECT * FROM p_list_articulo(p_codarticulo := ?, p_accion := ?)");
+
+    public Multi<ArticuloResponse> listarTodos() {
+        return executeQueryStream(LISTAR, this::mapArticuloResponse, "L");
+    }
+
+    public Uni<Optional<ArticuloResponse>> buscarPorCodigo(String codArticulo) {
+        return executeQuerySingle(BUSCAR_POR_CODIGO, this::mapArticuloResponse, codArticulo, "L");
+    }
+
+    private ArticuloResponse mapArticuloResponse(Row fila) {
+        return ArticuloResponse.builder()
+                .codArticulo(fila.getString(0))
+                .codLinea(entero(fila, 1))
+                .linea(fila.getString(2))
+                .descripcion(fila.getString(3))
+                .descripcion2(fila.getString(4))
+                .stockActual(entero(fila, 5))
+                .precioActual(decimalDoble(fila, 6))
+                .audUsuario(entero(fila, 7))
+                .build();
+    }
+}
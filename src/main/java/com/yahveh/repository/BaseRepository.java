@@ -1,77 +1,285 @@
 package com.yahveh.repository;
 
+import com.yahveh.cache.BusInvalidacion;
+import com.yahveh.cache.CacheConsultas;
+import com.yahveh.dto.response.Pagina;
+import com.yahveh.exception.BusinessException;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGStatement;
 
-import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Slf4j
 public abstract class BaseRepository<T> {
 
+    protected static final int LIMITE_MAXIMO_PAGINA = 500;
+
+    protected static final int FETCH_SIZE_STREAM = 500;
+
+    @Inject
+    protected RegistroSentencias registroSentencias;
+
+    @Inject
+    EnrutadorConexiones enrutadorConexiones;
+
     @Inject
-    protected DataSource dataSource;
+    CacheConsultas cacheConsultas;
+
+    @Inject
+    BusInvalidacion busInvalidacion;
 
     protected <R> Optional<R> executeQuerySingle(String sql, ResultSetMapper<R> mapper, Object... params) {
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        return executeQuerySingle(registroSentencias.porSql(sql), mapper, params);
+    }
+
+    /**
+     * Si la sentencia declara cache, el resultado se sirve desde CacheConsultas mientras
+     * no se escriba ninguna de sus etiquetas
+     */
+    protected <R> Optional<R> executeQuerySingle(Sentencia sentencia, ResultSetMapper<R> mapper, Object... params) {
+        if (sentencia.getCache() != null) {
+            return cacheConsultas.obtener(sentencia, params, () -> consultarUno(sentencia, mapper, params));
+        }
+        return consultarUno(sentencia, mapper, params);
+    }
+
+    private <R> Optional<R> consultarUno(Sentencia sentencia, ResultSetMapper<R> mapper, Object... params) {
+        long inicio = System.nanoTime();
+        long filas = 0;
+        boolean error = true;
+
+        try (Connection conn = conectar(sentencia);
+             PreparedStatement stmt = preparar(conn, sentencia)) {
 
             setParameters(stmt, params);
 
             try (ResultSet rs = stmt.executeQuery()) {
+                Optional<R> resultado = Optional.empty();
                 if (rs.next()) {
-                    return Optional.of(mapper.map(rs));
+                    resultado = Optional.of(mapper.map(rs));
+                    filas = 1;
                 }
+                error = false;
+                return resultado;
             }
         } catch (SQLException e) {
-            log.error("Error ejecutando query: {}", sql, e);
+            log.error("Error ejecutando query {}: {}", sentencia.getNombre(), sentencia.getSql(), e);
             throw new RuntimeException("Error en base de datos", e);
+        } finally {
+            finalizar(sentencia, inicio, filas, error, sentencia.isEscritura());
         }
-        return Optional.empty();
     }
 
     protected <R> List<R> executeQueryList(String sql, ResultSetMapper<R> mapper, Object... params) {
+        return executeQueryList(registroSentencias.porSql(sql), mapper, params);
+    }
+
+    protected <R> List<R> executeQueryList(Sentencia sentencia, ResultSetMapper<R> mapper, Object... params) {
+        if (sentencia.getCache() != null) {
+            return cacheConsultas.obtener(sentencia, params,
+                    () -> Collections.unmodifiableList(consultarLista(sentencia, mapper, params)));
+        }
+        return consultarLista(sentencia, mapper, params);
+    }
+
+    private <R> List<R> consultarLista(Sentencia sentencia, ResultSetMapper<R> mapper, Object... params) {
         List<R> results = new ArrayList<>();
+        executeQueryRows(sentencia, rs -> {
+            while (rs.next()) {
+                results.add(mapper.map(rs));
+            }
+            return results.size();
+        }, params);
+        return results;
+    }
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    /**
+     * Ejecutar una consulta y entregar el ResultSet completo al lector (para lecturas que
+     * arman un solo objeto a partir de varias filas). El lector devuelve las filas leídas.
+     */
+    protected void executeQueryRows(Sentencia sentencia, LectorResultSet lector, Object... params) {
+        long inicio = System.nanoTime();
+        long filas = 0;
+        boolean error = true;
+
+        try (Connection conn = conectar(sentencia);
+             PreparedStatement stmt = preparar(conn, sentencia)) {
 
             setParameters(stmt, params);
 
             try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    results.add(mapper.map(rs));
+                filas = lector.leer(rs);
+            }
+            error = false;
+        } catch (SQLException e) {
+            log.error("Error ejecutando query {}: {}", sentencia.getNombre(), sentencia.getSql(), e);
+            throw new RuntimeException("Error en base de datos", e);
+        } finally {
+            finalizar(sentencia, inicio, filas, error, sentencia.isEscritura());
+        }
+    }
+
+    protected <R> void executeQueryStream(String sql, ResultSetMapper<R> mapper, Consumer<R> consumer,
+                                          Object... params) {
+        executeQueryStream(registroSentencias.porSql(sql), mapper, consumer, params);
+    }
+
+    /**
+     * Recorrer el resultado fila por fila con un cursor del servidor, sin acumularlo en memoria.
+     * PostgreSQL solo respeta el fetch size con autocommit desactivado.
+     */
+    protected <R> void executeQueryStream(Sentencia sentencia, ResultSetMapper<R> mapper, Consumer<R> consumer,
+                                          Object... params) {
+        long inicio = System.nanoTime();
+        long filas = 0;
+        boolean error = true;
+
+        try (Connection conn = conectar(sentencia)) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = preparar(conn, sentencia)) {
+                if (sentencia.getFetchSize() == null) {
+                    stmt.setFetchSize(FETCH_SIZE_STREAM);
                 }
+                setParameters(stmt, params);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(mapper.map(rs));
+                        filas++;
+                    }
+                }
+                conn.commit();
+                error = false;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
             }
         } catch (SQLException e) {
-            log.error("Error ejecutando query: {}", sql, e);
+            log.error("Error ejecutando query {}: {}", sentencia.getNombre(), sentencia.getSql(), e);
             throw new RuntimeException("Error en base de datos", e);
+        } finally {
+            finalizar(sentencia, inicio, filas, error, sentencia.isEscritura());
         }
-        return results;
+    }
+
+    protected <R> Pagina<R> executeQueryPage(String sql, String columnaClave, Function<R, Object> clave,
+                                             ResultSetMapper<R> mapper, Object cursor, int limite,
+                                             Object... params) {
+        return executeQueryPage(registroSentencias.porSql(sql), columnaClave, clave, mapper, cursor, limite, params);
+    }
+
+    /**
+     * Ejecutar una consulta paginada por keyset sobre la clave primaria.
+     * Se pide una fila extra para saber si existe una página siguiente.
+     */
+    protected <R> Pagina<R> executeQueryPage(Sentencia sentencia, String columnaClave, Function<R, Object> clave,
+                                             ResultSetMapper<R> mapper, Object cursor, int limite,
+                                             Object... params) {
+        int tamanio = Math.max(1, Math.min(limite, LIMITE_MAXIMO_PAGINA));
+
+        StringBuilder paginado = new StringBuilder("SELECT * FROM (").append(sentencia.getSql()).append(") pagina");
+        List<Object> parametros = new ArrayList<>(Arrays.asList(params));
+        if (cursor != null) {
+            paginado.append(" WHERE ").append(columnaClave).append(" > ?");
+            parametros.add(cursor);
+        }
+        paginado.append(" ORDER BY ").append(columnaClave).append(" LIMIT ?");
+        parametros.add(tamanio + 1);
+
+        List<R> items = executeQueryList(registroSentencias.paginada(sentencia, paginado.toString()),
+                mapper, parametros.toArray());
+
+        String nextCursor = null;
+        if (items.size() > tamanio) {
+            items = new ArrayList<>(items.subList(0, tamanio));
+            nextCursor = String.valueOf(clave.apply(items.get(tamanio - 1)));
+        }
+        return new Pagina<>(items, nextCursor);
+    }
+
+    /**
+     * Convertir un cursor recibido por el cliente a clave numérica
+     */
+    protected Long cursorNumerico(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(cursor.trim());
+        } catch (NumberFormatException e) {
+            throw new BusinessException("Cursor de paginación inválido: " + cursor);
+        }
+    }
+
+    /**
+     * Ejecutar un p_abm_* y leer la fila afectada en la misma ida y vuelta.
+     * La lectura solo corre si p_error = 0 y puede usar a.p_result (código generado).
+     * Si la función de lectura no ve la escritura (p. ej. declarada STABLE) la fila llega vacía
+     * y el llamador debe leerla aparte.
+     */
+    protected <A, R> AbmConFila<A, R> executeAbmConFila(String abm, String lectura, ResultSetMapper<A> abmMapper,
+                                                        ResultSetMapper<R> filaMapper, Object... params) {
+        String sql = "SELECT l.*, a.p_error, a.p_errormsg, a.p_result " +
+                "FROM " + abm + " a " +
+                "LEFT JOIN LATERAL (SELECT * FROM " + lectura + " WHERE a.p_error = 0) l ON true";
+
+        return executeQuerySingle(sql,
+                rs -> new AbmConFila<>(abmMapper.map(rs),
+                        rs.getObject(1) != null ? Optional.of(filaMapper.map(rs)) : Optional.empty()),
+                params)
+                .orElseThrow(() -> new RuntimeException("Error al ejecutar procedimiento"));
     }
 
     protected int executeUpdate(String sql, Object... params) {
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        return executeUpdate(registroSentencias.porSql(sql), params);
+    }
+
+    protected int executeUpdate(Sentencia sentencia, Object... params) {
+        long inicio = System.nanoTime();
+        long filas = 0;
+        boolean error = true;
+
+        try (Connection conn = conectar(sentencia);
+             PreparedStatement stmt = preparar(conn, sentencia)) {
 
             setParameters(stmt, params);
-            return stmt.executeUpdate();
+            int actualizadas = stmt.executeUpdate();
+            filas = actualizadas;
+            error = false;
+            return actualizadas;
 
         } catch (SQLException e) {
-            log.error("Error ejecutando update: {}", sql, e);
+            log.error("Error ejecutando update {}: {}", sentencia.getNombre(), sentencia.getSql(), e);
             throw new RuntimeException("Error en base de datos", e);
+        } finally {
+            finalizar(sentencia, inicio, filas, error, true);
         }
     }
 
     protected Long executeInsertReturningId(String sql, Object... params) {
-        try (Connection conn = dataSource.getConnection();
+        Sentencia sentencia = registroSentencias.porSql(sql);
+        long inicio = System.nanoTime();
+        boolean error = true;
+
+        try (Connection conn = conectar(sentencia);
              PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             setParameters(stmt, params);
             stmt.executeUpdate();
+            error = false;
 
             try (ResultSet rs = stmt.getGeneratedKeys()) {
                 if (rs.next()) {
@@ -81,18 +289,127 @@ public abstract class BaseRepository<T> {
         } catch (SQLException e) {
             log.error("Error ejecutando insert: {}", sql, e);
             throw new RuntimeException("Error en base de datos", e);
+        } finally {
+            finalizar(sentencia, inicio, error ? 0 : 1, error, true);
         }
         return null;
     }
 
+    /**
+     * Conexión del pool que corresponde a la sentencia (OLTP, reportes o réplica)
+     */
+    private Connection conectar(Sentencia sentencia) throws SQLException {
+        return enrutadorConexiones.conectar(sentencia);
+    }
+
+    /**
+     * Registrar métricas y, si la sentencia escribió, fijar las lecturas del usuario en la primaria
+     * y descartar las lecturas en cache de las entidades modificadas (aquí y en los demás nodos)
+     */
+    private void finalizar(Sentencia sentencia, long inicio, long filas, boolean error, boolean escritura) {
+        registroSentencias.registrar(sentencia, System.nanoTime() - inicio, filas, error);
+        if (escritura && !error) {
+            enrutadorConexiones.registrarEscritura();
+            cacheConsultas.invalidarEtiquetas(sentencia.getEtiquetas());
+            busInvalidacion.publicar(sentencia.getEtiquetas());
+        }
+    }
+
+    /**
+     * Preparar la sentencia aplicando sus opciones (fetch size, timeout, preparación en servidor)
+     */
+    private PreparedStatement preparar(Connection conn, Sentencia sentencia) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(sentencia.getSql());
+        try {
+            if (sentencia.getFetchSize() != null) {
+                stmt.setFetchSize(sentencia.getFetchSize());
+            }
+            if (sentencia.getTimeoutSegundos() != null) {
+                stmt.setQueryTimeout(sentencia.getTimeoutSegundos());
+            }
+            if (sentencia.isPrepararEnServidor() && stmt.isWrapperFor(PGStatement.class)) {
+                // El driver guarda el plan por conexión física; con umbral 1 se usa desde la primera vez
+                stmt.unwrap(PGStatement.class).setPrepareThreshold(1);
+            }
+            return stmt;
+        } catch (SQLException e) {
+            stmt.close();
+            throw e;
+        }
+    }
+
     private void setParameters(PreparedStatement stmt, Object... params) throws SQLException {
         for (int i = 0; i < params.length; i++) {
-            stmt.setObject(i + 1, params[i]);
+            if (params[i] instanceof Collection<?> valores) {
+                // Las colecciones se envían como arreglo SQL (para usar con unnest / ANY)
+                stmt.setArray(i + 1, stmt.getConnection().createArrayOf(tipoArreglo(valores), valores.toArray()));
+            } else {
+                stmt.setObject(i + 1, params[i]);
+            }
         }
     }
 
+    /**
+     * Tipo SQL de los elementos de un arreglo según el primer valor de la colección
+     */
+    private String tipoArreglo(Collection<?> valores) {
+        Object primero = valores.isEmpty() ? null : valores.iterator().next();
+        if (primero instanceof Integer) {
+            return "int4";
+        }
+        if (primero instanceof Long) {
+            return "int8";
+        }
+        if (primero instanceof Float || primero instanceof Double) {
+            return "float8";
+        }
+        return "varchar";
+    }
+
+    /**
+     * Resultado de un p_abm_* junto con la fila afectada
+     */
+    protected record AbmConFila<A, R>(A abm, Optional<R> fila) {
+    }
+
+    /**
+     * Adaptar un mapper que resuelve los índices de columna una vez por ResultSet.
+     * El mapper devuelto guarda estado: crear uno por consulta, no compartirlo entre hilos.
+     */
+    protected static <R> ResultSetMapper<R> porColumnas(MapperPorColumnas<R> fabrica) {
+        return new ResultSetMapper<>() {
+            private ResultSet actual;
+            private ResultSetMapper<R> mapper;
+
+            @Override
+            public R map(ResultSet rs) throws SQLException {
+                if (rs != actual) {
+                    mapper = fabrica.crear(new Columnas(rs.getMetaData()));
+                    actual = rs;
+                }
+                return mapper.map(rs);
+            }
+        };
+    }
+
     @FunctionalInterface
     protected interface ResultSetMapper<R> {
         R map(ResultSet rs) throws SQLException;
     }
+
+    /**
+     * Lee un ResultSet completo y devuelve la cantidad de filas procesadas
+     */
+    @FunctionalInterface
+    protected interface LectorResultSet {
+        long leer(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Crea el mapper de filas a partir de los índices ya resueltos
+     */
+    @FunctionalInterface
+    protected interface MapperPorColumnas<R> {
+        ResultSetMapper<R> crear(Columnas columnas) throws SQLException;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,184 @@
+package com.yahveh.repository;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowIterator;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Base de repositorios sobre el cliente reactivo de PostgreSQL. Llama a los mismos p_list_* / p_abm_*
+ * que BaseRepository pero sin bloquear: las consultas devuelven Uni/Multi y se resuelven en el event loop.
+ * Las sentencias se escriben igual que en JDBC (con ?), se traducen a $1, $2... una sola vez.
+ */
+@Slf4j
+public abstract class BaseRepositoryReactivo<T> {
+
+    private static final int FETCH_SIZE_STREAM = 500;
+
+    private static final Map<String, String> SQL_POSICIONAL = new ConcurrentHashMap<>();
+
+    @Inject
+    protected Pool pool;
+
+    @Inject
+    protected RegistroSentencias registroSentencias;
+
+    protected <R> Uni<Optional<R>> executeQuerySingle(Sentencia sentencia, Function<Row, R> mapper,
+                                                      Object... params) {
+        return ejecutar(sentencia, params)
+                .map(filas -> {
+                    RowIterator<Row> iterador = filas.iterator();
+                    return iterador.hasNext() ? Optional.of(mapper.apply(iterador.next())) : Optional.empty();
+                });
+    }
+
+    protected <R> Uni<List<R>> executeQueryList(Sentencia sentencia, Function<Row, R> mapper, Object... params) {
+        return ejecutar(sentencia, params)
+                .map(filas -> {
+                    List<R> resultados = new ArrayList<>(filas.size());
+                    for (Row fila : filas) {
+                        resultados.add(mapper.apply(fila));
+                    }
+                    return resultados;
+                });
+    }
+
+    /**
+     * Emitir las filas con un cursor del servidor (requiere transacción, igual que en JDBC)
+     */
+    protected <R> Multi<R> executeQueryStream(Sentencia sentencia, Function<Row, R> mapper, Object... params) {
+        int fetchSize = sentencia.getFetchSize() != null ? sentencia.getFetchSize() : FETCH_SIZE_STREAM;
+        long inicio = System.nanoTime();
+        long[] filas = {0};
+
+        return pool.getConnection().onItem().transformToMulti(conn -> conn.begin()
+                .onItem().transformToMulti(tx -> conn.prepare(posicional(sentencia.getSql()))
+                        .onItem().transformToMulti(ps -> ps.createStream(fetchSize, tupla(params)).toMulti())
+                        .onTermination().call(() -> tx.rollback().onFailure().recoverWithNull()))
+                .onTermination().call(conn::close))
+                .map(fila -> {
+                    filas[0]++;
+                    return mapper.apply(fila);
+                })
+                .onTermination().invoke((error, cancelado) -> registroSentencias.registrar(sentencia,
+                        System.nanoTime() - inicio, filas[0], error != null));
+    }
+
+    private Uni<RowSet<Row>> ejecutar(Sentencia sentencia, Object... params) {
+        long inicio = System.nanoTime();
+
+        return pool.preparedQuery(posicional(sentencia.getSql()))
+                .execute(tupla(params))
+                .onItemOrFailure().invoke((filas, error) -> {
+                    registroSentencias.registrar(sentencia, System.nanoTime() - inicio,
+                            filas != null ? filas.size() : 0, error != null);
+                    if (error != null) {
+                        log.error("Error ejecutando query {}: {}", sentencia.getNombre(), sentencia.getSql(), error);
+                    }
+                })
+                .onFailure().transform(error -> new RuntimeException("Error en base de datos", error));
+    }
+
+    private static Tuple tupla(Object... params) {
+        List<Object> valores = new ArrayList<>(params.length);
+        for (Object param : params) {
+            valores.add(param instanceof Collection<?> coleccion ? arreglo(coleccion) : param);
+        }
+        return Tuple.from(valores);
+    }
+
+    /**
+     * Las colecciones se envían como arreglo tipado (el cliente reactivo no acepta Object[])
+     */
+    private static Object arreglo(Collection<?> valores) {
+        Object primero = valores.isEmpty() ? null : valores.iterator().next();
+        if (primero instanceof Integer) {
+            return valores.toArray(new Integer[0]);
+        }
+        if (primero instanceof Long) {
+            return valores.toArray(new Long[0]);
+        }
+        if (primero instanceof Float || primero instanceof Double) {
+            return valores.stream().map(v -> ((Number) v).doubleValue()).toArray(Double[]::new);
+        }
+        return valores.stream().map(v -> v != null ? v.toString() : null).toArray(String[]::new);
+    }
+
+    /**
+     * Traducir los ? de JDBC a $1, $2... (se ignoran los que están dentro de literales)
+     */
+    private static String posicional(String sql) {
+        return SQL_POSICIONAL.computeIfAbsent(sql, original -> {
+            StringBuilder resultado = new StringBuilder(original.length() + 16);
+            boolean enLiteral = false;
+            int posicion = 0;
+            for (int i = 0; i < original.length(); i++) {
+                char c = original.charAt(i);
+                if (c == '\'') {
+                    enLiteral = !enLiteral;
+                }
+                if (c == '?' && !enLiteral) {
+                    resultado.append('$').append(++posicion);
+                } else {
+                    resultado.append(c);
+                }
+            }
+            return resultado.toString();
+        });
+    }
+
+    /**
+     * Lecturas con la misma semántica que ResultSet (null como 0)
+     */
+    protected static int entero(Row fila, String columna) {
+        Integer valor = fila.getInteger(columna);
+        return valor != null ? valor : 0;
+    }
+
+    protected static float decimal(Row fila, String columna) {
+        Float valor = fila.getFloat(columna);
+        return valor != null ? valor : 0f;
+    }
+
+    protected static int entero(Row fila, int posicion) {
+        Integer valor = fila.getInteger(posicion);
+        return valor != null ? valor : 0;
+    }
+
+    protected static float decimal(Row fila, int posicion) {
+        Float valor = fila.getFloat(posicion);
+        return valor != null ? valor : 0f;
+    }
+
+    protected static double decimalDoble(Row fila, int posicion) {
+        Double valor = fila.getDouble(posicion);
+        return valor != null ? valor : 0d;
+    }
+
+    /**
+     * timestamptz llega como OffsetDateTime; se lleva a la zona local como hace getTimestamp en JDBC
+     */
+    protected static LocalDateTime fechaHora(Row fila, String columna) {
+        Object valor = fila.getValue(columna);
+        if (valor instanceof OffsetDateTime conZona) {
+            return conZona.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        }
+        return (LocalDateTime) valor;
+    }
+}
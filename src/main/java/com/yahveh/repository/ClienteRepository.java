@@ -1,6 +1,7 @@
 package com.yahveh.repository;
 
 import com.yahveh.dto.response.ClienteResponse;
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.exception.BusinessException;
 import com.yahveh.model.Cliente;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -8,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +30,19 @@ public class ClienteRepository extends BaseRepository<Cliente> {
         }
     }
 
+    /**
+     * El cliente incluye zona y total de notas: se invalida también con esas escrituras
+     */
+    private static final Sentencia BUSCAR_POR_ID = Sentencia.builder()
+            .nombre("cliente.buscar_por_id")
+            .sql("SELECT cod_cliente, cod_zona, zona, nit, razon_social, nombre_cliente, " +
+                    "direccion, referencia, obs, total_notas, aud_usuario " +
+                    "FROM p_list_cliente(p_codcliente := ?, p_accion := ?)")
+            .prepararEnServidor(true)
+            .cache(Duration.ofMinutes(10))
+            .etiqueta("cliente").etiqueta("zona").etiqueta("nota_entrega")
+            .build();
+
     /**
      * Listar todos los clientes con información completa
      */
@@ -39,13 +54,21 @@ public class ClienteRepository extends BaseRepository<Cliente> {
     }
 
     /**
-     * Buscar cliente por ID con información completa
+     * Listar clientes paginados por código (keyset)
      */
-    public Optional<ClienteResponse> buscarPorIdCompleto(int codCliente) {
+    public Pagina<ClienteResponse> listarTodosPaginado(String cursor, int limite) {
         String sql = "SELECT cod_cliente, cod_zona, zona, nit, razon_social, nombre_cliente, " +
                 "direccion, referencia, obs, total_notas, aud_usuario " +
-                "FROM p_list_cliente(p_codcliente := ?, p_accion := ?)";
-        return executeQuerySingle(sql, this::mapClienteResponse, codCliente, "L");
+                "FROM p_list_cliente(p_accion := ?)";
+        return executeQueryPage(sql, "cod_cliente", ClienteResponse::getCodCliente,
+                this::mapClienteResponse, cursorNumerico(cursor), limite, "L");
+    }
+
+    /**
+     * Buscar cliente por ID con información completa
+     */
+    public Optional<ClienteResponse> buscarPorIdCompleto(int codCliente) {
+        return executeQuerySingle(BUSCAR_POR_ID, this::mapClienteResponse, codCliente, "L");
     }
 
     /**
@@ -0,0 +1,57 @@
+package com.yahveh.repository;
+
+import com.yahveh.dto.response.ClienteResponse;
+import com.yahveh.model.Cliente;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Row;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.Optional;
+
+/**
+ * Lecturas de clientes sin bloqueo (mismos procedimientos que ClienteRepository)
+ */
+@ApplicationScoped
+public class ClienteRepositoryReactivo extends BaseRepositoryReactivo<Cliente> {
+
+    private static final String COLUMNAS_CLIENTE = "SELECT cod_cliente, cod_zona, zona, nit, razon_social, " +
+            "nombre_cliente, direccion, referencia, obs, total_notas, aud_usuario ";
+
+    private static final Sentencia LISTAR = Sentencia.de("cliente.reactivo.listar",
+            COLUMNAS_CLIENTE + "FROM p_list_cliente(p_accion := ?)");
+
+    private static final Sentencia LISTAR_POR_ZONA = Sentencia.de("cliente.reactivo.listar_por_zona",
+            COLUMNAS_CLIENTE + "FROM p_list_cliente(p_codzona := ?, p_accion := ?)");
+
+    private static final Sentencia BUSCAR_POR_CODIGO = Sentencia.de("cliente.reactivo.buscar_por_codigo",
+            COLUMNAS_CLIENTE + "FROM p_list_cliente(p_codcliente := ?, p_accion := ?)");
+
+    public Multi<ClienteResponse> listarTodos() {
+        return executeQueryStream(LISTAR, this::mapClienteResponse, "L");
+    }
+
+    public Multi<ClienteResponse> listarPorZona(int codZona) {
+        return executeQueryStream(LISTAR_POR_ZONA, this::mapClienteResponse, codZona, "L");
+    }
+
+    public Uni<Optional<ClienteResponse>> buscarPorCodigo(int codCliente) {
+        return executeQuerySingle(BUSCAR_POR_CODIGO, this::mapClienteResponse, codCliente, "L");
+    }
+
+    private ClienteResponse mapClienteResponse(Row fila) {
+        return ClienteResponse.builder()
+                .codCliente(entero(fila, 0))
+                .codZona(entero(fila, 1))
+                .zona(fila.getString(2))
+                .nit(fila.getString(3))
+                .razonSocial(fila.getString(4))
+                .nombreCliente(fila.getString(5))
+                .direccion(fila.getString(6))
+                .referencia(fila.getString(7))
+                .obs(fila.getString(8))
+                .totalNotas(entero(fila, 9))
+                .audUsuario(entero(fila, 10))
+                .build();
+    }
+}
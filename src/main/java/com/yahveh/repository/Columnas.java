@@ -0,0 +1,74 @@
+package com.yahveh.repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Índices de columnas de un ResultSet, resueltos una sola vez a partir de su metadata.
+ * Los mappers piden el índice al crearse y luego leen cada fila por posición.
+ * Los getters estáticos devuelven null para NULL usando wasNull() (sin getObject previo).
+ */
+final class Columnas {
+
+    private final Map<String, Integer> indices;
+
+    Columnas(ResultSetMetaData metaData) throws SQLException {
+        int total = metaData.getColumnCount();
+        indices = new HashMap<>(total * 2);
+        // Ante nombres repetidos gana la primera columna, igual que rs.getX(nombre)
+        for (int i = total; i >= 1; i--) {
+            indices.put(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+    }
+
+    /**
+     * Índice de una columna obligatoria
+     */
+    int indice(String nombre) throws SQLException {
+        Integer indice = indices.get(nombre);
+        if (indice == null) {
+            throw new SQLException("Columna no encontrada en el resultado: " + nombre);
+        }
+        return indice;
+    }
+
+    /**
+     * Índice de una columna que puede no venir en el resultado; 0 si no existe
+     */
+    int indiceOpcional(String nombre) {
+        return indices.getOrDefault(nombre, 0);
+    }
+
+    static Integer entero(ResultSet rs, int indice) throws SQLException {
+        int valor = rs.getInt(indice);
+        return rs.wasNull() ? null : valor;
+    }
+
+    static Long largo(ResultSet rs, int indice) throws SQLException {
+        long valor = rs.getLong(indice);
+        return rs.wasNull() ? null : valor;
+    }
+
+    static Float decimal(ResultSet rs, int indice) throws SQLException {
+        float valor = rs.getFloat(indice);
+        return rs.wasNull() ? null : valor;
+    }
+
+    static LocalDate fecha(ResultSet rs, int indice) throws SQLException {
+        Date valor = rs.getDate(indice);
+        return valor != null ? valor.toLocalDate() : null;
+    }
+
+    static LocalDateTime fechaHora(ResultSet rs, int indice) throws SQLException {
+        Timestamp valor = rs.getTimestamp(indice);
+        return valor != null ? valor.toLocalDateTime() : null;
+    }
+}
@@ -8,8 +8,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Slf4j
 @ApplicationScoped
@@ -28,20 +27,52 @@ public class DetalleNotaEntregaRepository extends BaseRepository<DetalleNotaEntr
         }
     }
 
+    private static final Sentencia LISTAR_POR_NOTA = Sentencia.builder()
+            .nombre("detalle_nota_entrega.listar_por_nota")
+            .sql("SELECT * FROM p_list_detalle_nota_entrega(p_codnotaentrega := ?)")
+            .prepararEnServidor(true)
+            .build();
+
+    private static final Sentencia LISTAR_POR_NOTAS = Sentencia.de("detalle_nota_entrega.listar_por_notas",
+            "SELECT d.* " +
+            "FROM unnest(?::integer[]) AS n(cod_nota_entrega) " +
+            "CROSS JOIN LATERAL p_list_detalle_nota_entrega(p_codnotaentrega := n.cod_nota_entrega) d");
+
+    private static final Sentencia BUSCAR_POR_CODIGO = Sentencia.builder()
+            .nombre("detalle_nota_entrega.buscar_por_codigo")
+            .sql("SELECT * FROM p_list_detalle_nota_entrega(p_coddetalle := ?)")
+            .prepararEnServidor(true)
+            .build();
+
     /**
      * Listar detalles por nota de entrega
      */
     public List<DetalleNotaEntregaResponse> listarPorNotaEntrega(int codNotaEntrega) {
-        String sql = "SELECT * FROM p_list_detalle_nota_entrega(p_codnotaentrega := ?)";
-        return executeQueryList(sql, this::mapDetalleResponse, codNotaEntrega);
+        return executeQueryList(LISTAR_POR_NOTA, this::mapDetalleResponse, codNotaEntrega);
+    }
+
+    /**
+     * Listar detalles de varias notas de entrega en una sola consulta, agrupados por nota
+     */
+    public Map<Integer, List<DetalleNotaEntregaResponse>> listarPorNotasEntrega(Collection<Integer> codNotasEntrega) {
+        Map<Integer, List<DetalleNotaEntregaResponse>> detallesPorNota = new HashMap<>();
+        if (codNotasEntrega.isEmpty()) {
+            return detallesPorNota;
+        }
+
+        executeQueryList(LISTAR_POR_NOTAS, this::mapDetalleResponse, codNotasEntrega)
+                .forEach(detalle -> detallesPorNota
+                        .computeIfAbsent(detalle.getCodNotaEntrega(), k -> new ArrayList<>())
+                        .add(detalle));
+
+        return detallesPorNota;
     }
 
     /**
      * Buscar detalle por código
      */
     public Optional<DetalleNotaEntregaResponse> buscarPorCodigo(int codDetalle) {
-        String sql = "SELECT * FROM p_list_detalle_nota_entrega(p_coddetalle := ?)";
-        return executeQuerySingle(sql, this::mapDetalleResponse, codDetalle);
+        return executeQuerySingle(BUSCAR_POR_CODIGO, this::mapDetalleResponse, codDetalle);
     }
 
     /**
@@ -0,0 +1,188 @@
+package com.yahveh.repository;
+
+import com.yahveh.dto.response.EstadisticasPool;
+import com.yahveh.exception.ServicioSaturadoException;
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.AgroalDataSourceMetrics;
+import io.quarkus.arc.Arc;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decide de qué pool sale la conexión de cada sentencia.
+ * <ul>
+ *   <li>Las lecturas marcadas como lecturaReplica van a la réplica, salvo dentro de una transacción o si
+ *   el mismo cliente escribió hace poco: así ve sus propios cambios aunque la réplica vaya atrasada.
+ *   La marca de la última escritura vuelve al cliente en una cookie (ver LecturaPropiaFilter), de modo que
+ *   cualquier nodo la respeta; un cliente que no reenvía cookies solo ve sus cambios dentro de la
+ *   misma solicitud.</li>
+ *   <li>En la primaria, las sentencias del pool REPORTES usan su propio pool (fuera de transacciones),
+ *   de modo que los reportes largos no dejan sin conexiones al resto.</li>
+ *   <li>Las sentencias soloPrimaria nunca van a la réplica pero conservan su pool: una lectura que necesita
+ *   datos recién confirmados no tiene que abrir una transacción (que la llevaría al pool OLTP).</li>
+ * </ul>
+ */
+@Slf4j
+@ApplicationScoped
+public class EnrutadorConexiones {
+
+    @Inject
+    AgroalDataSource primaria;
+
+    @Inject
+    @io.quarkus.agroal.DataSource("reportes")
+    AgroalDataSource reportes;
+
+    @Inject
+    @io.quarkus.agroal.DataSource("replica")
+    AgroalDataSource replica;
+
+    @Inject
+    EscrituraReciente escrituraReciente;
+
+    @Inject
+    TransactionSynchronizationRegistry transacciones;
+
+    @ConfigProperty(name = "yahveh.db.replica.habilitada", defaultValue = "false")
+    boolean replicaHabilitada;
+
+    /**
+     * Tiempo que las lecturas de un cliente quedan en la primaria después de escribir
+     * (debe cubrir el retraso normal de replicación)
+     */
+    @ConfigProperty(name = "yahveh.db.replica.ventana-primaria", defaultValue = "PT10S")
+    Duration ventanaPrimaria;
+
+    @ConfigProperty(name = "yahveh.db.reintentar-en-segundos", defaultValue = "5")
+    int reintentarEnSegundos;
+
+    private final Map<String, LongAdder> agotamientos = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        if (replicaHabilitada) {
+            log.info("Lecturas de listados y reportes enrutadas a la réplica (ventana primaria {})", ventanaPrimaria);
+        }
+    }
+
+    /**
+     * Obtener una conexión para la sentencia. Si el pool no entrega una conexión dentro de su
+     * acquisition-timeout se responde "servicio saturado" en lugar de un error genérico.
+     */
+    public Connection conectar(Sentencia sentencia) throws SQLException {
+        String nombre = nombrePool(sentencia);
+        try {
+            return pool(nombre).getConnection();
+        } catch (SQLException e) {
+            if (!esAgotamiento(e)) {
+                throw e;
+            }
+            agotamientos.computeIfAbsent(nombre, k -> new LongAdder()).increment();
+            log.warn("Pool {} sin conexiones disponibles para {}", nombre, sentencia.getNombre());
+            throw new ServicioSaturadoException("Servicio ocupado, intente nuevamente en unos segundos",
+                    false, reintentarEnSegundos);
+        }
+    }
+
+    /**
+     * Registrar que la solicitud en curso escribió: sus lecturas siguientes, y las del cliente durante la
+     * ventana primaria, van a la primaria
+     */
+    public void registrarEscritura() {
+        if (replicaHabilitada && Arc.container().requestContext().isActive()) {
+            escrituraReciente.registrar();
+        }
+    }
+
+    public boolean isReplicaHabilitada() {
+        return replicaHabilitada;
+    }
+
+    public Duration getVentanaPrimaria() {
+        return ventanaPrimaria;
+    }
+
+    /**
+     * Ocupación y esperas de cada pool
+     */
+    public List<EstadisticasPool> estadisticas() {
+        List<EstadisticasPool> estadisticas = new ArrayList<>();
+        estadisticas.add(estadisticas("oltp", primaria));
+        estadisticas.add(estadisticas("reportes", reportes));
+        if (replicaHabilitada) {
+            estadisticas.add(estadisticas("replica", replica));
+        }
+        return estadisticas;
+    }
+
+    private String nombrePool(Sentencia sentencia) {
+        boolean enTransaccion = transacciones.getTransactionKey() != null;
+        if (enTransaccion) {
+            return "oltp";
+        }
+        if (replicaHabilitada && sentencia.isLecturaReplica() && !sentencia.isSoloPrimaria()
+                && !escribioRecientemente()) {
+            return "replica";
+        }
+        return sentencia.getPool() == PoolConexiones.REPORTES ? "reportes" : "oltp";
+    }
+
+    private AgroalDataSource pool(String nombre) {
+        return switch (nombre) {
+            case "replica" -> replica;
+            case "reportes" -> reportes;
+            default -> primaria;
+        };
+    }
+
+    private boolean escribioRecientemente() {
+        if (!Arc.container().requestContext().isActive()) {
+            return false;
+        }
+        if (escrituraReciente.isEscribio()) {
+            return true;
+        }
+        long marca = escrituraReciente.getUltimaInformada();
+        return marca > 0 && System.currentTimeMillis() - marca < ventanaPrimaria.toMillis();
+    }
+
+    /**
+     * Agroal no tiene una excepción propia para el timeout de adquisición; se reconoce por el mensaje
+     */
+    private static boolean esAgotamiento(SQLException e) {
+        return e.getMessage() != null && e.getMessage().contains("acquisition timeout");
+    }
+
+    private EstadisticasPool estadisticas(String nombre, AgroalDataSource dataSource) {
+        AgroalDataSourceMetrics metricas = dataSource.getMetrics();
+        int maximo = dataSource.getConfiguration().connectionPoolConfiguration().maxSize();
+        LongAdder agotados = agotamientos.get(nombre);
+
+        return EstadisticasPool.builder()
+                .nombre(nombre)
+                .maximo(maximo)
+                .activas(metricas.activeCount())
+                .disponibles(metricas.availableCount())
+                .esperando(metricas.awaitingCount())
+                .maximoUsadas(metricas.maxUsedCount())
+                .adquisiciones(metricas.acquireCount())
+                .agotamientos(agotados != null ? agotados.sum() : 0)
+                .esperaPromedioMs(metricas.blockingTimeAverage().toNanos() / 1_000_000.0)
+                .esperaMaximaMs(metricas.blockingTimeMax().toNanos() / 1_000_000.0)
+                .saturacion(maximo == 0 ? 0 : metricas.activeCount() * 100.0 / maximo)
+                .build();
+    }
+}
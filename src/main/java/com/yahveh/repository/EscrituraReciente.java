@@ -0,0 +1,33 @@
+package com.yahveh.repository;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * Escrituras del cliente que hace la solicitud en curso: la última que informó (cookie) y si esta misma
+ * solicitud escribió. La marca viaja con el cliente, así cualquier nodo lo envía a la primaria.
+ */
+@RequestScoped
+public class EscrituraReciente {
+
+    private long ultimaInformada;
+    private boolean escribio;
+
+    /**
+     * Marca de tiempo (epoch ms) de la última escritura que trae el cliente
+     */
+    public void recibir(long marca) {
+        ultimaInformada = marca;
+    }
+
+    public void registrar() {
+        escribio = true;
+    }
+
+    public boolean isEscribio() {
+        return escribio;
+    }
+
+    public long getUltimaInformada() {
+        return ultimaInformada;
+    }
+}
@@ -2,6 +2,7 @@ package com.yahveh.repository;
 
 
 import com.yahveh.dto.response.InventarioResponse;
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.exception.BusinessException;
 import com.yahveh.model.Inventario;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -12,6 +13,7 @@ import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Slf4j
 @ApplicationScoped
@@ -35,7 +37,24 @@ public class InventarioRepository extends BaseRepository<Inventario> {
      */
     public List<InventarioResponse> listarTodos() {
         String sql = "SELECT * FROM p_list_inventario()";
-        return executeQueryList(sql, this::mapInventarioResponse);
+        return executeQueryList(sql, mapInventarioResponse());
+    }
+
+    /**
+     * Recorrer todos los movimientos sin cargarlos completos en memoria
+     */
+    public void recorrerTodos(Consumer<InventarioResponse> consumidor) {
+        String sql = "SELECT * FROM p_list_inventario()";
+        executeQueryStream(sql, mapInventarioResponse(), consumidor);
+    }
+
+    /**
+     * Listar movimientos paginados por código (keyset)
+     */
+    public Pagina<InventarioResponse> listarTodosPaginado(String cursor, int limite) {
+        String sql = "SELECT * FROM p_list_inventario()";
+        return executeQueryPage(sql, "cod_inventario", InventarioResponse::getCodInventario,
+                mapInventarioResponse(), cursorNumerico(cursor), limite);
     }
 
     /**
@@ -43,7 +62,7 @@ public class InventarioRepository extends BaseRepository<Inventario> {
      */
     public Optional<InventarioResponse> buscarPorCodigo(int codInventario) {
         String sql = "SELECT * FROM p_list_inventario(p_codinventario := ?)";
-        return executeQuerySingle(sql, this::mapInventarioResponse, codInventario);
+        return executeQuerySingle(sql, mapInventarioResponse(), codInventario);
     }
 
     /**
@@ -51,7 +70,7 @@ public class InventarioRepository extends BaseRepository<Inventario> {
      */
     public List<InventarioResponse> listarPorArticulo(String codArticulo) {
         String sql = "SELECT * FROM p_list_inventario(p_codarticulo := ?)";
-        return executeQueryList(sql, this::mapInventarioResponse, codArticulo);
+        return executeQueryList(sql, mapInventarioResponse(), codArticulo);
     }
 
     /**
@@ -59,7 +78,7 @@ public class InventarioRepository extends BaseRepository<Inventario> {
      */
     public List<InventarioResponse> listarPorTipo(String tipoMovimiento) {
         String sql = "SELECT * FROM p_list_inventario(p_tipomovimiento := ?)";
-        return executeQueryList(sql, this::mapInventarioResponse, tipoMovimiento);
+        return executeQueryList(sql, mapInventarioResponse(), tipoMovimiento);
     }
 
     /**
@@ -67,16 +86,16 @@ public class InventarioRepository extends BaseRepository<Inventario> {
      */
     public List<InventarioResponse> listarPorFechas(LocalDate fechaDesde, LocalDate fechaHasta) {
         String sql = "SELECT * FROM p_list_inventario(p_fecha_desde := ?, p_fecha_hasta := ?)";
-        return executeQueryList(sql, this::mapInventarioResponse, fechaDesde, fechaHasta);
+        return executeQueryList(sql, mapInventarioResponse(), fechaDesde, fechaHasta);
     }
 
     /**
-     * Crear nuevo movimiento de inventario
+     * Crear nuevo movimiento de inventario y devolverlo leído en la misma llamada
      */
-    public long crearMovimiento(String codArticulo, String tipoMovimiento, int cantidad,
-                                float precioUnitario, LocalDate fecha, String observacion, int audUsuario) {
-        String sql = "SELECT p_error, p_errormsg, p_result " +
-                "FROM p_abm_inventario(" +
+    public Optional<InventarioResponse> crearMovimiento(String codArticulo, String tipoMovimiento, int cantidad,
+                                                        float precioUnitario, LocalDate fecha, String observacion,
+                                                        int audUsuario) {
+        String abm = "p_abm_inventario(" +
                 "p_codarticulo := ?, " +
                 "p_tipomovimiento := ?, " +
                 "p_cantidad := ?, " +
@@ -85,10 +104,13 @@ public class InventarioRepository extends BaseRepository<Inventario> {
                 "p_observacion := ?, " +
                 "p_audusuario := ?, " +
                 "p_accion := 'I')";
+        String lectura = "p_list_inventario(p_codinventario := a.p_result::integer)";
 
-        AbmResult result = executeQuerySingle(
-                sql,
+        AbmConFila<AbmResult, InventarioResponse> result = executeAbmConFila(
+                abm,
+                lectura,
                 this::mapAbmResult,
+                mapInventarioResponse(),
                 codArticulo,
                 tipoMovimiento,
                 cantidad,
@@ -96,39 +118,46 @@ public class InventarioRepository extends BaseRepository<Inventario> {
                 fecha,
                 observacion,
                 audUsuario
-        ).orElseThrow(() -> new RuntimeException("Error al ejecutar procedimiento"));
+        );
 
-        if (!result.isSuccess()) {
-            log.error("Error al crear movimiento de inventario. Código: {}, Mensaje: {}", result.error, result.errorMsg);
-            throw new BusinessException(result.errorMsg);
+        if (!result.abm().isSuccess()) {
+            log.error("Error al crear movimiento de inventario. Código: {}, Mensaje: {}",
+                    result.abm().error, result.abm().errorMsg);
+            throw new BusinessException(result.abm().errorMsg);
         }
 
-        return result.result;
+        return result.fila().or(() -> buscarPorCodigo(result.abm().result.intValue()));
     }
 
     /**
-     * Modificar observación de un movimiento
+     * Modificar observación de un movimiento y devolverlo leído en la misma llamada
      */
-    public void modificarObservacion(int codInventario, String observacion, int audUsuario) {
-        String sql = "SELECT p_error, p_errormsg, p_result " +
-                "FROM p_abm_inventario(" +
+    public Optional<InventarioResponse> modificarObservacion(int codInventario, String observacion, int audUsuario) {
+        String abm = "p_abm_inventario(" +
                 "p_codinventario := ?, " +
                 "p_observacion := ?, " +
                 "p_audusuario := ?, " +
                 "p_accion := 'U')";
+        String lectura = "p_list_inventario(p_codinventario := ?)";
 
-        AbmResult result = executeQuerySingle(
-                sql,
+        AbmConFila<AbmResult, InventarioResponse> result = executeAbmConFila(
+                abm,
+                lectura,
                 this::mapAbmResult,
+                mapInventarioResponse(),
                 codInventario,
                 observacion,
-                audUsuario
-        ).orElseThrow(() -> new RuntimeException("Error al ejecutar procedimiento"));
-
-        if (!result.isSuccess()) {
-            log.error("Error al modificar movimiento de inventario. Código: {}, Mensaje: {}", result.error, result.errorMsg);
-            throw new BusinessException(result.errorMsg);
+                audUsuario,
+                codInventario
+        );
+
+        if (!result.abm().isSuccess()) {
+            log.error("Error al modificar movimiento de inventario. Código: {}, Mensaje: {}",
+                    result.abm().error, result.abm().errorMsg);
+            throw new BusinessException(result.abm().errorMsg);
         }
+
+        return result.fila().or(() -> buscarPorCodigo(codInventario));
     }
 
     /**
@@ -155,34 +184,34 @@ public class InventarioRepository extends BaseRepository<Inventario> {
     }
 
     /**
-     * Mapear ResultSet a InventarioResponse
+     * Mapear ResultSet a InventarioResponse (índices de columna resueltos una vez por consulta)
      */
-    private InventarioResponse mapInventarioResponse(ResultSet rs) throws SQLException {
-        InventarioResponse response = new InventarioResponse();
-        response.setCodInventario(rs.getInt(1));
-        response.setCodArticulo(rs.getString(2));
-        response.setDescripcionArticulo(rs.getString(3));
-        response.setDescripcion2Articulo(rs.getString(4));
-        response.setLineaArticulo(rs.getString(5));
-        response.setTipoMovimiento(rs.getString(6));
-        response.setCantidad(rs.getInt(7));
-        response.setSaldoAnterior(rs.getInt(8));
-        response.setSaldoNuevo(rs.getInt(9));
-        response.setPrecioUnitario(rs.getFloat(10));
-        response.setValorTotal(rs.getFloat(11));
-
-        // Manejar fecha
-        java.sql.Date fecha = rs.getDate("fecha");
-        if (fecha != null) {
-            response.setFecha(fecha.toLocalDate());
-        }
-
-        response.setObservacion(rs.getString("observacion"));
-        response.setAudUsuario(rs.getInt("aud_usuario"));
-
-
-
-        return response;
+    private ResultSetMapper<InventarioResponse> mapInventarioResponse() {
+        return porColumnas(c -> {
+            // Las primeras 11 columnas se leen por posición; las demás se resuelven por nombre una vez
+            int fecha = c.indice("fecha");
+            int observacion = c.indice("observacion");
+            int audUsuario = c.indice("aud_usuario");
+
+            return rs -> {
+                InventarioResponse response = new InventarioResponse();
+                response.setCodInventario(rs.getInt(1));
+                response.setCodArticulo(rs.getString(2));
+                response.setDescripcionArticulo(rs.getString(3));
+                response.setDescripcion2Articulo(rs.getString(4));
+                response.setLineaArticulo(rs.getString(5));
+                response.setTipoMovimiento(rs.getString(6));
+                response.setCantidad(rs.getInt(7));
+                response.setSaldoAnterior(rs.getInt(8));
+                response.setSaldoNuevo(rs.getInt(9));
+                response.setPrecioUnitario(rs.getFloat(10));
+                response.setValorTotal(rs.getFloat(11));
+                response.setFecha(Columnas.fecha(rs, fecha));
+                response.setObservacion(rs.getString(observacion));
+                response.setAudUsuario(rs.getInt(audUsuario));
+                return response;
+            };
+        });
     }
 
     /**
@@ -1,21 +1,24 @@
 package com.yahveh.repository;
 
+import com.yahveh.dto.LineaVentaDTO;
 import com.yahveh.dto.NotaEntregaReporteDTO;
 import com.yahveh.dto.VentaReporteDTO;
+import com.yahveh.dto.request.DetalleNotaEntregaRequest;
 import com.yahveh.dto.response.NotaEntregaResponse;
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.exception.BusinessException;
 import com.yahveh.exception.NotFoundException;
 import com.yahveh.model.NotaEntrega;
 import jakarta.enterprise.context.ApplicationScoped;
 import lombok.extern.slf4j.Slf4j;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 @Slf4j
 @ApplicationScoped
@@ -34,9 +37,92 @@ public class NotaEntregaRepository extends BaseRepository<NotaEntrega> {
         }
     }
 
+    private static final Sentencia LISTAR_VALIDAS = Sentencia.builder()
+            .nombre("nota_entrega.listar_validas")
+            .sql("SELECT * FROM p_list_nota_entrega(p_estado := 1)")
+            .lecturaReplica(true)
+            .build();
+
+    private static final Sentencia LISTAR_TODAS = Sentencia.builder()
+            .nombre("nota_entrega.listar_todas")
+            .sql("SELECT * FROM p_list_nota_entrega()")
+            .lecturaReplica(true)
+            .build();
+
+    private static final Sentencia LISTAR_ANULADAS = Sentencia.builder()
+            .nombre("nota_entrega.listar_anuladas")
+            .sql("SELECT * FROM p_list_nota_entrega(p_estado := 0)")
+            .lecturaReplica(true)
+            .build();
+
+    private static final Sentencia LISTAR_POR_ESTADO = Sentencia.builder()
+            .nombre("nota_entrega.listar_por_estado")
+            .sql("SELECT * FROM p_list_nota_entrega(p_estado := ?)")
+            .lecturaReplica(true)
+            .build();
+
+    private static final Sentencia BUSCAR_POR_CODIGO = Sentencia.builder()
+            .nombre("nota_entrega.buscar_por_codigo")
+            .sql("SELECT * FROM p_list_nota_entrega(p_codnotaentrega := ?)")
+            .prepararEnServidor(true)
+            .build();
+
+    private static final Sentencia LISTAR_POR_CLIENTE = Sentencia.builder()
+            .nombre("nota_entrega.listar_por_cliente")
+            .sql("SELECT * FROM p_list_nota_entrega(p_codcliente := ?, p_estado := 1)")
+            .prepararEnServidor(true)
+            .build();
+
+    private static final Sentencia LISTAR_POR_FECHAS = Sentencia.builder()
+            .nombre("nota_entrega.listar_por_fechas")
+            .sql("SELECT * FROM p_list_nota_entrega(p_fecha_desde := ?, p_fecha_hasta := ?, p_estado := 1)")
+            .lecturaReplica(true)
+            .build();
+
+    private static final Sentencia DATOS_REPORTE = Sentencia.builder()
+            .nombre("nota_entrega.datos_reporte")
+            .sql("SELECT * FROM p_list_nota_entrega(p_codnotaentrega := ?, p_accion := 'R')")
+            .prepararEnServidor(true)
+            .pool(PoolConexiones.REPORTES)
+            .build();
+
+    private static final Sentencia REPORTE_VENTAS = Sentencia.builder()
+            .nombre("nota_entrega.reporte_ventas")
+            .sql("""
+                SELECT * FROM p_list_nota_entrega(
+                    p_accion := 'V'::VARCHAR,
+                    p_codnotaentrega := NULL::BIGINT,
+                    p_codcliente := NULL::BIGINT,
+                    p_fecha_desde := ?::DATE,
+                    p_fecha_hasta := ?::DATE,
+                    p_estado := 1::INTEGER
+                )
+                """)
+            .fetchSize(1000)
+            .timeoutSegundos(120)
+            .lecturaReplica(true)
+            .pool(PoolConexiones.REPORTES)
+            .build();
+
+    /**
+     * Mismo reporte para el almacén de análisis: recarga días recién modificados, así que no puede leer de la
+     * réplica; sigue en el pool de reportes
+     */
+    private static final Sentencia LINEAS_VENTA = REPORTE_VENTAS.toBuilder()
+            .nombre("nota_entrega.lineas_venta")
+            .soloPrimaria(true)
+            .build();
+
+    /**
+     * Exportación completa, por páginas en el pool de reportes
+     */
+    private static final Sentencia EXPORTAR_TODAS = LISTAR_TODAS.toBuilder()
+            .nombre("nota_entrega.exportar_todas")
+            .pool(PoolConexiones.REPORTES)
+            .build();
+
     public List<NotaEntregaResponse> listarTodas() {
-        String sql = "SELECT * FROM p_list_nota_entrega(p_estado := 1)";
-        return executeQueryList(sql, this::mapNotaEntregaResponse);
+        return executeQueryList(LISTAR_VALIDAS, mapNotaEntregaResponse());
     }
 
 
@@ -44,8 +130,25 @@ public class NotaEntregaRepository extends BaseRepository<NotaEntrega> {
      * Listar todas las notas (válidas y anuladas)
      */
     public List<NotaEntregaResponse> listarTodasConAnuladas() {
-        String sql = "SELECT * FROM p_list_nota_entrega()"; // sin filtros
-        return executeQueryList(sql, this::mapNotaEntregaResponse);
+        return executeQueryList(LISTAR_TODAS, mapNotaEntregaResponse());
+    }
+
+
+    /**
+     * Recorrer todas las notas (válidas y anuladas) por lotes, sin cargarlas completas en memoria.
+     * Cada lote se lee completo (keyset por código) y suelta la conexión antes de entregarse, así quien
+     * lo consume puede consultar los detalles y escribir al cliente sin una segunda conexión abierta.
+     */
+    public void recorrerTodasConAnuladas(int tamanioLote, Consumer<List<NotaEntregaResponse>> consumidor) {
+        Long cursor = null;
+        do {
+            Pagina<NotaEntregaResponse> pagina = executeQueryPage(EXPORTAR_TODAS, "cod_nota_entrega",
+                    NotaEntregaResponse::getCodNotaEntrega, mapNotaEntregaResponse(), cursor, tamanioLote);
+            if (!pagina.getItems().isEmpty()) {
+                consumidor.accept(pagina.getItems());
+            }
+            cursor = pagina.getNextCursor() != null ? Long.parseLong(pagina.getNextCursor()) : null;
+        } while (cursor != null);
     }
 
 
@@ -53,33 +156,42 @@ public class NotaEntregaRepository extends BaseRepository<NotaEntrega> {
      * Listar solo notas anuladas
      */
     public List<NotaEntregaResponse> listarAnuladas() {
-        String sql = "SELECT * FROM p_list_nota_entrega(p_estado := 0)";
-        return executeQueryList(sql, this::mapNotaEntregaResponse);
+        return executeQueryList(LISTAR_ANULADAS, mapNotaEntregaResponse());
     }
 
 
+    /**
+     * Listar notas paginadas por código (keyset). Si estado es null se incluyen válidas y anuladas
+     */
+    public Pagina<NotaEntregaResponse> listarPaginado(Integer estado, String cursor, int limite) {
+        if (estado == null) {
+            return executeQueryPage(LISTAR_TODAS, "cod_nota_entrega", NotaEntregaResponse::getCodNotaEntrega,
+                    mapNotaEntregaResponse(), cursorNumerico(cursor), limite);
+        }
+
+        return executeQueryPage(LISTAR_POR_ESTADO, "cod_nota_entrega", NotaEntregaResponse::getCodNotaEntrega,
+                mapNotaEntregaResponse(), cursorNumerico(cursor), limite, estado);
+    }
+
     /**
      * Buscar nota de entrega por código
      */
     public Optional<NotaEntregaResponse> buscarPorCodigo(long codNotaEntrega) {
-        String sql = "SELECT * FROM p_list_nota_entrega(p_codnotaentrega := ?)";
-        return executeQuerySingle(sql, this::mapNotaEntregaResponse, codNotaEntrega);
+        return executeQuerySingle(BUSCAR_POR_CODIGO, mapNotaEntregaResponse(), codNotaEntrega);
     }
 
     /**
      * Listar notas de entrega por cliente (solo válidas)
      */
     public List<NotaEntregaResponse> listarPorCliente(long codCliente) {
-        String sql = "SELECT * FROM p_list_nota_entrega(p_codcliente := ?, p_estado := 1)";
-        return executeQueryList(sql, this::mapNotaEntregaResponse, codCliente);
+        return executeQueryList(LISTAR_POR_CLIENTE, mapNotaEntregaResponse(), codCliente);
     }
 
     /**
      * Listar notas de entrega por rango de fechas (solo válidas)
      */
     public List<NotaEntregaResponse> listarPorFechas(LocalDate fechaDesde, LocalDate fechaHasta) {
-        String sql = "SELECT * FROM p_list_nota_entrega(p_fecha_desde := ?, p_fecha_hasta := ?, p_estado := 1)";
-        return executeQueryList(sql, this::mapNotaEntregaResponse, fechaDesde, fechaHasta);
+        return executeQueryList(LISTAR_POR_FECHAS, mapNotaEntregaResponse(), fechaDesde, fechaHasta);
     }
 
     /**
@@ -112,6 +224,77 @@ public class NotaEntregaRepository extends BaseRepository<NotaEntrega> {
         return result.result;
     }
 
+    /**
+     * Crear la nota y todas sus líneas en una sola llamada a la base de datos.
+     * El detalle se inserta con un LATERAL sobre el resultado de la cabecera, así cada
+     * p_abm_detalle_nota_entrega recibe el código recién creado sin otra ida y vuelta.
+     */
+    public int crearNotaEntregaConDetalles(long codCliente, LocalDate fecha, String direccion, String zona,
+                                           List<DetalleNotaEntregaRequest> detalles, long audUsuario) {
+        if (detalles == null || detalles.isEmpty()) {
+            return crearNotaEntrega(codCliente, fecha, direccion, zona, audUsuario);
+        }
+
+        String sql = """
+        SELECT c.p_error, c.p_errormsg, c.p_result,
+               d.p_error AS det_error, d.p_errormsg AS det_errormsg
+        FROM p_abm_nota_entrega(
+            p_codcliente := ?::BIGINT,
+            p_fecha := ?::DATE,
+            p_direccion := ?::VARCHAR,
+            p_zona := ?::VARCHAR,
+            p_audusuario := ?::BIGINT,
+            p_accion := 'I'::VARCHAR
+        ) c
+        LEFT JOIN LATERAL (
+            SELECT r.p_error, r.p_errormsg, l.orden
+            FROM unnest(?::varchar[], ?::integer[], ?::float8[], ?::float8[])
+                 WITH ORDINALITY AS l(cod_articulo, cantidad, precio_unitario, precio_sin_factura, orden)
+            CROSS JOIN LATERAL p_abm_detalle_nota_entrega(
+                p_codnotaentrega := c.p_result,
+                p_codarticulo := l.cod_articulo,
+                p_cantidad := l.cantidad,
+                p_preciounitario := l.precio_unitario,
+                p_preciosinfactura := l.precio_sin_factura,
+                p_audusuario := ?,
+                p_accion := 'I'
+            ) r
+            WHERE c.p_error = 0
+        ) d ON true
+        ORDER BY d.orden
+        """;
+
+        List<AbmResultLinea> resultados = executeQueryList(sql, this::mapAbmResultLinea,
+                codCliente, fecha, direccion, zona, audUsuario,
+                detalles.stream().map(DetalleNotaEntregaRequest::getCodArticulo).toList(),
+                detalles.stream().map(DetalleNotaEntregaRequest::getCantidad).toList(),
+                detalles.stream().map(DetalleNotaEntregaRequest::getPrecioUnitario).toList(),
+                detalles.stream().map(DetalleNotaEntregaRequest::getPrecioSinFactura).toList(),
+                (int) audUsuario);
+
+        if (resultados.isEmpty()) {
+            throw new RuntimeException("Error al ejecutar procedimiento");
+        }
+
+        AbmResult cabecera = resultados.get(0).cabecera();
+        if (!cabecera.isSuccess()) {
+            log.error("Error al crear nota de entrega. Código: {}, Mensaje: {}",
+                    cabecera.error, cabecera.errorMsg);
+            throw new BusinessException(cabecera.errorMsg);
+        }
+
+        // Un error en cualquier línea revierte toda la nota (la transacción del servicio)
+        for (AbmResultLinea linea : resultados) {
+            if (linea.errorDetalle() != 0) {
+                log.error("Error al crear detalle. Código: {}, Mensaje: {}",
+                        linea.errorDetalle(), linea.errorMsgDetalle());
+                throw new BusinessException(linea.errorMsgDetalle());
+            }
+        }
+
+        return cabecera.result;
+    }
+
     /**
      * Actualizar nota de entrega
      */
@@ -188,169 +371,135 @@ public class NotaEntregaRepository extends BaseRepository<NotaEntrega> {
      * Obtener datos completos para el reporte
      */
     public NotaEntregaReporteDTO obtenerDatosReporte(long codNotaEntrega) {
-        String sql = "SELECT * FROM p_list_nota_entrega(p_codnotaentrega := ?, p_accion := 'R')";
-
-        List<Map<String, Object>> resultados = new ArrayList<>();
-
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setLong(1, codNotaEntrega);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Map<String, Object> row = new HashMap<>();
-
-                    // Encabezado
-                    row.put("codNotaEntrega", rs.getLong("cod_nota_entrega"));
-                    row.put("fecha", rs.getDate("fecha").toLocalDate());
-                    row.put("codCliente", rs.getLong("cod_cliente"));
-                    row.put("nombreCliente", rs.getString("nombre_cliente"));
-                    row.put("nit", rs.getString("nit"));
-                    row.put("razonSocial", rs.getString("razon_social"));
-                    row.put("direccion", rs.getString("direccion"));
-                    row.put("zona", rs.getString("zona"));
-                    row.put("telefonos", rs.getString("telefonos"));
-                    row.put("estado", rs.getInt("estado"));                    // ⭐ Nuevo
-                    row.put("estadoTexto", rs.getString("estado_texto"));      // ⭐ Nuevo
-                    row.put("totalGeneral", rs.getFloat("total_general"));
-                    row.put("totalSinFactura", rs.getFloat("total_sin_factura"));
-                    row.put("totalArticulos", rs.getInt("total_articulos"));
-
-                    // Detalle
-                    row.put("codArticulo", rs.getString("cod_articulo"));
-                    row.put("lineaArticulo", rs.getString("linea_articulo"));
-                    row.put("descripcionArticulo", rs.getString("descripcion_articulo"));
-                    row.put("cantidad", rs.getInt("cantidad"));
-                    row.put("precioUnitario", rs.getFloat("precio_unitario"));
-                    row.put("precioTotal", rs.getFloat("precio_total"));
-                    row.put("precioSinFactura", rs.getFloat("precio_sin_factura"));
-                    row.put("subtotalSinFactura", rs.getFloat("subtotal_sin_factura"));
-
-                    resultados.add(row);
+        List<NotaEntregaReporteDTO> encabezado = new ArrayList<>(1);
+        List<NotaEntregaReporteDTO.DetalleArticuloDTO> detalles = new ArrayList<>();
+
+        executeQueryRows(DATOS_REPORTE, rs -> {
+            // Índices resueltos una vez; cada fila se lee por posición
+            Columnas c = new Columnas(rs.getMetaData());
+            int iCodNotaEntrega = c.indice("cod_nota_entrega");
+            int iFecha = c.indice("fecha");
+            int iCodCliente = c.indice("cod_cliente");
+            int iNombreCliente = c.indice("nombre_cliente");
+            int iNit = c.indice("nit");
+            int iRazonSocial = c.indice("razon_social");
+            int iDireccion = c.indice("direccion");
+            int iZona = c.indice("zona");
+            int iTelefonos = c.indice("telefonos");
+            int iEstado = c.indice("estado");
+            int iEstadoTexto = c.indice("estado_texto");
+            int iTotalGeneral = c.indice("total_general");
+            int iTotalSinFactura = c.indice("total_sin_factura");
+            int iTotalArticulos = c.indice("total_articulos");
+            int iCodArticulo = c.indice("cod_articulo");
+            int iLineaArticulo = c.indice("linea_articulo");
+            int iDescripcionArticulo = c.indice("descripcion_articulo");
+            int iCantidad = c.indice("cantidad");
+            int iPrecioUnitario = c.indice("precio_unitario");
+            int iPrecioTotal = c.indice("precio_total");
+            int iPrecioSinFactura = c.indice("precio_sin_factura");
+            int iSubtotalSinFactura = c.indice("subtotal_sin_factura");
+
+            long filas = 0;
+            while (rs.next()) {
+                filas++;
+                // Encabezado (se repite en cada fila, se toma de la primera)
+                if (encabezado.isEmpty()) {
+                    encabezado.add(NotaEntregaReporteDTO.builder()
+                            .codNotaEntrega(rs.getLong(iCodNotaEntrega))
+                            .fecha(Columnas.fecha(rs, iFecha))
+                            .codCliente(rs.getLong(iCodCliente))
+                            .nombreCliente(rs.getString(iNombreCliente))
+                            .nit(rs.getString(iNit))
+                            .razonSocial(rs.getString(iRazonSocial))
+                            .direccion(rs.getString(iDireccion))
+                            .zona(rs.getString(iZona))
+                            .telefonos(rs.getString(iTelefonos))
+                            .estado(rs.getInt(iEstado))                    // ⭐ Nuevo
+                            .estadoTexto(rs.getString(iEstadoTexto))       // ⭐ Nuevo
+                            .totalConFactura(rs.getFloat(iTotalGeneral))
+                            .totalSinFactura(rs.getFloat(iTotalSinFactura))
+                            .totalArticulos(rs.getInt(iTotalArticulos))
+                            .build());
+                }
+
+                // Detalle
+                String codArticulo = rs.getString(iCodArticulo);
+                if (codArticulo != null) {
+                    detalles.add(NotaEntregaReporteDTO.DetalleArticuloDTO.builder()
+                            .codArticulo(codArticulo)
+                            .lineaArticulo(rs.getString(iLineaArticulo))
+                            .descripcionArticulo(rs.getString(iDescripcionArticulo))
+                            .cantidad(rs.getInt(iCantidad))
+                            .precioUnitario(rs.getFloat(iPrecioUnitario))
+                            .precioTotal(rs.getFloat(iPrecioTotal))
+                            .precioSinFactura(rs.getFloat(iPrecioSinFactura))
+                            .subtotalSinFactura(rs.getFloat(iSubtotalSinFactura))
+                            .build());
                 }
             }
-        } catch (SQLException e) {
-            log.error("Error al obtener datos del reporte", e);
-            throw new RuntimeException("Error al obtener datos del reporte", e);
-        }
+            return filas;
+        }, codNotaEntrega);
 
-        if (resultados.isEmpty()) {
+        if (encabezado.isEmpty()) {
             throw new NotFoundException("Nota de entrega no encontrada");
         }
 
-        // Construir el DTO
-        Map<String, Object> primerRegistro = resultados.get(0);
-
-        List<NotaEntregaReporteDTO.DetalleArticuloDTO> detalles = resultados.stream()
-                .filter(row -> row.get("codArticulo") != null)
-                .map(row -> NotaEntregaReporteDTO.DetalleArticuloDTO.builder()
-                        .codArticulo((String) row.get("codArticulo"))
-                        .lineaArticulo((String) row.get("lineaArticulo"))
-                        .descripcionArticulo((String) row.get("descripcionArticulo"))
-                        .cantidad((Integer) row.get("cantidad"))
-                        .precioUnitario((Float) row.get("precioUnitario"))
-                        .precioTotal((Float) row.get("precioTotal"))
-                        .precioSinFactura((Float) row.get("precioSinFactura"))
-                        .subtotalSinFactura((Float) row.get("subtotalSinFactura"))
-                        .build())
-                .collect(Collectors.toList());
-
-        return NotaEntregaReporteDTO.builder()
-                .codNotaEntrega((Long) primerRegistro.get("codNotaEntrega"))
-                .fecha((LocalDate) primerRegistro.get("fecha"))
-                .codCliente((Long) primerRegistro.get("codCliente"))
-                .nombreCliente((String) primerRegistro.get("nombreCliente"))
-                .nit((String) primerRegistro.get("nit"))
-                .razonSocial((String) primerRegistro.get("razonSocial"))
-                .direccion((String) primerRegistro.get("direccion"))
-                .zona((String) primerRegistro.get("zona"))
-                .telefonos((String) primerRegistro.get("telefonos"))
-                .estado((Integer) primerRegistro.get("estado"))                // ⭐ Nuevo
-                .estadoTexto((String) primerRegistro.get("estadoTexto"))       // ⭐ Nuevo
-                .totalConFactura((Float) primerRegistro.get("totalGeneral"))
-                .totalSinFactura((Float) primerRegistro.get("totalSinFactura"))
-                .totalArticulos((Integer) primerRegistro.get("totalArticulos"))
-                .detalles(detalles)
-                .build();
+        NotaEntregaReporteDTO reporte = encabezado.get(0);
+        reporte.setDetalles(detalles);
+        return reporte;
+    }
+
+    private AbmResultLinea mapAbmResultLinea(ResultSet rs) throws SQLException {
+        return new AbmResultLinea(mapAbmResult(rs), rs.getInt("det_error"), rs.getString("det_errormsg"));
+    }
+
+    /**
+     * Resultado de la cabecera repetido en cada fila, junto al resultado de una línea
+     */
+    private record AbmResultLinea(AbmResult cabecera, int errorDetalle, String errorMsgDetalle) {
     }
 
     /**
-     * Mapear ResultSet a NotaEntregaResponse
+     * Mapear ResultSet a NotaEntregaResponse (índices de columna resueltos una vez por consulta)
      */
-    private NotaEntregaResponse mapNotaEntregaResponse(ResultSet rs) throws SQLException {
-        return NotaEntregaResponse.builder()
-                .codNotaEntrega(rs.getInt("cod_nota_entrega"))
-                .codCliente(rs.getInt("cod_cliente"))
-                .nombreCliente(rs.getString("nombre_cliente"))
-                .fecha(rs.getDate("fecha").toLocalDate())
-                .direccion(rs.getString("direccion"))
-                .zona(rs.getString("zona"))
-                .audUsuario(rs.getInt("aud_usuario"))
-                .audFecha(rs.getTimestamp("aud_fecha").toLocalDateTime())
-                .estado(rs.getInt("estado"))                    // ⭐ Nuevo
-                .estadoTexto(rs.getString("estado_texto"))      // ⭐ Nuevo
-                .totalGeneral(rs.getFloat("total_general"))
-                .totalArticulos(rs.getInt("total_articulos"))
-                .build();
+    private ResultSetMapper<NotaEntregaResponse> mapNotaEntregaResponse() {
+        return porColumnas(c -> {
+            int codNotaEntrega = c.indice("cod_nota_entrega");
+            int codCliente = c.indice("cod_cliente");
+            int nombreCliente = c.indice("nombre_cliente");
+            int fecha = c.indice("fecha");
+            int direccion = c.indice("direccion");
+            int zona = c.indice("zona");
+            int audUsuario = c.indice("aud_usuario");
+            int audFecha = c.indice("aud_fecha");
+            int estado = c.indice("estado");
+            int estadoTexto = c.indice("estado_texto");
+            int totalGeneral = c.indice("total_general");
+            int totalArticulos = c.indice("total_articulos");
+
+            return rs -> NotaEntregaResponse.builder()
+                    .codNotaEntrega(rs.getInt(codNotaEntrega))
+                    .codCliente(rs.getInt(codCliente))
+                    .nombreCliente(rs.getString(nombreCliente))
+                    .fecha(Columnas.fecha(rs, fecha))
+                    .direccion(rs.getString(direccion))
+                    .zona(rs.getString(zona))
+                    .audUsuario(rs.getInt(audUsuario))
+                    .audFecha(Columnas.fechaHora(rs, audFecha))
+                    .estado(rs.getInt(estado))                    // ⭐ Nuevo
+                    .estadoTexto(rs.getString(estadoTexto))      // ⭐ Nuevo
+                    .totalGeneral(rs.getFloat(totalGeneral))
+                    .totalArticulos(rs.getInt(totalArticulos))
+                    .build();
+        });
     }
 
     /**
      * ⭐ NUEVO: Obtener datos para reporte de ventas usando el SP
      */
     public List<VentaReporteDTO> obtenerReporteVentas(LocalDate fechaDesde, LocalDate fechaHasta) {
-        String sql = """
-        SELECT * FROM p_list_nota_entrega(
-            p_accion := 'V'::VARCHAR,
-            p_codnotaentrega := NULL::BIGINT,
-            p_codcliente := NULL::BIGINT,
-            p_fecha_desde := ?::DATE,
-            p_fecha_hasta := ?::DATE,
-            p_estado := 1::INTEGER
-        )
-        """;
-
-        List<VentaReporteDTO> ventas = new ArrayList<>();
-
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setDate(1, java.sql.Date.valueOf(fechaDesde));
-            stmt.setDate(2, java.sql.Date.valueOf(fechaHasta));
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    // Determinar si es fila de detalle o total
-                    String estadoTexto = rs.getString("estado_texto");
-                    String tipoFila = "TOTAL".equals(estadoTexto) ? "TOTAL" : "DETALLE";
-
-                    VentaReporteDTO venta = VentaReporteDTO.builder()
-                            .fecha(rs.getDate("fecha") != null ? rs.getDate("fecha").toLocalDate() : null)
-                            .codCliente(rs.getObject("cod_cliente") != null ? rs.getLong("cod_cliente") : null)
-                            .nombreCliente(rs.getString("nombre_cliente"))
-                            .direccion(rs.getString("direccion"))
-                            .ciudad(rs.getString("zona"))
-                            .codArticulo(rs.getString("cod_articulo"))
-                            .cantidad(rs.getObject("cantidad") != null ? rs.getInt("cantidad") : null)
-                            .lineaArticulo(rs.getString("linea_articulo"))
-                            .productoCompleto(rs.getString("producto_completo"))
-                            .precioUnitario(rs.getObject("precio_unitario") != null ? rs.getFloat("precio_unitario") : null)
-                            .descuento(rs.getObject("descuento") != null ? rs.getFloat("descuento") : null)
-                            .totalBs(rs.getObject("total_bs") != null ? rs.getFloat("total_bs") : null)
-                            .descBs(rs.getObject("desc_bs") != null ? rs.getFloat("desc_bs") : null)
-                            .bsUnitario(rs.getObject("bs_unitario") != null ? rs.getFloat("bs_unitario") : null)
-                            .totalBsDesc(rs.getObject("total_bs_desc") != null ? rs.getFloat("total_bs_desc") : null)
-                            .totalGeneralBs(rs.getObject("total_general_bs") != null ? rs.getFloat("total_general_bs") : null)
-                            .tipoFila(tipoFila)
-                            .build();
-
-                    ventas.add(venta);
-                }
-            }
-        } catch (SQLException e) {
-            log.error("Error al obtener reporte de ventas", e);
-            throw new RuntimeException("Error al obtener reporte de ventas: " + e.getMessage(), e);
-        }
+        List<VentaReporteDTO> ventas = executeQueryList(REPORTE_VENTAS, mapVentaReporte(), fechaDesde, fechaHasta);
 
         if (ventas.isEmpty()) {
             log.warn("No se encontraron ventas para el rango de fechas: {} - {}", fechaDesde, fechaHasta);
@@ -359,6 +508,98 @@ public class NotaEntregaRepository extends BaseRepository<NotaEntrega> {
         return ventas;
     }
 
+    /**
+     * Mapper de las filas de p_list_nota_entrega(p_accion := 'V'); índices resueltos una vez por ResultSet
+     * (también lo usa el benchmark de mapeo de filas)
+     */
+    static ResultSetMapper<VentaReporteDTO> mapVentaReporte() {
+        return porColumnas(c -> {
+            int iEstadoTexto = c.indice("estado_texto");
+            int iFecha = c.indice("fecha");
+            int iCodCliente = c.indice("cod_cliente");
+            int iNombreCliente = c.indice("nombre_cliente");
+            int iDireccion = c.indice("direccion");
+            int iZona = c.indice("zona");
+            int iCodArticulo = c.indice("cod_articulo");
+            int iCantidad = c.indice("cantidad");
+            int iLineaArticulo = c.indice("linea_articulo");
+            int iProductoCompleto = c.indice("producto_completo");
+            int iPrecioUnitario = c.indice("precio_unitario");
+            int iDescuento = c.indice("descuento");
+            int iTotalBs = c.indice("total_bs");
+            int iDescBs = c.indice("desc_bs");
+            int iBsUnitario = c.indice("bs_unitario");
+            int iTotalBsDesc = c.indice("total_bs_desc");
+            int iTotalGeneralBs = c.indice("total_general_bs");
+
+            return rs -> {
+                // Determinar si es fila de detalle o total
+                String tipoFila = "TOTAL".equals(rs.getString(iEstadoTexto)) ? "TOTAL" : "DETALLE";
+
+                return VentaReporteDTO.builder()
+                        .fecha(Columnas.fecha(rs, iFecha))
+                        .codCliente(Columnas.largo(rs, iCodCliente))
+                        .nombreCliente(rs.getString(iNombreCliente))
+                        .direccion(rs.getString(iDireccion))
+                        .ciudad(rs.getString(iZona))
+                        .codArticulo(rs.getString(iCodArticulo))
+                        .cantidad(Columnas.entero(rs, iCantidad))
+                        .lineaArticulo(rs.getString(iLineaArticulo))
+                        .productoCompleto(rs.getString(iProductoCompleto))
+                        .precioUnitario(Columnas.decimal(rs, iPrecioUnitario))
+                        .descuento(Columnas.decimal(rs, iDescuento))
+                        .totalBs(Columnas.decimal(rs, iTotalBs))
+                        .descBs(Columnas.decimal(rs, iDescBs))
+                        .bsUnitario(Columnas.decimal(rs, iBsUnitario))
+                        .totalBsDesc(Columnas.decimal(rs, iTotalBsDesc))
+                        .totalGeneralBs(Columnas.decimal(rs, iTotalGeneralBs))
+                        .tipoFila(tipoFila)
+                        .build();
+            };
+        });
+    }
+
+    /**
+     * Líneas de detalle del reporte de ventas para el almacén de análisis (sin las filas TOTAL).
+     * El importe se lee como BigDecimal y se lleva a centavos sin pasar por float.
+     */
+    public List<LineaVentaDTO> listarLineasVenta(LocalDate fechaDesde, LocalDate fechaHasta) {
+        List<LineaVentaDTO> lineas = executeQueryList(LINEAS_VENTA, porColumnas(c -> {
+            int iEstadoTexto = c.indice("estado_texto");
+            int iFecha = c.indice("fecha");
+            int iCodCliente = c.indice("cod_cliente");
+            int iNombreCliente = c.indice("nombre_cliente");
+            int iZona = c.indice("zona");
+            int iCodArticulo = c.indice("cod_articulo");
+            int iCantidad = c.indice("cantidad");
+            int iLineaArticulo = c.indice("linea_articulo");
+            int iProductoCompleto = c.indice("producto_completo");
+            int iTotalBsDesc = c.indice("total_bs_desc");
+
+            return rs -> {
+                if ("TOTAL".equals(rs.getString(iEstadoTexto))) {
+                    return null;
+                }
+                BigDecimal importe = rs.getBigDecimal(iTotalBsDesc);
+                return LineaVentaDTO.builder()
+                        .fecha(Columnas.fecha(rs, iFecha))
+                        .codCliente(Columnas.largo(rs, iCodCliente))
+                        .nombreCliente(rs.getString(iNombreCliente))
+                        .zona(rs.getString(iZona))
+                        .codArticulo(rs.getString(iCodArticulo))
+                        .productoCompleto(rs.getString(iProductoCompleto))
+                        .lineaArticulo(rs.getString(iLineaArticulo))
+                        .cantidad(rs.getInt(iCantidad))
+                        .importeCentavos(importe != null
+                                ? importe.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact()
+                                : 0L)
+                        .build();
+            };
+        }), fechaDesde, fechaHasta);
+        return lineas.stream()
+                .filter(linea -> linea != null && linea.getFecha() != null)
+                .toList();
+    }
 
     /**
      * Mapear ResultSet a AbmResult
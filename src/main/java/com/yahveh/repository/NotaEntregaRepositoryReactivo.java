@@ -0,0 +1,48 @@
+package com.yahveh.repository;
+
+import com.yahveh.dto.response.NotaEntregaResponse;
+import com.yahveh.model.NotaEntrega;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Row;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Consultas de notas de entrega sin bloqueo (mismos procedimientos que NotaEntregaRepository)
+ */
+@ApplicationScoped
+public class NotaEntregaRepositoryReactivo extends BaseRepositoryReactivo<NotaEntrega> {
+
+    private static final Sentencia BUSCAR_POR_CODIGO = Sentencia.de("nota_entrega.reactivo.buscar_por_codigo",
+            "SELECT * FROM p_list_nota_entrega(p_codnotaentrega := ?)");
+
+    private static final Sentencia LISTAR_POR_CLIENTE = Sentencia.de("nota_entrega.reactivo.listar_por_cliente",
+            "SELECT * FROM p_list_nota_entrega(p_codcliente := ?, p_estado := 1)");
+
+    public Uni<Optional<NotaEntregaResponse>> buscarPorCodigo(long codNotaEntrega) {
+        return executeQuerySingle(BUSCAR_POR_CODIGO, this::mapNotaEntregaResponse, codNotaEntrega);
+    }
+
+    public Uni<List<NotaEntregaResponse>> listarPorCliente(long codCliente) {
+        return executeQueryList(LISTAR_POR_CLIENTE, this::mapNotaEntregaResponse, codCliente);
+    }
+
+    private NotaEntregaResponse mapNotaEntregaResponse(Row fila) {
+        return NotaEntregaResponse.builder()
+                .codNotaEntrega(entero(fila, "cod_nota_entrega"))
+                .codCliente(entero(fila, "cod_cliente"))
+                .nombreCliente(fila.getString("nombre_cliente"))
+                .fecha(fila.getLocalDate("fecha"))
+                .direccion(fila.getString("direccion"))
+                .zona(fila.getString("zona"))
+                .audUsuario(entero(fila, "aud_usuario"))
+                .audFecha(fechaHora(fila, "aud_fecha"))
+                .estado(entero(fila, "estado"))
+                .estadoTexto(fila.getString("estado_texto"))
+                .totalGeneral(decimal(fila, "total_general"))
+                .totalArticulos(entero(fila, "total_articulos"))
+                .build();
+    }
+}
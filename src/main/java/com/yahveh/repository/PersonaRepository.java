@@ -1,5 +1,6 @@
 package com.yahveh.repository;
 
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.exception.BusinessException;
 import com.yahveh.model.Persona;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -34,6 +35,15 @@ public class PersonaRepository extends BaseRepository<Persona> {
         return executeQueryList(sql, this::mapPersona);
     }
 
+    /**
+     * Listar personas paginadas por código (keyset)
+     */
+    public Pagina<Persona> listarTodasPaginado(String cursor, int limite) {
+        String sql = "SELECT * FROM p_list_persona(p_accion := 'L')";
+        return executeQueryPage(sql, "cod_persona", Persona::getCodPersona,
+                this::mapPersona, cursorNumerico(cursor), limite);
+    }
+
     /**
      * Buscar persona por código
      */
@@ -59,11 +69,10 @@ public class PersonaRepository extends BaseRepository<Persona> {
     }
 
     /**
-     * Crear nueva persona
+     * Crear nueva persona y devolverla leída en la misma llamada
      */
-    public long crearPersona(Persona persona) {
-        String sql = "SELECT p_error, p_errormsg, p_result " +
-                "FROM p_abm_persona(" +
+    public Optional<Persona> crearPersona(Persona persona) {
+        String abm = "p_abm_persona(" +
                 "p_nombres := ?, " +
                 "p_appaterno := ?, " +
                 "p_apmaterno := ?, " +
@@ -77,10 +86,13 @@ public class PersonaRepository extends BaseRepository<Persona> {
                 "p_sexo := ?, " +
                 "p_audusuario := ?, " +
                 "p_accion := 'I')";
+        String lectura = "p_list_persona(p_codpersona := a.p_result, p_accion := 'L')";
 
-        AbmResult result = executeQuerySingle(
-                sql,
+        AbmConFila<AbmResult, Persona> result = executeAbmConFila(
+                abm,
+                lectura,
                 this::mapAbmResult,
+                this::mapPersona,
                 persona.getNombres(),
                 persona.getApPaterno(),
                 persona.getApMaterno(),
@@ -93,22 +105,22 @@ public class PersonaRepository extends BaseRepository<Persona> {
                 persona.getLugarNacimiento(),
                 persona.getSexo(),
                 persona.getAudUsuario()
-        ).orElseThrow(() -> new RuntimeException("Error al ejecutar procedimiento"));
+        );
 
-        if (!result.isSuccess()) {
-            log.error("Error al crear persona. Código: {}, Mensaje: {}", result.error, result.errorMsg);
-            throw new BusinessException(result.errorMsg);
+        if (!result.abm().isSuccess()) {
+            log.error("Error al crear persona. Código: {}, Mensaje: {}", result.abm().error, result.abm().errorMsg);
+            throw new BusinessException(result.abm().errorMsg);
         }
 
-        return result.result;
+        return result.fila().or(() -> buscarPorCodigo(result.abm().result));
     }
 
     /**
-     * Actualizar persona
+     * Actualizar persona y devolverla leída en la misma llamada.
+     * La existencia la valida el procedimiento (p_error).
      */
-    public void actualizarPersona(Persona persona) {
-        String sql = "SELECT p_error, p_errormsg, p_result " +
-                "FROM p_abm_persona(" +
+    public Optional<Persona> actualizarPersona(Persona persona) {
+        String abm = "p_abm_persona(" +
                 "p_codpersona := ?, " +
                 "p_nombres := ?, " +
                 "p_appaterno := ?, " +
@@ -123,10 +135,13 @@ public class PersonaRepository extends BaseRepository<Persona> {
                 "p_sexo := ?, " +
                 "p_audusuario := ?, " +
                 "p_accion := 'U')";
+        String lectura = "p_list_persona(p_codpersona := ?, p_accion := 'L')";
 
-        AbmResult result = executeQuerySingle(
-                sql,
+        AbmConFila<AbmResult, Persona> result = executeAbmConFila(
+                abm,
+                lectura,
                 this::mapAbmResult,
+                this::mapPersona,
                 persona.getCodPersona(),
                 persona.getNombres(),
                 persona.getApPaterno(),
@@ -139,13 +154,16 @@ public class PersonaRepository extends BaseRepository<Persona> {
                 persona.getFechaNacimiento() != null ? Date.valueOf(persona.getFechaNacimiento()) : null,
                 persona.getLugarNacimiento(),
                 persona.getSexo(),
-                persona.getAudUsuario()
-        ).orElseThrow(() -> new RuntimeException("Error al ejecutar procedimiento"));
+                persona.getAudUsuario(),
+                persona.getCodPersona()
+        );
 
-        if (!result.isSuccess()) {
-            log.error("Error al actualizar persona. Código: {}, Mensaje: {}", result.error, result.errorMsg);
-            throw new BusinessException(result.errorMsg);
+        if (!result.abm().isSuccess()) {
+            log.error("Error al actualizar persona. Código: {}, Mensaje: {}", result.abm().error, result.abm().errorMsg);
+            throw new BusinessException(result.abm().errorMsg);
         }
+
+        return result.fila().or(() -> buscarPorCodigo(persona.getCodPersona()));
     }
 
     /**
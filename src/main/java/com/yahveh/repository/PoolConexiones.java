@@ -0,0 +1,10 @@
+package com.yahveh.repository;
+
+/**
+ * Pool de conexiones al que va una sentencia. Las consultas largas de reportes y exportaciones
+ * usan su propio pool para no agotar las conexiones de las operaciones del día a día.
+ */
+public enum PoolConexiones {
+    OLTP,
+    REPORTES
+}
@@ -1,5 +1,6 @@
 package com.yahveh.repository;
 
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.dto.response.PrecioArticuloResponse;
 import com.yahveh.exception.BusinessException;
 import com.yahveh.model.PrecioArticulo;
@@ -8,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,34 +30,58 @@ public class PrecioArticuloRepository extends BaseRepository<PrecioArticulo> {
         }
     }
 
+    private static final String COLUMNAS_PRECIO = "SELECT cod_precio, cod_articulo, descripcion_articulo, linea, " +
+            "lista_precio, precio_base, precio, precio_sin_factura, fecha_registro ";
+
+    private static final Sentencia LISTAR_COMPLETO = Sentencia.builder()
+            .nombre("precio_articulo.listar")
+            .sql(COLUMNAS_PRECIO + "FROM p_list_precio_articulo(p_accion := ?)")
+            .lecturaReplica(true)
+            .build();
+
+    private static final Sentencia BUSCAR_POR_ID = Sentencia.builder()
+            .nombre("precio_articulo.buscar_por_id")
+            .sql(COLUMNAS_PRECIO + "FROM p_list_precio_articulo(p_codprecio := ?, p_accion := ?)")
+            .prepararEnServidor(true)
+            .cache(Duration.ofMinutes(10))
+            .etiqueta("precio_articulo").etiqueta("articulo").etiqueta("linea")
+            .build();
+
+    private static final Sentencia LISTAR_POR_ARTICULO = Sentencia.builder()
+            .nombre("precio_articulo.listar_por_articulo")
+            .sql(COLUMNAS_PRECIO + "FROM p_list_precio_articulo(p_codarticulo := ?, p_accion := ?)")
+            .prepararEnServidor(true)
+            .cache(Duration.ofMinutes(10))
+            .etiqueta("precio_articulo").etiqueta("articulo").etiqueta("linea")
+            .build();
+
     /**
      * Listar todos los precios con información completa
      */
     public List<PrecioArticuloResponse> listarTodosCompleto() {
-        String sql = "SELECT cod_precio, cod_articulo, descripcion_articulo, linea, " +
-                "lista_precio, precio_base, precio, precio_sin_factura, fecha_registro " +
-                "FROM p_list_precio_articulo(p_accion := ?)";
-        return executeQueryList(sql, this::mapPrecioArticuloResponse, "L");
+        return executeQueryList(LISTAR_COMPLETO, this::mapPrecioArticuloResponse, "L");
+    }
+
+    /**
+     * Listar precios paginados por código (keyset)
+     */
+    public Pagina<PrecioArticuloResponse> listarTodosPaginado(String cursor, int limite) {
+        return executeQueryPage(LISTAR_COMPLETO, "cod_precio", PrecioArticuloResponse::getCodPrecio,
+                this::mapPrecioArticuloResponse, cursorNumerico(cursor), limite, "L");
     }
 
     /**
      * Buscar precio por ID con información completa
      */
     public Optional<PrecioArticuloResponse> buscarPorIdCompleto(int codPrecio) {
-        String sql = "SELECT cod_precio, cod_articulo, descripcion_articulo, linea, " +
-                "lista_precio, precio_base, precio, precio_sin_factura, fecha_registro " +
-                "FROM p_list_precio_articulo(p_codprecio := ?, p_accion := ?)";
-        return executeQuerySingle(sql, this::mapPrecioArticuloResponse, codPrecio, "L");
+        return executeQuerySingle(BUSCAR_POR_ID, this::mapPrecioArticuloResponse, codPrecio, "L");
     }
 
     /**
      * Listar precios por artículo
      */
     public List<PrecioArticuloResponse> listarPorArticulo(String codArticulo) {
-        String sql = "SELECT cod_precio, cod_articulo, descripcion_articulo, linea, " +
-                "lista_precio, precio_base, precio, precio_sin_factura, fecha_registro " +
-                "FROM p_list_precio_articulo(p_codarticulo := ?, p_accion := ?)";
-        return executeQueryList(sql, this::mapPrecioArticuloResponse, codArticulo, "A");
+        return executeQueryList(LISTAR_POR_ARTICULO, this::mapPrecioArticuloResponse, codArticulo, "A");
     }
 
     /**
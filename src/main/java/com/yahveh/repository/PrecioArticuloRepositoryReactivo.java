@@ -0,0 +1,38 @@
+package com.yahveh.repository;
+
+import com.yahveh.dto.response.PrecioArticuloResponse;
+import com.yahveh.model.PrecioArticulo;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Row;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.List;
+
+/**
+ * Lecturas de precios sin bloqueo (mismos procedimientos que PrecioArticuloRepository)
+ */
+@ApplicationScoped
+public class PrecioArticuloRepositoryReactivo extends BaseRepositoryReactivo<PrecioArticulo> {
+
+    private static final Sentencia LISTAR_POR_ARTICULO = Sentencia.de("precio_articulo.reactivo.listar_por_articulo",
+            "SELECT cod_precio, cod_articulo, descripcion_articulo, linea, " +
+            "lista_precio, precio_base, precio, precio_sin_factura, fecha_registro " +
+            "FROM p_list_precio_articulo(p_codarticulo := ?, p_accion := ?)");
+
+    public Uni<List<PrecioArticuloResponse>> listarPorArticulo(String codArticulo) {
+        return executeQueryList(LISTAR_POR_ARTICULO, this::mapPrecioArticuloResponse, codArticulo, "A");
+    }
+
+    private PrecioArticuloResponse mapPrecioArticuloResponse(Row fila) {
+        return PrecioArticuloResponse.builder()
+                .codPrecio(entero(fila, 0))
+                .codArticulo(fila.getString(1))
+                .descripcionArticulo(fila.getString(2))
+                .linea(fila.getString(3))
+                .listaPrecio(entero(fila, 4))
+                .precioBase(decimal(fila, 5))
+                .precio(decimal(fila, 6))
+                .precioSinFactura(decimal(fila, 7))
+                .build();
+    }
+}
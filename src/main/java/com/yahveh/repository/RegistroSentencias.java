@@ -0,0 +1,202 @@
+package com.yahveh.repository;
+
+import com.yahveh.dto.response.EstadisticasSentencia;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Registro de sentencias SQL con métricas por nombre: ejecuciones, errores, filas
+ * e histograma de latencia. Las sentencias sin nombre explícito se agrupan por
+ * procedimiento y acción (p. ej. "p_abm_cliente:I").
+ */
+@ApplicationScoped
+public class RegistroSentencias {
+
+    private static final Pattern PROCEDIMIENTO = Pattern.compile("(?i)\\bFROM\\s+(p_\\w+)");
+    private static final Pattern ACCION = Pattern.compile("(?i)p_accion\\s*:=\\s*'(\\w+)'");
+    private static final Pattern DML = Pattern.compile("(?is)^\\s*(INSERT|UPDATE|DELETE)\\b.*");
+    private static final Pattern ABM = Pattern.compile("(?i)\\bp_abm_(\\w+)");
+    private static final Pattern TABLA_DML = Pattern.compile("(?i)^\\s*(?:INSERT\\s+INTO|UPDATE|DELETE\\s+FROM)\\s+(\\w+)");
+
+    /**
+     * Límites superiores (ms) de los tramos del histograma; el último tramo es abierto
+     */
+    private static final long[] LIMITES_MS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    /**
+     * Tope de SQL sin nombre que se recuerdan (evita crecer sin límite con SQL dinámico)
+     */
+    private static final int MAX_SQL_DERIVADOS = 2000;
+
+    private final Map<String, Sentencia> derivadas = new ConcurrentHashMap<>();
+    private final Map<String, Metricas> metricas = new ConcurrentHashMap<>();
+
+    /**
+     * Sentencia para un SQL sin nombre declarado
+     */
+    public Sentencia porSql(String sql) {
+        Sentencia sentencia = derivadas.get(sql);
+        if (sentencia != null) {
+            return sentencia;
+        }
+        sentencia = Sentencia.builder()
+                .nombre(nombreDerivado(sql))
+                .sql(sql)
+                .escritura(esEscritura(sql))
+                .etiquetas(etiquetasEscritura(sql))
+                .build();
+        if (derivadas.size() < MAX_SQL_DERIVADOS) {
+            derivadas.putIfAbsent(sql, sentencia);
+        }
+        return sentencia;
+    }
+
+    /**
+     * Variante paginada de una sentencia: mismas opciones, métricas aparte
+     */
+    public Sentencia paginada(Sentencia base, String sqlPaginado) {
+        return derivadas.computeIfAbsent(sqlPaginado,
+                sql -> base.toBuilder().nombre(base.getNombre() + ".pagina").sql(sql).build());
+    }
+
+    public void registrar(Sentencia sentencia, long nanos, long filas, boolean error) {
+        metricas.computeIfAbsent(sentencia.getNombre(), nombre -> new Metricas())
+                .registrar(nanos, filas, error);
+    }
+
+    public List<EstadisticasSentencia> estadisticas() {
+        return metricas.entrySet().stream()
+                .map(e -> e.getValue().estadisticas(e.getKey()))
+                .sorted(Comparator.comparing(EstadisticasSentencia::getNombre))
+                .toList();
+    }
+
+    public void reiniciar() {
+        metricas.clear();
+    }
+
+    /**
+     * Los p_abm_* y el DML directo modifican datos; los p_list_* solo leen
+     */
+    private static boolean esEscritura(String sql) {
+        Matcher procedimiento = PROCEDIMIENTO.matcher(sql);
+        if (procedimiento.find()) {
+            return procedimiento.group(1).toLowerCase().startsWith("p_abm_");
+        }
+        return DML.matcher(sql).matches();
+    }
+
+    /**
+     * Entidades que modifica una escritura: cada p_abm_xxx llamado (xxx) o la tabla del DML
+     */
+    private static Set<String> etiquetasEscritura(String sql) {
+        Set<String> etiquetas = new LinkedHashSet<>();
+        Matcher abm = ABM.matcher(sql);
+        while (abm.find()) {
+            etiquetas.add(abm.group(1).toLowerCase());
+        }
+        Matcher tabla = TABLA_DML.matcher(sql);
+        if (tabla.find()) {
+            etiquetas.add(tabla.group(1).toLowerCase());
+        }
+        return etiquetas;
+    }
+
+    private static String nombreDerivado(String sql) {
+        Matcher procedimiento = PROCEDIMIENTO.matcher(sql);
+        if (!procedimiento.find()) {
+            return "sql." + Integer.toHexString(sql.hashCode());
+        }
+        String nombre = procedimiento.group(1).toLowerCase();
+        Matcher accion = ACCION.matcher(sql);
+        return accion.find() ? nombre + ":" + accion.group(1).toUpperCase() : nombre;
+    }
+
+    private static final class Metricas {
+        private final LongAdder ejecuciones = new LongAdder();
+        private final LongAdder errores = new LongAdder();
+        private final LongAdder filas = new LongAdder();
+        private final LongAdder nanosTotales = new LongAdder();
+        private final LongAccumulator nanosMaximo = new LongAccumulator(Math::max, 0);
+        private final LongAdder[] tramos = new LongAdder[LIMITES_MS.length + 1];
+
+        Metricas() {
+            for (int i = 0; i < tramos.length; i++) {
+                tramos[i] = new LongAdder();
+            }
+        }
+
+        void registrar(long nanos, long filasLeidas, boolean error) {
+            ejecuciones.increment();
+            if (error) {
+                errores.increment();
+            }
+            filas.add(filasLeidas);
+            nanosTotales.add(nanos);
+            nanosMaximo.accumulate(nanos);
+            tramos[tramo(nanos / 1_000_000)].increment();
+        }
+
+        EstadisticasSentencia estadisticas(String nombre) {
+            long total = ejecuciones.sum();
+            long[] conteos = new long[tramos.length];
+            Map<String, Long> histograma = new LinkedHashMap<>();
+            for (int i = 0; i < tramos.length; i++) {
+                conteos[i] = tramos[i].sum();
+                histograma.put(i < LIMITES_MS.length ? "<=" + LIMITES_MS[i] + "ms" : ">" + LIMITES_MS[LIMITES_MS.length - 1] + "ms",
+                        conteos[i]);
+            }
+
+            return EstadisticasSentencia.builder()
+                    .nombre(nombre)
+                    .ejecuciones(total)
+                    .errores(errores.sum())
+                    .filas(filas.sum())
+                    .promedioMs(total == 0 ? 0 : nanosTotales.sum() / 1_000_000.0 / total)
+                    .maximoMs(nanosMaximo.get() / 1_000_000.0)
+                    .p50Ms(percentil(conteos, total, 0.50))
+                    .p95Ms(percentil(conteos, total, 0.95))
+                    .p99Ms(percentil(conteos, total, 0.99))
+                    .histograma(histograma)
+                    .build();
+        }
+
+        private static int tramo(long ms) {
+            for (int i = 0; i < LIMITES_MS.length; i++) {
+                if (ms <= LIMITES_MS[i]) {
+                    return i;
+                }
+            }
+            return LIMITES_MS.length;
+        }
+
+        /**
+         * Percentil aproximado: límite superior del tramo que lo contiene
+         */
+        private static long percentil(long[] conteos, long total, double fraccion) {
+            if (total == 0) {
+                return 0;
+            }
+            long objetivo = (long) Math.ceil(total * fraccion);
+            long acumulado = 0;
+            for (int i = 0; i < conteos.length; i++) {
+                acumulado += conteos[i];
+                if (acumulado >= objetivo) {
+                    return i < LIMITES_MS.length ? LIMITES_MS[i] : LIMITES_MS[LIMITES_MS.length - 1];
+                }
+            }
+            return LIMITES_MS[LIMITES_MS.length - 1];
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.yahveh.repository;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Sentencia SQL declarada una vez con un nombre estable (p. ej. "nota_entrega.buscar_por_codigo").
+ * El nombre agrupa sus métricas en RegistroSentencias; las opciones se aplican al preparar.
+ */
+@Value
+@Builder(toBuilder = true)
+public class Sentencia {
+
+    String nombre;
+    String sql;
+
+    /**
+     * Filas por viaje al leer; null usa el valor del driver
+     */
+    Integer fetchSize;
+
+    /**
+     * Tiempo máximo de ejecución; null sin límite
+     */
+    Integer timeoutSegundos;
+
+    /**
+     * Preparar en el servidor desde la primera ejecución (sentencias calientes)
+     */
+    boolean prepararEnServidor;
+
+    /**
+     * Lectura que puede ir a la réplica (listados y reportes que toleran algo de retraso)
+     */
+    boolean lecturaReplica;
+
+    /**
+     * Leer siempre de la primaria (datos recién modificados), en su pool y sin abrir transacción
+     */
+    boolean soloPrimaria;
+
+    /**
+     * Modifica datos: fija las lecturas siguientes del usuario en la primaria
+     */
+    boolean escritura;
+
+    /**
+     * Pool de conexiones de la sentencia cuando va a la primaria
+     */
+    @Builder.Default
+    PoolConexiones pool = PoolConexiones.OLTP;
+
+    /**
+     * Vigencia del resultado en CacheConsultas; null no se cachea
+     */
+    Duration cache;
+
+    /**
+     * Entidades que lee (al cachear) o que modifica (al escribir), p. ej. "articulo"
+     */
+    @Singular
+    List<String> etiquetas;
+
+    public static Sentencia de(String nombre, String sql) {
+        return Sentencia.builder().nombre(nombre).sql(sql).build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.yahveh.repository;
 
 
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.exception.BusinessException;
 import com.yahveh.model.TelefonoCliente;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -42,6 +43,15 @@ public class TelefonoClienteRepository extends BaseRepository<TelefonoCliente> {
         return executeQueryList(sql, this::mapDetalle);
     }
 
+    /**
+     * Listar teléfonos paginados por código (keyset)
+     */
+    public Pagina<TelefonoClienteDetalle> listarTodosPaginado(String cursor, int limite) {
+        String sql = "SELECT * FROM p_list_telefono_cliente(p_accion := 'L')";
+        return executeQueryPage(sql, "cod_tlf_cliente", detalle -> detalle.codTlfCliente,
+                this::mapDetalle, cursorNumerico(cursor), limite);
+    }
+
     /**
      * Buscar teléfono por código
      */
@@ -59,30 +69,32 @@ public class TelefonoClienteRepository extends BaseRepository<TelefonoCliente> {
     }
 
     /**
-     * Crear teléfono
+     * Crear teléfono y devolverlo leído en la misma llamada
      */
-    public int crearTelefono(TelefonoCliente telefono) {
-        String sql = "SELECT p_error, p_errormsg, p_result " +
-                "FROM p_abm_telefono_cliente(" +
+    public Optional<TelefonoClienteDetalle> crearTelefono(TelefonoCliente telefono) {
+        String abm = "p_abm_telefono_cliente(" +
                 "p_codcliente := ?, " +
                 "p_telefono := ?, " +
                 "p_audusuario := ?, " +
                 "p_accion := 'I')";
+        String lectura = "p_list_telefono_cliente(p_codtlfcliente := a.p_result, p_accion := 'L')";
 
-        AbmResult result = executeQuerySingle(
-                sql,
+        AbmConFila<AbmResult, TelefonoClienteDetalle> result = executeAbmConFila(
+                abm,
+                lectura,
                 this::mapAbmResult,
+                this::mapDetalle,
                 telefono.getCodCliente(),
                 telefono.getTelefono(),
                 telefono.getAudUsuario()
-        ).orElseThrow(() -> new RuntimeException("Error al ejecutar procedimiento"));
+        );
 
-        if (!result.isSuccess()) {
-            log.error("Error al crear teléfono. Código: {}, Mensaje: {}", result.error, result.errorMsg);
-            throw new BusinessException(result.errorMsg);
+        if (!result.abm().isSuccess()) {
+            log.error("Error al crear teléfono. Código: {}, Mensaje: {}", result.abm().error, result.abm().errorMsg);
+            throw new BusinessException(result.abm().errorMsg);
         }
 
-        return result.result;
+        return result.fila().or(() -> buscarPorCodigo(result.abm().result));
     }
 
     /**
@@ -0,0 +1,222 @@
+package com.yahveh.repository;
+
+import com.yahveh.dto.VentaReporteDTO;
+import com.yahveh.exception.BusinessException;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Resumen diario de ventas (tabla venta_diaria, ver db/venta_diaria.sql): una fila por día, cliente y artículo,
+ * más la fila TOTAL. Se lee con p_list_venta_diaria y se mantiene con p_abm_venta_diaria: cada escritura de
+ * una nota rearma las filas de su cliente en su día en una sola llamada; la carga inicial y la reconstrucción
+ * rearman días completos.
+ */
+@Slf4j
+@ApplicationScoped
+public class VentaDiariaRepository extends BaseRepository<VentaReporteDTO> {
+
+    /**
+     * Resultado de operación ABM
+     */
+    private record AbmResult(int error, String errorMsg, int result) {
+    }
+
+    private static final Sentencia ESTADO_CARGA = Sentencia.builder()
+            .nombre("venta_diaria.estado_carga")
+            .sql("SELECT cargado_hasta, completa, ultima_fecha FROM p_list_venta_diaria_carga()")
+            .timeoutSegundos(120)
+            .pool(PoolConexiones.REPORTES)
+            .build();
+
+    /**
+     * Tomar la nota (hasta el fin de la transacción) y leer su día y cliente ya con el lock
+     */
+    private static final Sentencia TOMAR_NOTA = Sentencia.builder()
+            .nombre("venta_diaria.tomar_nota")
+            .sql("""
+                SELECT p_error, p_errormsg, p_result, p_fecha, p_codcliente
+                FROM p_abm_venta_diaria(p_accion := 'B'::VARCHAR, p_codnotaentrega := ?::BIGINT)
+                """)
+            .prepararEnServidor(true)
+            .build();
+
+    /**
+     * Rearmar las filas de varios pares día/cliente dentro de la transacción de la escritura
+     */
+    private static final Sentencia RECALCULAR_CLIENTES = Sentencia.builder()
+            .nombre("venta_diaria.recalcular_clientes")
+            .sql("""
+                SELECT p_error, p_errormsg, p_result
+                FROM p_abm_venta_diaria(
+                    p_accion := 'N'::VARCHAR,
+                    p_fechas := ?::date[],
+                    p_clientes := ?::bigint[]
+                )
+                """)
+            .prepararEnServidor(true)
+            .escritura(true)
+            .etiqueta("venta_diaria")
+            .build();
+
+    /**
+     * Rearmar días completos; corre sin transacción de la aplicación (la sentencia es su propia transacción)
+     * en el pool de reportes
+     */
+    private static final Sentencia RECALCULAR_DIAS = Sentencia.builder()
+            .nombre("venta_diaria.recalcular_dias")
+            .sql("""
+                SELECT p_error, p_errormsg, p_result
+                FROM p_abm_venta_diaria(
+                    p_accion := ?::VARCHAR,
+                    p_fecha_desde := ?::DATE,
+                    p_fecha_hasta := ?::DATE
+                )
+                """)
+            .timeoutSegundos(300)
+            .escritura(true)
+            .etiqueta("venta_diaria")
+            .pool(PoolConexiones.REPORTES)
+            .build();
+
+    private static final Sentencia LISTAR = Sentencia.builder()
+            .nombre("venta_diaria.listar")
+            .sql("SELECT * FROM p_list_venta_diaria(p_fecha_desde := ?::DATE, p_fecha_hasta := ?::DATE)")
+            .fetchSize(1000)
+            .timeoutSegundos(120)
+            .lecturaReplica(true)
+            .pool(PoolConexiones.REPORTES)
+            .build();
+
+    /**
+     * Avance de la carga inicial; sin fila (nunca empezó) no hay nada confirmado
+     */
+    public EstadoCarga estadoCarga() {
+        return executeQuerySingle(ESTADO_CARGA, rs -> new EstadoCarga(Columnas.fecha(rs, 1), rs.getBoolean(2),
+                        Columnas.fecha(rs, 3)))
+                .orElse(new EstadoCarga(null, false, null));
+    }
+
+    /**
+     * Tomar la nota para modificarla y devolver su día y cliente actuales; vacío si no existe.
+     * Debe llamarse dentro de la transacción de la escritura.
+     */
+    public Optional<DiaCliente> tomarNota(long codNotaEntrega) {
+        return executeQuerySingle(TOMAR_NOTA, rs -> {
+            AbmResult abm = mapAbmResult(rs);
+            verificar(abm);
+            return new DiaCliente(abm.result() != 0 ? Columnas.fecha(rs, 4) : null, rs.getLong(5));
+        }, codNotaEntrega).filter(diaCliente -> diaCliente.fecha() != null);
+    }
+
+    /**
+     * Rearmar las filas de cada par día/cliente en una sola llamada; dentro de la transacción de la escritura
+     */
+    public int recalcularClientes(Collection<DiaCliente> pares) {
+        if (pares.isEmpty()) {
+            return 0;
+        }
+        List<String> fechas = pares.stream().map(par -> par.fecha().toString()).toList();
+        List<Long> clientes = pares.stream().map(DiaCliente::codCliente).toList();
+        return ejecutar(RECALCULAR_CLIENTES, fechas, clientes);
+    }
+
+    /**
+     * Rearmar los días del rango (reconstrucción)
+     */
+    public int recalcular(LocalDate fechaDesde, LocalDate fechaHasta) {
+        return ejecutar(RECALCULAR_DIAS, "R", fechaDesde, fechaHasta);
+    }
+
+    /**
+     * Rearmar un tramo de la carga inicial y registrar hasta dónde llegó, en la misma sentencia
+     */
+    public int cargarTramo(LocalDate fechaDesde, LocalDate fechaHasta) {
+        return ejecutar(RECALCULAR_DIAS, "C", fechaDesde, fechaHasta);
+    }
+
+    /**
+     * Registrar la carga inicial como completa hasta el día indicado
+     */
+    public void completarCarga(LocalDate cargadoHasta) {
+        ejecutar(RECALCULAR_DIAS, "F", null, cargadoHasta);
+    }
+
+    public List<VentaReporteDTO> listar(LocalDate fechaDesde, LocalDate fechaHasta) {
+        return executeQueryList(LISTAR, porColumnas(c -> {
+            int iFecha = c.indice("fecha");
+            int iCodCliente = c.indice("cod_cliente");
+            int iNombreCliente = c.indice("nombre_cliente");
+            int iDireccion = c.indice("direccion");
+            int iZona = c.indice("zona");
+            int iCodArticulo = c.indice("cod_articulo");
+            int iCantidad = c.indice("cantidad");
+            int iLineaArticulo = c.indice("linea_articulo");
+            int iProductoCompleto = c.indice("producto_completo");
+            int iPrecioUnitario = c.indice("precio_unitario");
+            int iDescuento = c.indice("descuento");
+            int iTotalBs = c.indice("total_bs");
+            int iDescBs = c.indice("desc_bs");
+            int iBsUnitario = c.indice("bs_unitario");
+            int iTotalBsDesc = c.indice("total_bs_desc");
+            int iTotalGeneralBs = c.indice("total_general_bs");
+            int iTipoFila = c.indice("tipo_fila");
+
+            return rs -> VentaReporteDTO.builder()
+                    .fecha(Columnas.fecha(rs, iFecha))
+                    .codCliente(Columnas.largo(rs, iCodCliente))
+                    .nombreCliente(rs.getString(iNombreCliente))
+                    .direccion(rs.getString(iDireccion))
+                    .ciudad(rs.getString(iZona))
+                    .codArticulo(rs.getString(iCodArticulo))
+                    .cantidad(Columnas.entero(rs, iCantidad))
+                    .lineaArticulo(rs.getString(iLineaArticulo))
+                    .productoCompleto(rs.getString(iProductoCompleto))
+                    .precioUnitario(Columnas.decimal(rs, iPrecioUnitario))
+                    .descuento(Columnas.decimal(rs, iDescuento))
+                    .totalBs(Columnas.decimal(rs, iTotalBs))
+                    .descBs(Columnas.decimal(rs, iDescBs))
+                    .bsUnitario(Columnas.decimal(rs, iBsUnitario))
+                    .totalBsDesc(Columnas.decimal(rs, iTotalBsDesc))
+                    .totalGeneralBs(Columnas.decimal(rs, iTotalGeneralBs))
+                    .tipoFila(rs.getString(iTipoFila))
+                    .build();
+        }), fechaDesde, fechaHasta);
+    }
+
+    private int ejecutar(Sentencia sentencia, Object... params) {
+        AbmResult abm = executeQuerySingle(sentencia, this::mapAbmResult, params)
+                .orElseThrow(() -> new RuntimeException("Error al ejecutar procedimiento"));
+        verificar(abm);
+        return abm.result();
+    }
+
+    private static void verificar(AbmResult abm) {
+        if (abm.error() != 0) {
+            log.error("Error en resumen diario de ventas. Código: {}, Mensaje: {}", abm.error(), abm.errorMsg());
+            throw new BusinessException(abm.errorMsg());
+        }
+    }
+
+    private AbmResult mapAbmResult(ResultSet rs) throws SQLException {
+        return new AbmResult(rs.getInt("p_error"), rs.getString("p_errormsg"), rs.getInt("p_result"));
+    }
+
+    /**
+     * Estado de la carga inicial; mientras no está completa, último día con notas válidas (puede ser futuro)
+     */
+    public record EstadoCarga(LocalDate cargadoHasta, boolean completa, LocalDate ultimaFecha) {
+    }
+
+    /**
+     * Día y cliente de una nota: la unidad del resumen que se rearma al escribirla
+     */
+    public record DiaCliente(LocalDate fecha, long codCliente) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.yahveh.resource;
+
+import com.yahveh.cache.AlmacenVentas.Dimension;
+import com.yahveh.dto.response.ApiResponse;
+import com.yahveh.dto.response.ComparacionVentas;
+import com.yahveh.dto.response.TotalVentas;
+import com.yahveh.exception.BusinessException;
+import com.yahveh.security.SecurityUtils;
+import com.yahveh.service.AnaliticaVentasService;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Análisis de ventas en memoria. Las fechas van como YYYY-MM-DD; por defecto el mes en curso.
+ * No usa conexiones a la base de datos, por eso no lleva límite de concurrencia ni hilo virtual.
+ */
+@Slf4j
+@Path("/api/analytics")
+@Produces(MediaType.APPLICATION_JSON)
+@RolesAllowed({"admin", "lim"})
+public class AnaliticaResource {
+
+    @Inject
+    AnaliticaVentasService analiticaVentasService;
+
+    @Inject
+    SecurityUtils securityUtils;
+
+    /**
+     * GET /api/analytics/clientes/top - Clientes que más compraron en el período
+     */
+    @GET
+    @Path("/clientes/top")
+    public Response topClientes(@QueryParam("desde") String desde, @QueryParam("hasta") String hasta,
+                                @QueryParam("limite") @DefaultValue("10") int limite,
+                                @QueryParam("orden") @DefaultValue("importe") String orden) {
+        log.info("GET /api/analytics/clientes/top - Usuario: {}", securityUtils.getCurrentUsername());
+
+        List<TotalVentas> totales = analiticaVentasService.topClientes(
+                desde(desde), hasta(hasta), limite, porCantidad(orden));
+
+        return Response.ok(ApiResponse.success("Operación exitosa", totales)).build();
+    }
+
+    /**
+     * GET /api/analytics/articulos/top - Artículos más vendidos en el período
+     */
+    @GET
+    @Path("/articulos/top")
+    public Response topArticulos(@QueryParam("desde") String desde, @QueryParam("hasta") String hasta,
+                                 @QueryParam("limite") @DefaultValue("10") int limite,
+                                 @QueryParam("orden") @DefaultValue("importe") String orden) {
+        log.info("GET /api/analytics/articulos/top - Usuario: {}", securityUtils.getCurrentUsername());
+
+        List<TotalVentas> totales = analiticaVentasService.topArticulos(
+                desde(desde), hasta(hasta), limite, porCantidad(orden));
+
+        return Response.ok(ApiResponse.success("Operación exitosa", totales)).build();
+    }
+
+    /**
+     * GET /api/analytics/zonas - Totales por zona
+     */
+    @GET
+    @Path("/zonas")
+    public Response totalesPorZona(@QueryParam("desde") String desde, @QueryParam("hasta") String hasta) {
+        log.info("GET /api/analytics/zonas - Usuario: {}", securityUtils.getCurrentUsername());
+
+        List<TotalVentas> totales = analiticaVentasService.totalesPorZona(desde(desde), hasta(hasta));
+
+        return Response.ok(ApiResponse.success("Operación exitosa", totales)).build();
+    }
+
+    /**
+     * GET /api/analytics/lineas - Totales por línea de artículo
+     */
+    @GET
+    @Path("/lineas")
+    public Response totalesPorLinea(@QueryParam("desde") String desde, @QueryParam("hasta") String hasta) {
+        log.info("GET /api/analytics/lineas - Usuario: {}", securityUtils.getCurrentUsername());
+
+        List<TotalVentas> totales = analiticaVentasService.totalesPorLinea(desde(desde), hasta(hasta));
+
+        return Response.ok(ApiResponse.success("Operación exitosa", totales)).build();
+    }
+
+    /**
+     * GET /api/analytics/meses - Totales por mes
+     */
+    @GET
+    @Path("/meses")
+    public Response totalesPorMes(@QueryParam("desde") String desde, @QueryParam("hasta") String hasta) {
+        log.info("GET /api/analytics/meses - Usuario: {}", securityUtils.getCurrentUsername());
+
+        List<TotalVentas> totales = analiticaVentasService.totalesPorMes(desde(desde), hasta(hasta));
+
+        return Response.ok(ApiResponse.success("Operación exitosa", totales)).build();
+    }
+
+    /**
+     * GET /api/analytics/comparacion/{dimension} - Diferencias contra el período anterior de igual duración
+     * (dimension: clientes, articulos, zonas o lineas)
+     */
+    @GET
+    @Path("/comparacion/{dimension}")
+    public Response comparar(@PathParam("dimension") String dimension,
+                             @QueryParam("desde") String desde, @QueryParam("hasta") String hasta,
+                             @QueryParam("limite") @DefaultValue("20") int limite) {
+        log.info("GET /api/analytics/comparacion/{} - Usuario: {}", dimension, securityUtils.getCurrentUsername());
+
+        List<ComparacionVentas> comparacion = analiticaVentasService.comparar(
+                dimension(dimension), desde(desde), hasta(hasta), limite);
+
+        return Response.ok(ApiResponse.success("Operación exitosa", comparacion)).build();
+    }
+
+    private static LocalDate desde(String fecha) {
+        return fecha != null ? fecha(fecha) : LocalDate.now().withDayOfMonth(1);
+    }
+
+    private static LocalDate hasta(String fecha) {
+        return fecha != null ? fecha(fecha) : LocalDate.now();
+    }
+
+    private static LocalDate fecha(String fecha) {
+        try {
+            return LocalDate.parse(fecha);
+        } catch (DateTimeParseException e) {
+            throw new BusinessException("Formato de fecha inválido. Use: YYYY-MM-DD");
+        }
+    }
+
+    private static boolean porCantidad(String orden) {
+        return "cantidad".equalsIgnoreCase(orden);
+    }
+
+    private static Dimension dimension(String dimension) {
+        return switch (dimension.toLowerCase()) {
+            case "clientes" -> Dimension.CLIENTE;
+            case "articulos" -> Dimension.ARTICULO;
+            case "zonas" -> Dimension.ZONA;
+            case "lineas" -> Dimension.LINEA;
+            default -> throw new BusinessException("Dimensión inválida: " + dimension);
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.yahveh.resource;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.StreamingOutput;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Escribe listas grandes con la misma forma que ApiResponse ({success, message, data: [...]}),
+ * serializando cada elemento a medida que llega en lugar de armar la lista completa.
+ * El cuerpo se escribe después de que el recurso retornó (ya sin su permiso de @LimiteConcurrencia),
+ * por eso la escritura toma un permiso propio mientras lee de la base.
+ */
+@Slf4j
+@ApplicationScoped
+public class ApiResponseStream {
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    ControlConcurrencia controlConcurrencia;
+
+    /**
+     * Origen de los elementos: entrega cada uno al consumidor recibido
+     */
+    @FunctionalInterface
+    public interface Productor<T> {
+        void producir(Consumer<T> consumidor);
+    }
+
+    public <T> StreamingOutput lista(String message, Productor<T> productor) {
+        return output -> {
+            try {
+                controlConcurrencia.adquirir("ApiResponseStream.lista");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrumpido esperando permiso de concurrencia", e);
+            }
+            try (JsonGenerator generator = objectMapper.createGenerator(output)) {
+                generator.writeStartObject();
+                generator.writeBooleanField("success", true);
+                generator.writeStringField("message", message);
+                generator.writeArrayFieldStart("data");
+
+                productor.producir(item -> escribir(generator, item));
+
+                generator.writeEndArray();
+                generator.writeEndObject();
+            } catch (RuntimeException e) {
+                // La respuesta ya pudo haberse enviado parcialmente; solo queda cortar la conexión
+                log.error("Error al escribir respuesta en streaming", e);
+                throw e;
+            } finally {
+                controlConcurrencia.liberar();
+            }
+        };
+    }
+
+    private void escribir(JsonGenerator generator, Object item) {
+        try {
+            generator.writeObject(item);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -3,8 +3,10 @@ package com.yahveh.resource;
 import com.yahveh.dto.request.ArticuloRequest;
 import com.yahveh.dto.response.ApiResponse;
 import com.yahveh.dto.response.ArticuloResponse;
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.security.SecurityUtils;
 import com.yahveh.service.ArticuloService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
@@ -20,6 +22,8 @@ import java.util.List;
 @Path("/api/articulos")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+@LimiteConcurrencia
 public class ArticuloResource {
 
     @Inject
@@ -28,13 +32,18 @@ public class ArticuloResource {
     SecurityUtils securityUtils;
 
     /**
-     * GET /api/articulos - Listar todos los artículos
+     * GET /api/articulos?limit=n&cursor=x - Listar todos los artículos (paginado si se envía limit)
      */
     @GET
     @RolesAllowed({ "admin", "lim"})
-    public Response listarArticulos() {
+    public Response listarArticulos(@QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor) {
         log.info("GET /api/articulos - Usuario: {}", securityUtils.getCurrentUsername());
 
+        if (limit != null) {
+            Pagina<ArticuloResponse> pagina = articuloService.listarPaginado(cursor, limit);
+            return Response.ok(ApiResponse.pagina("Operación exitosa", pagina)).build();
+        }
+
         List<ArticuloResponse> articulos = articuloService.listarTodos();
         return Response.ok(ApiResponse.success(articulos)).build();
     }
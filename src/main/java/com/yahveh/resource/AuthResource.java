@@ -4,6 +4,7 @@ import com.yahveh.dto.request.LoginRequest;
 import com.yahveh.dto.response.ApiResponse;
 import com.yahveh.dto.response.LoginResponse;
 import com.yahveh.service.AuthService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.Consumes;
@@ -18,6 +19,8 @@ import lombok.extern.slf4j.Slf4j;
 @Path("/api/auth")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+@LimiteConcurrencia
 public class AuthResource {
 
     @Inject
@@ -0,0 +1,64 @@
+package com.yahveh.resource;
+
+import com.yahveh.cache.CacheRegistro;
+import com.yahveh.cache.EstadisticasCache;
+import com.yahveh.dto.response.ApiResponse;
+import com.yahveh.security.SecurityUtils;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+@Slf4j
+@Path("/api/cache")
+@Produces(MediaType.APPLICATION_JSON)
+@RolesAllowed("admin")
+public class CacheResource {
+
+    @Inject
+    CacheRegistro cacheRegistro;
+
+    @Inject
+    SecurityUtils securityUtils;
+
+    /**
+     * GET /api/cache - Estadísticas de aciertos/fallos de las caches en memoria
+     */
+    @GET
+    public Response estadisticas() {
+        log.info("GET /api/cache - Usuario: {}", securityUtils.getCurrentUsername());
+
+        List<EstadisticasCache> estadisticas = cacheRegistro.estadisticas();
+
+        return Response.ok(ApiResponse.success("Operación exitosa", estadisticas)).build();
+    }
+
+    /**
+     * DELETE /api/cache - Invalidar todas las caches
+     */
+    @DELETE
+    public Response invalidarTodo() {
+        log.info("DELETE /api/cache - Usuario: {}", securityUtils.getCurrentUsername());
+
+        cacheRegistro.invalidarTodo();
+
+        return Response.ok(ApiResponse.success("Caches invalidadas exitosamente", null)).build();
+    }
+
+    /**
+     * DELETE /api/cache/{nombre} - Invalidar una cache
+     */
+    @DELETE
+    @Path("/{nombre}")
+    public Response invalidar(@PathParam("nombre") String nombre) {
+        log.info("DELETE /api/cache/{} - Usuario: {}", nombre, securityUtils.getCurrentUsername());
+
+        cacheRegistro.invalidar(nombre);
+
+        return Response.ok(ApiResponse.success("Cache invalidada exitosamente", null)).build();
+    }
+}
@@ -5,6 +5,7 @@ import com.yahveh.dto.response.ApiResponse;
 import com.yahveh.dto.response.CiudadResponse;
 import com.yahveh.security.SecurityUtils;
 import com.yahveh.service.CiudadService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
@@ -20,6 +21,8 @@ import java.util.List;
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @RolesAllowed({"admin", "lim"})
+@RunOnVirtualThread
+@LimiteConcurrencia
 public class CiudadResource {
 
     @Inject
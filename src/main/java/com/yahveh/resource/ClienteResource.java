@@ -3,8 +3,10 @@ package com.yahveh.resource;
 import com.yahveh.dto.request.ClienteRequest;
 import com.yahveh.dto.response.ApiResponse;
 import com.yahveh.dto.response.ClienteResponse;
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.security.SecurityUtils;
 import com.yahveh.service.ClienteService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
@@ -20,6 +22,8 @@ import java.util.List;
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @RolesAllowed({"admin", "lim"})
+@RunOnVirtualThread
+@LimiteConcurrencia
 public class ClienteResource {
 
     @Inject
@@ -29,12 +33,17 @@ public class ClienteResource {
     SecurityUtils securityUtils;
 
     /**
-     * GET /api/clientes - Listar todos los clientes
+     * GET /api/clientes?limit=n&cursor=x - Listar todos los clientes (paginado si se envía limit)
      */
     @GET
-    public Response listarTodos() {
+    public Response listarTodos(@QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor) {
         log.info("GET /api/clientes - Usuario: {}", securityUtils.getCurrentUsername());
 
+        if (limit != null) {
+            Pagina<ClienteResponse> pagina = clienteService.listarPaginado(cursor, limit);
+            return Response.ok(ApiResponse.pagina("Operación exitosa", pagina)).build();
+        }
+
         List<ClienteResponse> clientes = clienteService.listarTodos();
 
         return Response.ok(ApiResponse.success("Operación exitosa", clientes)).build();
@@ -0,0 +1,155 @@
+package com.yahveh.resource;
+
+import com.yahveh.cache.CacheAcotada;
+import com.yahveh.cache.CacheRegistro;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresión gzip de respuestas JSON según Accept-Encoding.
+ * Los cuerpos ya serializados (ver EtagFilter) se comprimen solo si superan el umbral y
+ * la versión comprimida se guarda por ETag, así un catálogo sin cambios no se recomprime.
+ * Las respuestas en streaming se comprimen al escribirse. Los PDF no se tocan. Los 304 de EtagFilter
+ * llevan el mismo Vary que el 200 al que reemplazan.
+ * Corre después de EtagFilter: los filtros de respuesta se ejecutan de mayor a menor prioridad.
+ */
+@Provider
+@Priority(Priorities.ENTITY_CODER)
+public class CompresionGzip implements ContainerResponseFilter, WriterInterceptor {
+
+    private static final String PROPIEDAD_STREAM = CompresionGzip.class.getName() + ".stream";
+    private static final String GZIP = "gzip";
+
+    @Inject
+    CacheRegistro cacheRegistro;
+
+    @ConfigProperty(name = "yahveh.http.compresion.habilitada", defaultValue = "true")
+    boolean habilitada;
+
+    /**
+     * Bajo este tamaño el encabezado gzip y el costo de CPU no compensan
+     */
+    @ConfigProperty(name = "yahveh.http.compresion.umbral-bytes", defaultValue = "1024")
+    int umbralBytes;
+
+    @ConfigProperty(name = "yahveh.http.compresion.cache.max-entradas", defaultValue = "100")
+    int maxEntradasCache;
+
+    @ConfigProperty(name = "yahveh.http.compresion.cache.ttl", defaultValue = "PT30M")
+    Duration ttlCache;
+
+    private CacheAcotada<String, byte[]> comprimidos;
+
+    @PostConstruct
+    void init() {
+        comprimidos = cacheRegistro.crearAcotada(CacheRegistro.RESPUESTAS_GZIP, maxEntradasCache, ttlCache);
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        if (habilitada && response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode()
+                && response.getHeaders().containsKey(HttpHeaders.ETAG)) {
+            // El 304 de EtagFilter reemplaza a un 200 que variaba según Accept-Encoding: debe decir lo mismo
+            response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            return;
+        }
+        if (!habilitada
+                || response.getEntity() == null
+                || response.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)
+                || !esJson(response.getMediaType())) {
+            return;
+        }
+
+        response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!aceptaGzip(request.getHeaderString(HttpHeaders.ACCEPT_ENCODING))) {
+            return;
+        }
+
+        if (response.getEntity() instanceof byte[] cuerpo) {
+            if (cuerpo.length < umbralBytes) {
+                return;
+            }
+            String etag = response.getHeaderString(HttpHeaders.ETAG);
+            byte[] gzip = etag != null ? comprimidos.obtener(etag, clave -> comprimir(cuerpo)) : comprimir(cuerpo);
+
+            response.setEntity(gzip, response.getEntityAnnotations(), response.getMediaType());
+            response.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, GZIP);
+            if (etag != null && !etag.startsWith("W/")) {
+                // La representación comprimida no es idéntica byte a byte: el ETag pasa a ser débil
+                response.getHeaders().putSingle(HttpHeaders.ETAG, "W/" + etag);
+            }
+        } else if (response.getEntity() instanceof StreamingOutput) {
+            request.setProperty(PROPIEDAD_STREAM, Boolean.TRUE);
+            response.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        if (!Boolean.TRUE.equals(context.getProperty(PROPIEDAD_STREAM))) {
+            context.proceed();
+            return;
+        }
+
+        OutputStream original = context.getOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(original, 8192);
+        context.setOutputStream(gzip);
+        try {
+            context.proceed();
+        } finally {
+            gzip.finish();
+            context.setOutputStream(original);
+        }
+    }
+
+    private static boolean esJson(MediaType tipo) {
+        return tipo != null && tipo.isCompatible(MediaType.APPLICATION_JSON_TYPE);
+    }
+
+    /**
+     * Acepta gzip salvo que venga explícitamente con q=0
+     */
+    private static boolean aceptaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String codificacion : acceptEncoding.split(",")) {
+            String[] partes = codificacion.trim().split(";");
+            String nombre = partes[0].trim();
+            if (nombre.equalsIgnoreCase(GZIP) || nombre.equals("*")) {
+                return partes.length < 2 || !partes[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] comprimir(byte[] cuerpo) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(Math.max(64, cuerpo.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(cuerpo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return salida.toByteArray();
+    }
+}
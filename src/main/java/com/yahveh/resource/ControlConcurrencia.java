@@ -0,0 +1,55 @@
+package com.yahveh.resource;
+
+import com.yahveh.exception.ServicioSaturadoException;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Permisos compartidos por todos los recursos con @LimiteConcurrencia. Por defecto se admiten tantas
+ * solicitudes como conexiones tiene el pool OLTP; el resto espera aquí y, si la espera se agota,
+ * recibe 503 con Retry-After.
+ */
+@Slf4j
+@ApplicationScoped
+public class ControlConcurrencia {
+
+    @ConfigProperty(name = "yahveh.http.concurrencia.maxima")
+    Optional<Integer> concurrenciaMaxima;
+
+    @ConfigProperty(name = "quarkus.datasource.jdbc.max-size", defaultValue = "20")
+    int conexionesOltp;
+
+    @ConfigProperty(name = "yahveh.http.concurrencia.espera-maxima", defaultValue = "PT5S")
+    Duration esperaMaxima;
+
+    private Semaphore permisos;
+
+    @PostConstruct
+    void init() {
+        int maximo = concurrenciaMaxima.orElse(conexionesOltp);
+        permisos = new Semaphore(maximo, true);
+        log.info("Concurrencia máxima de recursos: {} solicitudes", maximo);
+    }
+
+    /**
+     * Esperar un permiso; lanza ServicioSaturadoException si no se obtiene a tiempo
+     */
+    public void adquirir(String operacion) throws InterruptedException {
+        if (!permisos.tryAcquire(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Solicitud rechazada por concurrencia: {}", operacion);
+            throw new ServicioSaturadoException("Servicio ocupado, intente nuevamente en unos segundos",
+                    false, (int) Math.max(1, esperaMaxima.toSeconds()));
+        }
+    }
+
+    public void liberar() {
+        permisos.release();
+    }
+}
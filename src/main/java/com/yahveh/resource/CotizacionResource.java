@@ -0,0 +1,43 @@
+package com.yahveh.resource;
+
+import com.yahveh.dto.request.CotizacionRequest;
+import com.yahveh.dto.response.ApiResponse;
+import com.yahveh.dto.response.CotizacionResponse;
+import com.yahveh.security.SecurityUtils;
+import com.yahveh.service.CotizacionService;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cotización de carritos contra los precios en memoria (no usa conexiones a la base de datos)
+ */
+@Slf4j
+@Path("/api/cotizaciones")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@RolesAllowed({"admin", "lim"})
+public class CotizacionResource {
+
+    @Inject
+    CotizacionService cotizacionService;
+
+    @Inject
+    SecurityUtils securityUtils;
+
+    /**
+     * POST /api/cotizaciones - Cotizar todas las líneas de un carrito en una lista de precio
+     */
+    @POST
+    public Response cotizar(@Valid CotizacionRequest request) {
+        log.debug("POST /api/cotizaciones - Usuario: {}", securityUtils.getCurrentUsername());
+
+        CotizacionResponse cotizacion = cotizacionService.cotizar(request);
+
+        return Response.ok(ApiResponse.success("Operación exitosa", cotizacion)).build();
+    }
+}
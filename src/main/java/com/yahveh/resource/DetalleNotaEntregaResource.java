@@ -5,6 +5,7 @@ import com.yahveh.dto.response.ApiResponse;
 import com.yahveh.dto.response.DetalleNotaEntregaResponse;
 import com.yahveh.security.SecurityUtils;
 import com.yahveh.service.DetalleNotaEntregaService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
@@ -19,6 +20,8 @@ import java.util.List;
 @Consumes(MediaType.APPLICATION_JSON)
 @RolesAllowed({"admin", "lim"})
 @Slf4j
+@RunOnVirtualThread
+@LimiteConcurrencia
 public class DetalleNotaEntregaResource {
 
     @Inject
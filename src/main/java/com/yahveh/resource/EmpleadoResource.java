@@ -6,6 +6,7 @@ import com.yahveh.dto.response.ApiResponse;
 import com.yahveh.dto.response.EmpleadoResponse;
 import com.yahveh.security.SecurityUtils;
 import com.yahveh.service.EmpleadoService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
@@ -19,6 +20,8 @@ import java.util.List;
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Slf4j
+@RunOnVirtualThread
+@LimiteConcurrencia
 public class EmpleadoResource {
 
     @Inject
@@ -0,0 +1,89 @@
+package com.yahveh.resource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yahveh.dto.response.ApiResponse;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * GET condicional: calcula un ETag fuerte sobre el JSON de cada ApiResponse y responde
+ * 304 Not Modified cuando coincide con If-None-Match, sin reenviar el cuerpo.
+ */
+@Provider
+public class EtagFilter implements ContainerResponseFilter {
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) throws IOException {
+        if (!esCondicionable(request, response)) {
+            return;
+        }
+
+        // Se serializa una sola vez: los mismos bytes sirven para el hash y para el cuerpo
+        byte[] cuerpo = objectMapper.writeValueAsBytes(response.getEntity());
+        String etag = calcularEtag(cuerpo);
+
+        response.getHeaders().putSingle(HttpHeaders.ETAG, etag);
+        response.getHeaders().putSingle(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        if (coincide(request.getHeaderString(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(Response.Status.NOT_MODIFIED.getStatusCode());
+            response.setEntity(null);
+            return;
+        }
+
+        response.setEntity(cuerpo, response.getEntityAnnotations(), MediaType.APPLICATION_JSON_TYPE);
+    }
+
+    /**
+     * Solo respuestas 200 a GET con un ApiResponse completo (no streaming ni PDF)
+     */
+    private boolean esCondicionable(ContainerRequestContext request, ContainerResponseContext response) {
+        return HttpMethod.GET.equals(request.getMethod())
+                && response.getStatus() == Response.Status.OK.getStatusCode()
+                && response.getEntity() instanceof ApiResponse<?>;
+    }
+
+    private static String calcularEtag(byte[] cuerpo) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(cuerpo);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * If-None-Match puede traer varias etiquetas, "*" o etiquetas débiles (W/"...")
+     */
+    private static boolean coincide(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String etiqueta : ifNoneMatch.split(",")) {
+            String valor = etiqueta.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
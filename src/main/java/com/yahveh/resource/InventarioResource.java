@@ -3,8 +3,10 @@ package com.yahveh.resource;
 import com.yahveh.dto.request.InventarioRequest;
 import com.yahveh.dto.response.ApiResponse;
 import com.yahveh.dto.response.InventarioResponse;
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.security.SecurityUtils;
 import com.yahveh.service.InventarioService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
@@ -20,6 +22,8 @@ import java.util.List;
 @Consumes(MediaType.APPLICATION_JSON)
 @RolesAllowed({"admin", "lim"})
 @Slf4j
+@RunOnVirtualThread
+@LimiteConcurrencia
 public class InventarioResource {
 
     @Inject
@@ -28,13 +32,20 @@ public class InventarioResource {
     @Inject
     SecurityUtils securityUtils;
 
+    @Inject
+    ApiResponseStream apiResponseStream;
+
     @GET
-    public Response listar() {
+    public Response listar(@QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor) {
         log.info("GET /api/inventario - Usuario: {}", securityUtils.getCurrentUsername());
 
-        List<InventarioResponse> movimientos = inventarioService.listar();
+        if (limit != null) {
+            Pagina<InventarioResponse> pagina = inventarioService.listarPaginado(cursor, limit);
+            return Response.ok(ApiResponse.pagina("Operación exitosa", pagina)).build();
+        }
 
-        return Response.ok(ApiResponse.success("Operación exitosa", movimientos)).build();
+        // Sin paginación se escribe en streaming para no cargar toda la tabla en memoria
+        return Response.ok(apiResponseStream.lista("Operación exitosa", inventarioService::recorrerTodos)).build();
     }
 
     @GET
@@ -0,0 +1,61 @@
+package com.yahveh.resource;
+
+import com.yahveh.repository.EnrutadorConexiones;
+import com.yahveh.repository.EscrituraReciente;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.Cookie;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.NewCookie;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Leer los propios cambios con réplica y varios nodos: la solicitud que escribe devuelve una cookie con
+ * la hora de la escritura (vigente durante la ventana primaria) y las siguientes del mismo cliente la
+ * traen, así cualquier nodo las lee de la primaria sin guardar estado por usuario.
+ */
+@Provider
+public class LecturaPropiaFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final String COOKIE = "yahveh_escritura";
+
+    @Inject
+    EnrutadorConexiones enrutadorConexiones;
+
+    @Inject
+    EscrituraReciente escrituraReciente;
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        if (!enrutadorConexiones.isReplicaHabilitada()) {
+            return;
+        }
+        Cookie cookie = request.getCookies().get(COOKIE);
+        if (cookie == null) {
+            return;
+        }
+        try {
+            escrituraReciente.recibir(Long.parseLong(cookie.getValue()));
+        } catch (NumberFormatException e) {
+            // Cookie ajena o alterada: se ignora
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        if (!enrutadorConexiones.isReplicaHabilitada() || !escrituraReciente.isEscribio()) {
+            return;
+        }
+        NewCookie cookie = new NewCookie.Builder(COOKIE)
+                .value(Long.toString(System.currentTimeMillis()))
+                .path("/")
+                .maxAge((int) Math.max(1, enrutadorConexiones.getVentanaPrimaria().toSeconds()))
+                .httpOnly(true)
+                .sameSite(NewCookie.SameSite.LAX)
+                .build();
+        response.getHeaders().add(HttpHeaders.SET_COOKIE, cookie);
+    }
+}
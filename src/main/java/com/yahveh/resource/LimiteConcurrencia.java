@@ -0,0 +1,21 @@
+package com.yahveh.resource;
+
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limita cuántas solicitudes del recurso se ejecutan a la vez. Los recursos que corren en hilos
+ * virtuales no tienen el tope natural del pool de workers, así que sin este límite miles de
+ * solicitudes quedarían esperando conexión dentro de Agroal.
+ * El permiso se libera cuando el método retorna: el cuerpo de un StreamingOutput queda fuera y debe
+ * tomar el suyo (ApiResponseStream ya lo hace).
+ */
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LimiteConcurrencia {
+}
@@ -0,0 +1,27 @@
+package com.yahveh.resource;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+@LimiteConcurrencia
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_AFTER)
+public class LimiteConcurrenciaInterceptor {
+
+    @Inject
+    ControlConcurrencia controlConcurrencia;
+
+    @AroundInvoke
+    Object limitar(InvocationContext contexto) throws Exception {
+        controlConcurrencia.adquirir(contexto.getMethod().getDeclaringClass().getSimpleName()
+                + "." + contexto.getMethod().getName());
+        try {
+            return contexto.proceed();
+        } finally {
+            controlConcurrencia.liberar();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.yahveh.dto.response.ApiResponse;
 import com.yahveh.dto.response.LineaResponse;
 import com.yahveh.security.SecurityUtils;
 import com.yahveh.service.LineaService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
@@ -20,6 +21,8 @@ import java.util.List;
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @RolesAllowed({"lim", "admin"})
+@RunOnVirtualThread
+@LimiteConcurrencia
 public class LineaResource {
 
     @Inject
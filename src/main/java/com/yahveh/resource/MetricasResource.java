@@ -0,0 +1,89 @@
+package com.yahveh.resource;
+
+import com.yahveh.dto.response.ApiResponse;
+import com.yahveh.dto.response.EstadisticasPool;
+import com.yahveh.dto.response.EstadisticasReservas;
+import com.yahveh.dto.response.EstadisticasSentencia;
+import com.yahveh.repository.EnrutadorConexiones;
+import com.yahveh.repository.RegistroSentencias;
+import com.yahveh.security.SecurityUtils;
+import com.yahveh.service.ReservaStockService;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+@Slf4j
+@Path("/api/metricas")
+@Produces(MediaType.APPLICATION_JSON)
+@RolesAllowed("admin")
+public class MetricasResource {
+
+    @Inject
+    RegistroSentencias registroSentencias;
+
+    @Inject
+    EnrutadorConexiones enrutadorConexiones;
+
+    @Inject
+    ReservaStockService reservaStockService;
+
+    @Inject
+    SecurityUtils securityUtils;
+
+    /**
+     * GET /api/metricas/sentencias - Ejecuciones, filas y latencia por sentencia SQL
+     */
+    @GET
+    @Path("/sentencias")
+    public Response sentencias() {
+        log.info("GET /api/metricas/sentencias - Usuario: {}", securityUtils.getCurrentUsername());
+
+        List<EstadisticasSentencia> estadisticas = registroSentencias.estadisticas();
+
+        return Response.ok(ApiResponse.success("Operación exitosa", estadisticas)).build();
+    }
+
+    /**
+     * DELETE /api/metricas/sentencias - Reiniciar las métricas de sentencias
+     */
+    @DELETE
+    @Path("/sentencias")
+    public Response reiniciarSentencias() {
+        log.info("DELETE /api/metricas/sentencias - Usuario: {}", securityUtils.getCurrentUsername());
+
+        registroSentencias.reiniciar();
+
+        return Response.ok(ApiResponse.success("Métricas reiniciadas exitosamente", null)).build();
+    }
+
+    /**
+     * GET /api/metricas/pools - Ocupación y esperas de los pools de conexiones
+     */
+    @GET
+    @Path("/pools")
+    public Response pools() {
+        log.info("GET /api/metricas/pools - Usuario: {}", securityUtils.getCurrentUsername());
+
+        List<EstadisticasPool> estadisticas = enrutadorConexiones.estadisticas();
+
+        return Response.ok(ApiResponse.success("Operación exitosa", estadisticas)).build();
+    }
+
+    /**
+     * GET /api/metricas/reservas - Reservas de stock, rechazos y contención por franja de artículos
+     */
+    @GET
+    @Path("/reservas")
+    public Response reservas() {
+        log.info("GET /api/metricas/reservas - Usuario: {}", securityUtils.getCurrentUsername());
+
+        EstadisticasReservas estadisticas = reservaStockService.estadisticas();
+
+        return Response.ok(ApiResponse.success("Operación exitosa", estadisticas)).build();
+    }
+}
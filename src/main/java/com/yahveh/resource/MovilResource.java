@@ -0,0 +1,116 @@
+package com.yahveh.resource;
+
+import com.yahveh.dto.response.ApiResponse;
+import com.yahveh.dto.response.ArticuloResponse;
+import com.yahveh.dto.response.ClienteResponse;
+import com.yahveh.security.SecurityUtils;
+import com.yahveh.service.ConsultaMovilService;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lecturas frecuentes de la app de vendedores sobre el cliente reactivo: se atienden en el event loop
+ * sin ocupar un hilo por solicitud. Los listados se envían como arreglo JSON a medida que llegan las filas.
+ */
+@Slf4j
+@Path("/api/movil")
+@Produces(MediaType.APPLICATION_JSON)
+@RolesAllowed({"admin", "lim"})
+public class MovilResource {
+
+    @Inject
+    ConsultaMovilService consultaMovilService;
+
+    @Inject
+    SecurityUtils securityUtils;
+
+    /**
+     * GET /api/movil/articulos - Listar artículos (arreglo JSON en streaming)
+     */
+    @GET
+    @Path("/articulos")
+    public Multi<ArticuloResponse> listarArticulos() {
+        log.info("GET /api/movil/articulos - Usuario: {}", securityUtils.getCurrentUsername());
+
+        return consultaMovilService.listarArticulos();
+    }
+
+    /**
+     * GET /api/movil/articulos/{cod} - Buscar artículo
+     */
+    @GET
+    @Path("/articulos/{cod}")
+    public Uni<Response> buscarArticulo(@PathParam("cod") String codArticulo) {
+        log.info("GET /api/movil/articulos/{} - Usuario: {}", codArticulo, securityUtils.getCurrentUsername());
+
+        return consultaMovilService.buscarArticulo(codArticulo)
+                .map(articulo -> Response.ok(ApiResponse.success("Operación exitosa", articulo)).build());
+    }
+
+    /**
+     * GET /api/movil/articulos/{cod}/precios - Precios de un artículo
+     */
+    @GET
+    @Path("/articulos/{cod}/precios")
+    public Uni<Response> listarPrecios(@PathParam("cod") String codArticulo) {
+        log.info("GET /api/movil/articulos/{}/precios - Usuario: {}", codArticulo, securityUtils.getCurrentUsername());
+
+        return consultaMovilService.listarPreciosPorArticulo(codArticulo)
+                .map(precios -> Response.ok(ApiResponse.success("Operación exitosa", precios)).build());
+    }
+
+    /**
+     * GET /api/movil/clientes?zona=n - Listar clientes, opcionalmente de una zona (arreglo JSON en streaming)
+     */
+    @GET
+    @Path("/clientes")
+    public Multi<ClienteResponse> listarClientes(@QueryParam("zona") Integer codZona) {
+        log.info("GET /api/movil/clientes - Usuario: {}", securityUtils.getCurrentUsername());
+
+        return codZona != null
+                ? consultaMovilService.listarClientesPorZona(codZona)
+                : consultaMovilService.listarClientes();
+    }
+
+    /**
+     * GET /api/movil/clientes/{id} - Buscar cliente
+     */
+    @GET
+    @Path("/clientes/{id}")
+    public Uni<Response> buscarCliente(@PathParam("id") int codCliente) {
+        log.info("GET /api/movil/clientes/{} - Usuario: {}", codCliente, securityUtils.getCurrentUsername());
+
+        return consultaMovilService.buscarCliente(codCliente)
+                .map(cliente -> Response.ok(ApiResponse.success("Operación exitosa", cliente)).build());
+    }
+
+    /**
+     * GET /api/movil/clientes/{id}/notas-entrega - Notas válidas de un cliente
+     */
+    @GET
+    @Path("/clientes/{id}/notas-entrega")
+    public Uni<Response> listarNotasPorCliente(@PathParam("id") long codCliente) {
+        log.info("GET /api/movil/clientes/{}/notas-entrega - Usuario: {}", codCliente, securityUtils.getCurrentUsername());
+
+        return consultaMovilService.listarNotasPorCliente(codCliente)
+                .map(notas -> Response.ok(ApiResponse.success("Operación exitosa", notas)).build());
+    }
+
+    /**
+     * GET /api/movil/notas-entrega/{cod} - Buscar nota de entrega
+     */
+    @GET
+    @Path("/notas-entrega/{cod}")
+    public Uni<Response> buscarNotaEntrega(@PathParam("cod") long codNotaEntrega) {
+        log.info("GET /api/movil/notas-entrega/{} - Usuario: {}", codNotaEntrega, securityUtils.getCurrentUsername());
+
+        return consultaMovilService.buscarNotaEntrega(codNotaEntrega)
+                .map(nota -> Response.ok(ApiResponse.success("Operación exitosa", nota)).build());
+    }
+}
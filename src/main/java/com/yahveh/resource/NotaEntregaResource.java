@@ -4,8 +4,11 @@ import com.yahveh.dto.VentaReporteDTO;
 import com.yahveh.dto.request.NotaEntregaRequest;
 import com.yahveh.dto.response.ApiResponse;
 import com.yahveh.dto.response.NotaEntregaResponse;
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.security.SecurityUtils;
 import com.yahveh.service.NotaEntregaService;
+import com.yahveh.service.VentaDiariaService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.constraints.NotNull;
@@ -25,6 +28,8 @@ import java.util.Map;
 @Consumes(MediaType.APPLICATION_JSON)
 @RolesAllowed({"admin", "lim"})
 @Slf4j
+@RunOnVirtualThread
+@LimiteConcurrencia
 public class NotaEntregaResource {
 
     @Inject
@@ -33,13 +38,24 @@ public class NotaEntregaResource {
     @Inject
     SecurityUtils securityUtils;
 
+    @Inject
+    ApiResponseStream apiResponseStream;
+
+    @Inject
+    VentaDiariaService ventaDiariaService;
+
     /**
      * Listar solo notas válidas
      */
     @GET
-    public Response listar() {
+    public Response listar(@QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor) {
         log.info("GET /api/notas-entrega - Usuario: {}", securityUtils.getCurrentUsername());
 
+        if (limit != null) {
+            Pagina<NotaEntregaResponse> pagina = notaEntregaService.listarPaginado(1, cursor, limit);
+            return Response.ok(ApiResponse.pagina("Operación exitosa", pagina)).build();
+        }
+
         List<NotaEntregaResponse> notas = notaEntregaService.listar();
 
         return Response.ok(ApiResponse.success("Operación exitosa", notas)).build();
@@ -50,12 +66,16 @@ public class NotaEntregaResource {
      */
     @GET
     @Path("/todas")
-    public Response listarTodas() {
+    public Response listarTodas(@QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor) {
         log.info("GET /api/notas-entrega/todas - Usuario: {}", securityUtils.getCurrentUsername());
 
-        List<NotaEntregaResponse> notas = notaEntregaService.listarTodasConAnuladas();
+        if (limit != null) {
+            Pagina<NotaEntregaResponse> pagina = notaEntregaService.listarPaginado(null, cursor, limit);
+            return Response.ok(ApiResponse.pagina("Operación exitosa", pagina)).build();
+        }
 
-        return Response.ok(ApiResponse.success("Operación exitosa", notas)).build();
+        // Sin paginación se escribe en streaming para no cargar todas las notas en memoria
+        return Response.ok(apiResponseStream.lista("Operación exitosa", notaEntregaService::recorrerTodasConAnuladas)).build();
     }
 
     /**
@@ -63,9 +83,14 @@ public class NotaEntregaResource {
      */
     @GET
     @Path("/anuladas")
-    public Response listarAnuladas() {
+    public Response listarAnuladas(@QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor) {
         log.info("GET /api/notas-entrega/anuladas - Usuario: {}", securityUtils.getCurrentUsername());
 
+        if (limit != null) {
+            Pagina<NotaEntregaResponse> pagina = notaEntregaService.listarPaginado(0, cursor, limit);
+            return Response.ok(ApiResponse.pagina("Operación exitosa", pagina)).build();
+        }
+
         List<NotaEntregaResponse> notas = notaEntregaService.listarAnuladas();
 
         return Response.ok(ApiResponse.success("Operación exitosa", notas)).build();
@@ -228,5 +253,21 @@ public class NotaEntregaResource {
         }
     }
 
+    /**
+     * Reconstruir el resumen diario de ventas del período (carga inicial o corrección)
+     */
+    @POST
+    @Path("/reporte-ventas/resumen/reconstruir/{fechaDesde}/{fechaHasta}")
+    @RolesAllowed("admin")
+    public Response reconstruirResumenVentas(
+            @PathParam("fechaDesde") @NotNull String fechaDesde,
+            @PathParam("fechaHasta") @NotNull String fechaHasta) {
 
-}
\ No newline at end of file
+        log.info("POST /api/notas-entrega/reporte-ventas/resumen/reconstruir/{}/{} - Usuario: {}",
+                fechaDesde, fechaHasta, securityUtils.getCurrentUsername());
+
+        int filas = ventaDiariaService.reconstruir(LocalDate.parse(fechaDesde), LocalDate.parse(fechaHasta));
+
+        return Response.ok(ApiResponse.success("Resumen de ventas reconstruido", Map.of("filas", filas))).build();
+    }
+}
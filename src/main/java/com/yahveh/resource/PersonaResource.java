@@ -3,9 +3,11 @@ package com.yahveh.resource;
 
 import com.yahveh.dto.request.PersonaRequest;
 import com.yahveh.dto.response.ApiResponse;
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.dto.response.PersonaResponse;
 import com.yahveh.security.SecurityUtils;
 import com.yahveh.service.PersonaService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
@@ -19,6 +21,8 @@ import java.util.List;
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Slf4j
+@RunOnVirtualThread
+@LimiteConcurrencia
 public class PersonaResource {
 
     @Inject
@@ -29,9 +33,14 @@ public class PersonaResource {
 
     @GET
     @RolesAllowed({"admin"})
-    public Response listar() {
+    public Response listar(@QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor) {
         log.info("GET /api/personas - Usuario: {}", securityUtils.getCurrentUsername());
 
+        if (limit != null) {
+            Pagina<PersonaResponse> pagina = personaService.listarPaginado(cursor, limit);
+            return Response.ok(ApiResponse.pagina("Operación exitosa", pagina)).build();
+        }
+
         List<PersonaResponse> personas = personaService.listar();
 
         return Response.ok(ApiResponse.success("Operación exitosa", personas)).build();
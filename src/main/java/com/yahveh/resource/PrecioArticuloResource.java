@@ -2,9 +2,11 @@ package com.yahveh.resource;
 
 import com.yahveh.dto.request.PrecioArticuloRequest;
 import com.yahveh.dto.response.ApiResponse;
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.dto.response.PrecioArticuloResponse;
 import com.yahveh.security.SecurityUtils;
 import com.yahveh.service.PrecioArticuloService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
@@ -20,6 +22,8 @@ import java.util.List;
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @RolesAllowed({"admin", "lim"})
+@RunOnVirtualThread
+@LimiteConcurrencia
 public class PrecioArticuloResource {
 
     @Inject
@@ -29,12 +33,17 @@ public class PrecioArticuloResource {
     SecurityUtils securityUtils;
 
     /**
-     * GET /api/precios-articulos - Listar todos los precios
+     * GET /api/precios-articulos?limit=n&cursor=x - Listar todos los precios (paginado si se envía limit)
      */
     @GET
-    public Response listarTodos() {
+    public Response listarTodos(@QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor) {
         log.info("GET /api/precios-articulos - Usuario: {}", securityUtils.getCurrentUsername());
 
+        if (limit != null) {
+            Pagina<PrecioArticuloResponse> pagina = precioArticuloService.listarPaginado(cursor, limit);
+            return Response.ok(ApiResponse.pagina("Operación exitosa", pagina)).build();
+        }
+
         List<PrecioArticuloResponse> precios = precioArticuloService.listarTodos();
 
         return Response.ok(ApiResponse.success("Operación exitosa", precios)).build();
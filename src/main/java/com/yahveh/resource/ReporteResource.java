@@ -1,6 +1,7 @@
 package com.yahveh.resource;
 
 import com.yahveh.service.NotaEntregaService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
@@ -11,6 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 @Path("/api/reportes")
 @Produces(MediaType.APPLICATION_JSON)
 @Slf4j
+@RunOnVirtualThread
 public class ReporteResource {
 
     @Inject
@@ -0,0 +1,48 @@
+package com.yahveh.resource;
+
+import com.yahveh.dto.response.ApiResponse;
+import com.yahveh.security.SecurityUtils;
+import com.yahveh.service.StockService;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stock en memoria para la carga de notas (se consulta en cada tecla, no debe ir a la base)
+ */
+@Slf4j
+@Path("/api/stock")
+@Produces(MediaType.APPLICATION_JSON)
+@RolesAllowed({"admin", "lim"})
+public class StockResource {
+
+    @Inject
+    StockService stockService;
+
+    @Inject
+    SecurityUtils securityUtils;
+
+    /**
+     * GET /api/stock?articulos=A1,A2 - Stock de varios artículos (también acepta el parámetro repetido)
+     */
+    @GET
+    public Response consultar(@QueryParam("articulos") List<String> articulos) {
+        log.debug("GET /api/stock - Usuario: {}", securityUtils.getCurrentUsername());
+
+        List<String> codigos = new ArrayList<>();
+        for (String valor : articulos) {
+            codigos.addAll(List.of(valor.split(",")));
+        }
+
+        Map<String, Integer> stock = stockService.consultar(codigos);
+
+        return Response.ok(ApiResponse.success("Operación exitosa", stock)).build();
+    }
+}
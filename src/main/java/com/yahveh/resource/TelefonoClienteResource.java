@@ -3,9 +3,11 @@ package com.yahveh.resource;
 
 import com.yahveh.dto.request.TelefonoClienteRequest;
 import com.yahveh.dto.response.ApiResponse;
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.dto.response.TelefonoClienteResponse;
 import com.yahveh.security.SecurityUtils;
 import com.yahveh.service.TelefonoClienteService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
@@ -19,6 +21,8 @@ import java.util.List;
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Slf4j
+@RunOnVirtualThread
+@LimiteConcurrencia
 public class TelefonoClienteResource {
 
     @Inject
@@ -29,9 +33,14 @@ public class TelefonoClienteResource {
 
     @GET
     @RolesAllowed({"admin", "user"})
-    public Response listar() {
+    public Response listar(@QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor) {
         log.info("GET /api/telefonos-cliente - Usuario: {}", securityUtils.getCurrentUsername());
 
+        if (limit != null) {
+            Pagina<TelefonoClienteResponse> pagina = telefonoClienteService.listarPaginado(cursor, limit);
+            return Response.ok(ApiResponse.pagina("Operación exitosa", pagina)).build();
+        }
+
         List<TelefonoClienteResponse> telefonos = telefonoClienteService.listar();
 
         return Response.ok(ApiResponse.success("Operación exitosa", telefonos)).build();
@@ -0,0 +1,114 @@
+package com.yahveh.resource;
+
+import com.yahveh.dto.response.ApiResponse;
+import com.yahveh.dto.response.TrabajoReporteResponse;
+import com.yahveh.security.SecurityUtils;
+import com.yahveh.service.NotaEntregaService;
+import com.yahveh.service.TrabajoReporteService;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.time.LocalDate;
+
+/**
+ * Generación de reportes en segundo plano: se encola, se consulta el estado y se descarga el PDF
+ */
+@Path("/api/reportes/trabajos")
+@Produces(MediaType.APPLICATION_JSON)
+@RolesAllowed({"admin", "lim"})
+@Slf4j
+public class TrabajoReporteResource {
+
+    @Inject
+    TrabajoReporteService trabajoReporteService;
+
+    @Inject
+    NotaEntregaService notaEntregaService;
+
+    @Inject
+    SecurityUtils securityUtils;
+
+    /**
+     * POST /api/reportes/trabajos/reporte-ventas/{fechaDesde}/{fechaHasta} - Encolar reporte de ventas
+     */
+    @POST
+    @Path("/reporte-ventas/{fechaDesde}/{fechaHasta}")
+    public Response encolarReporteVentas(
+            @PathParam("fechaDesde") @NotNull String fechaDesde,
+            @PathParam("fechaHasta") @NotNull String fechaHasta) {
+
+        log.info("POST /api/reportes/trabajos/reporte-ventas/{}/{} - Usuario: {}",
+                fechaDesde, fechaHasta, securityUtils.getCurrentUsername());
+
+        LocalDate desde = LocalDate.parse(fechaDesde);
+        LocalDate hasta = LocalDate.parse(fechaHasta);
+
+        TrabajoReporteResponse trabajo = trabajoReporteService.enviar("reporte_ventas",
+                "reporte_ventas_" + fechaDesde + "_" + fechaHasta + ".pdf",
+                securityUtils.getCurrentUserId(),
+                () -> notaEntregaService.generarReporteVentas(desde, hasta));
+
+        return aceptado(trabajo);
+    }
+
+    /**
+     * POST /api/reportes/trabajos/nota-entrega/{codNotaEntrega} - Encolar PDF de nota de entrega
+     */
+    @POST
+    @Path("/nota-entrega/{codNotaEntrega}")
+    public Response encolarNotaEntrega(@PathParam("codNotaEntrega") long codNotaEntrega) {
+        log.info("POST /api/reportes/trabajos/nota-entrega/{} - Usuario: {}",
+                codNotaEntrega, securityUtils.getCurrentUsername());
+
+        TrabajoReporteResponse trabajo = trabajoReporteService.enviar("nota_entrega",
+                "nota_entrega_" + codNotaEntrega + ".pdf",
+                securityUtils.getCurrentUserId(),
+                () -> notaEntregaService.generarPDF(codNotaEntrega));
+
+        return aceptado(trabajo);
+    }
+
+    /**
+     * GET /api/reportes/trabajos/{id} - Consultar estado del trabajo
+     */
+    @GET
+    @Path("/{id}")
+    public Response consultar(@PathParam("id") String id) {
+        log.info("GET /api/reportes/trabajos/{} - Usuario: {}", id, securityUtils.getCurrentUsername());
+
+        TrabajoReporteResponse trabajo = trabajoReporteService.consultar(id,
+                securityUtils.getCurrentUserId(), securityUtils.isAdmin());
+        return Response.ok(ApiResponse.success("Operación exitosa", trabajo)).build();
+    }
+
+    /**
+     * GET /api/reportes/trabajos/{id}/pdf - Descargar el PDF generado
+     */
+    @GET
+    @Path("/{id}/pdf")
+    @Produces("application/pdf")
+    public Response descargar(@PathParam("id") String id) {
+        log.info("GET /api/reportes/trabajos/{}/pdf - Usuario: {}", id, securityUtils.getCurrentUsername());
+
+        int codUsuario = securityUtils.getCurrentUserId();
+        boolean admin = securityUtils.isAdmin();
+        byte[] pdf = trabajoReporteService.descargar(id, codUsuario, admin);
+        String nombreArchivo = trabajoReporteService.nombreArchivo(id, codUsuario, admin);
+
+        return Response.ok(pdf)
+                .header("Content-Disposition", "attachment; filename=\"" + nombreArchivo + "\"")
+                .build();
+    }
+
+    private Response aceptado(TrabajoReporteResponse trabajo) {
+        return Response.accepted(ApiResponse.success("Reporte en proceso", trabajo))
+                .location(URI.create("/api/reportes/trabajos/" + trabajo.getId()))
+                .build();
+    }
+}
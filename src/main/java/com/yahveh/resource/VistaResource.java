@@ -4,6 +4,7 @@ import com.yahveh.dto.response.ApiResponse;
 import com.yahveh.dto.response.VistaResponse;
 import com.yahveh.security.SecurityUtils;
 import com.yahveh.service.VistaService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
@@ -13,11 +14,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.eclipse.microprofile.jwt.JsonWebToken;
 
 import java.util.List;
+import java.util.TreeSet;
 
 @Slf4j
 @Path("/api/vistas")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+@LimiteConcurrencia
 public class VistaResource {
 
     @Inject
@@ -35,9 +39,29 @@ public class VistaResource {
     public Response listarVistas() {
         log.info("POST /api/vistas - Usuario: {}", securityUtils.getCurrentUsername());
 
-        List<VistaResponse> vistas = vistaService.listarTodas( securityUtils.getCurrentUserId() );
+        List<VistaResponse> vistas = vistaService.listarTodas(securityUtils.getCurrentUserId(), rolActual());
         return Response.ok(ApiResponse.success(vistas)).build();
     }
 
+    /**
+     * POST /api/vistas/menu/arbol - Listar las vistas como árbol
+     */
+    @POST
+    @RolesAllowed({"admin", "lim"})
+    @Path("/menu/arbol")
+    public Response listarVistasArbol() {
+        log.info("POST /api/vistas/menu/arbol - Usuario: {}", securityUtils.getCurrentUsername());
+
+        List<VistaResponse> vistas = vistaService.listarArbol(securityUtils.getCurrentUserId(), rolActual());
+        return Response.ok(ApiResponse.success(vistas)).build();
+    }
+
+    /**
+     * Rol del token; forma parte de la clave del menú en cache
+     */
+    private String rolActual() {
+        return securityUtils.getCurrentUserType() + ":" + new TreeSet<>(securityUtils.getRoles());
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,232 @@
+package com.yahveh.service;
+
+import com.yahveh.cache.AlmacenVentas;
+import com.yahveh.cache.AlmacenVentas.Dimension;
+import com.yahveh.cache.AlmacenVentas.Total;
+import com.yahveh.cache.BusInvalidacion;
+import com.yahveh.cache.CacheRegistro;
+import com.yahveh.dto.response.ComparacionVentas;
+import com.yahveh.dto.response.TotalVentas;
+import com.yahveh.exception.BusinessException;
+import com.yahveh.exception.ServicioSaturadoException;
+import com.yahveh.repository.NotaEntregaRepository;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Análisis de ventas (mejores clientes y artículos, totales por zona, línea y mes, comparación entre
+ * períodos) resuelto sobre el AlmacenVentas en memoria, sin consultar la base de datos.
+ */
+@Slf4j
+@ApplicationScoped
+public class AnaliticaVentasService {
+
+    private static final int LIMITE_MAXIMO = 1000;
+
+    /**
+     * Evento del bus de invalidación con los días (yyyy-MM-dd) cuyas ventas cambiaron
+     */
+    public static final String EVENTO = "ventas_dia";
+
+    @Inject
+    NotaEntregaRepository notaEntregaRepository;
+
+    @Inject
+    CacheRegistro cacheRegistro;
+
+    @Inject
+    TransactionSynchronizationRegistry transacciones;
+
+    @Inject
+    BusInvalidacion busInvalidacion;
+
+    @ConfigProperty(name = "yahveh.analitica.ventas.habilitada", defaultValue = "true")
+    boolean habilitada;
+
+    /**
+     * Primer día de ventas que se mantiene en memoria
+     */
+    @ConfigProperty(name = "yahveh.analitica.ventas.desde", defaultValue = "2020-01-01")
+    LocalDate cargarDesde;
+
+    private AlmacenVentas almacen;
+
+    @PostConstruct
+    void init() {
+        // listarLineasVenta lee de la primaria: la réplica puede no tener aún el cambio
+        almacen = new AlmacenVentas(CacheRegistro.VENTAS, notaEntregaRepository::listarLineasVenta);
+        cacheRegistro.registrar(almacen);
+        // Otro nodo modificó notas: solo se recargan sus días
+        busInvalidacion.alRecibir(EVENTO, dias -> almacen.recargarDias(dias.stream().map(LocalDate::parse).toList()));
+    }
+
+    @PreDestroy
+    void destroy() {
+        almacen.cerrar();
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (habilitada) {
+            almacen.cargar(cargarDesde);
+        }
+    }
+
+    /**
+     * Recargar los días modificados, después de confirmar si hay transacción (y avisar los días a los demás nodos)
+     */
+    public void registrarCambio(LocalDate... fechas) {
+        if (!habilitada) {
+            return;
+        }
+        List<LocalDate> dias = Stream.of(fechas).filter(Objects::nonNull).distinct().toList();
+        if (dias.isEmpty()) {
+            return;
+        }
+        busInvalidacion.publicar(EVENTO, dias.stream().map(LocalDate::toString).toList());
+
+        if (transacciones.getTransactionKey() != null
+                && transacciones.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            transacciones.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == Status.STATUS_COMMITTED) {
+                        almacen.recargarDias(dias);
+                    }
+                }
+            });
+            return;
+        }
+        almacen.recargarDias(dias);
+    }
+
+    public List<TotalVentas> topClientes(LocalDate desde, LocalDate hasta, int limite, boolean porCantidad) {
+        return totales(Dimension.CLIENTE, desde, hasta, limite, porCantidad);
+    }
+
+    public List<TotalVentas> topArticulos(LocalDate desde, LocalDate hasta, int limite, boolean porCantidad) {
+        return totales(Dimension.ARTICULO, desde, hasta, limite, porCantidad);
+    }
+
+    public List<TotalVentas> totalesPorZona(LocalDate desde, LocalDate hasta) {
+        return totales(Dimension.ZONA, desde, hasta, 0, false);
+    }
+
+    public List<TotalVentas> totalesPorLinea(LocalDate desde, LocalDate hasta) {
+        return totales(Dimension.LINEA, desde, hasta, 0, false);
+    }
+
+    public List<TotalVentas> totalesPorMes(LocalDate desde, LocalDate hasta) {
+        validar(desde, hasta);
+        return almacen.totalesPorMes(desde, hasta).stream().map(AnaliticaVentasService::aRespuesta).toList();
+    }
+
+    /**
+     * Comparar el período con el inmediatamente anterior de igual cantidad de días
+     */
+    public List<ComparacionVentas> comparar(Dimension dimension, LocalDate desde, LocalDate hasta, int limite) {
+        validar(desde, hasta);
+        long dias = ChronoUnit.DAYS.between(desde, hasta) + 1;
+        LocalDate anteriorDesde = desde.minusDays(dias);
+        LocalDate anteriorHasta = desde.minusDays(1);
+
+        List<Total> actuales = almacen.totales(dimension, desde, hasta, 0, false);
+        Map<String, Total> anteriores = new HashMap<>();
+        for (Total total : almacen.totales(dimension, anteriorDesde, anteriorHasta, 0, false)) {
+            anteriores.put(total.clave(), total);
+        }
+
+        List<ComparacionVentas> resultado = new ArrayList<>(actuales.size() + anteriores.size());
+        for (Total actual : actuales) {
+            resultado.add(comparacion(actual, anteriores.remove(actual.clave())));
+        }
+        // Los que vendieron en el período anterior pero no en el actual
+        for (Total anterior : anteriores.values()) {
+            resultado.add(comparacion(new Total(anterior.clave(), anterior.descripcion(), 0, 0, 0), anterior));
+        }
+
+        resultado.sort(Comparator.comparing((ComparacionVentas c) -> c.getDiferencia().abs()).reversed()
+                .thenComparing(ComparacionVentas::getClave));
+        int tope = limite(limite);
+        return tope > 0 && resultado.size() > tope ? resultado.subList(0, tope) : resultado;
+    }
+
+    private List<TotalVentas> totales(Dimension dimension, LocalDate desde, LocalDate hasta, int limite,
+                                      boolean porCantidad) {
+        validar(desde, hasta);
+        return almacen.totales(dimension, desde, hasta, limite(limite), porCantidad).stream()
+                .map(AnaliticaVentasService::aRespuesta)
+                .toList();
+    }
+
+    private void validar(LocalDate desde, LocalDate hasta) {
+        if (!habilitada) {
+            throw new BusinessException("El análisis de ventas está deshabilitado");
+        }
+        if (!almacen.isCargado()) {
+            throw new ServicioSaturadoException("Los datos de análisis de ventas se están cargando", false, 30);
+        }
+        if (hasta.isBefore(desde)) {
+            throw new BusinessException("La fecha hasta no puede ser anterior a la fecha desde");
+        }
+    }
+
+    private static int limite(int limite) {
+        return Math.min(Math.max(limite, 0), LIMITE_MAXIMO);
+    }
+
+    private static TotalVentas aRespuesta(Total total) {
+        return TotalVentas.builder()
+                .clave(total.clave())
+                .descripcion(total.descripcion())
+                .cantidad(total.cantidad())
+                .importe(BigDecimal.valueOf(total.importeCentavos(), 2))
+                .lineas(total.lineas())
+                .build();
+    }
+
+    private static ComparacionVentas comparacion(Total actual, Total anterior) {
+        long importeAnterior = anterior != null ? anterior.importeCentavos() : 0;
+        long diferencia = actual.importeCentavos() - importeAnterior;
+
+        BigDecimal variacion = importeAnterior != 0
+                ? BigDecimal.valueOf(diferencia * 100).divide(BigDecimal.valueOf(importeAnterior), 2,
+                        RoundingMode.HALF_UP)
+                : null;
+
+        return ComparacionVentas.builder()
+                .clave(actual.clave())
+                .descripcion(actual.descripcion())
+                .importeActual(BigDecimal.valueOf(actual.importeCentavos(), 2))
+                .importeAnterior(BigDecimal.valueOf(importeAnterior, 2))
+                .diferencia(BigDecimal.valueOf(diferencia, 2))
+                .cantidadActual(actual.cantidad())
+                .cantidadAnterior(anterior != null ? anterior.cantidad() : 0)
+                .variacionPorcentaje(variacion)
+                .build();
+    }
+}
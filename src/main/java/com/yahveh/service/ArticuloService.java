@@ -1,7 +1,9 @@
 package com.yahveh.service;
 
+import com.yahveh.cache.CacheRegistro;
 import com.yahveh.dto.request.ArticuloRequest;
 import com.yahveh.dto.response.ArticuloResponse;
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.exception.BusinessException;
 import com.yahveh.exception.NotFoundException;
 import com.yahveh.model.Articulo;
@@ -23,12 +25,26 @@ public class ArticuloService {
     @Inject
     LineaRepository lineaRepository;
 
+    @Inject
+    CacheRegistro cacheRegistro;
+
+    @Inject
+    StockService stockService;
+
     /**
      * Listar todos los artículos
      */
     public List<ArticuloResponse> listarTodos() {
         log.info("Listando todos los artículos");
-        return articuloRepository.listarTodosCompleto();
+        return stockService.listarArticulos();
+    }
+
+    /**
+     * Listar artículos paginados
+     */
+    public Pagina<ArticuloResponse> listarPaginado(String cursor, int limite) {
+        log.info("Listando artículos paginados desde cursor: {}", cursor);
+        return stockService.listarArticulosPaginado(cursor, limite);
     }
 
 
@@ -41,7 +57,7 @@ public class ArticuloService {
 
 
 
-        return articuloRepository.listarPorLineaCompleto(codLinea);
+        return stockService.listarArticulosPorLinea(codLinea);
     }
 
 
@@ -61,6 +77,8 @@ public class ArticuloService {
                 .build();
 
         String codArticulo = articuloRepository.crearArticulo(articulo);
+        cacheRegistro.invalidar(CacheRegistro.LINEA);  // total de artículos por línea
+        cacheRegistro.invalidar(CacheRegistro.ARTICULOS);
 
         log.info("Artículo creado exitosamente: {}", codArticulo);
         return codArticulo;
@@ -81,6 +99,8 @@ public class ArticuloService {
                 .build();
 
         articuloRepository.actualizarArticulo(articulo);
+        cacheRegistro.invalidar(CacheRegistro.LINEA);
+        cacheRegistro.invalidar(CacheRegistro.ARTICULOS);
 
         log.info("Artículo actualizado exitosamente");
     }
@@ -94,6 +114,8 @@ public class ArticuloService {
 
 
         articuloRepository.eliminarArticulo(codArticulo, audUsuario);
+        cacheRegistro.invalidar(CacheRegistro.LINEA);
+        cacheRegistro.invalidar(CacheRegistro.ARTICULOS);
 
         log.info("Artículo eliminado exitosamente");
     }
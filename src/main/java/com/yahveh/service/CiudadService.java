@@ -1,10 +1,13 @@
 package com.yahveh.service;
 
+import com.yahveh.cache.CacheRegistro;
+import com.yahveh.cache.CatalogoCache;
 import com.yahveh.dto.request.CiudadRequest;
 import com.yahveh.dto.response.CiudadResponse;
 import com.yahveh.exception.NotFoundException;
 import com.yahveh.model.Ciudad;
 import com.yahveh.repository.CiudadRepository;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
@@ -18,12 +21,23 @@ public class CiudadService {
     @Inject
     CiudadRepository ciudadRepository;
 
+    @Inject
+    CacheRegistro cacheRegistro;
+
+    private CatalogoCache<CiudadResponse> cache;
+
+    @PostConstruct
+    void init() {
+        cache = cacheRegistro.crearCatalogo(CacheRegistro.CIUDAD, ciudadRepository::listarTodasCompleto,
+                CiudadResponse::getCodCiudad, CiudadResponse::getCodPais);
+    }
+
     /**
      * Listar todas las ciudades
      */
     public List<CiudadResponse> listarTodas() {
         log.info("Listando todas las ciudades");
-        return ciudadRepository.listarTodasCompleto();
+        return cache.listar();
     }
 
     /**
@@ -31,7 +45,7 @@ public class CiudadService {
      */
     public CiudadResponse buscarPorId(int codCiudad) {
         log.info("Buscando ciudad con ID: {}", codCiudad);
-        return ciudadRepository.buscarPorIdCompleto(codCiudad)
+        return cache.buscarPorCodigo(codCiudad)
                 .orElseThrow(() -> new NotFoundException("Ciudad no encontrada"));
     }
 
@@ -40,7 +54,7 @@ public class CiudadService {
      */
     public List<CiudadResponse> listarPorPais(int codPais) {
         log.info("Listando ciudades de país: {}", codPais);
-        return ciudadRepository.listarPorPaisCompleto(codPais);
+        return cache.listarPorPadre(codPais);
     }
 
     /**
@@ -64,6 +78,7 @@ public class CiudadService {
                 .build();
 
         int codCiudad = ciudadRepository.crearCiudad(ciudad);
+        invalidarCache();
 
         log.info("Ciudad creada exitosamente con ID: {}", codCiudad);
         return codCiudad;
@@ -76,8 +91,7 @@ public class CiudadService {
         log.info("Actualizando ciudad: {}", codCiudad);
 
         // Verificar que la ciudad existe
-        ciudadRepository.buscarPorIdCompleto(codCiudad)
-                .orElseThrow(() -> new NotFoundException("Ciudad no encontrada"));
+        buscarPorId(codCiudad);
 
         Ciudad ciudad = Ciudad.builder()
                 .codCiudad(codCiudad)
@@ -87,6 +101,7 @@ public class CiudadService {
                 .build();
 
         ciudadRepository.actualizarCiudad(ciudad);
+        invalidarCache();
 
         log.info("Ciudad actualizada exitosamente");
     }
@@ -98,11 +113,19 @@ public class CiudadService {
         log.info("Eliminando ciudad: {}", codCiudad);
 
         // Verificar que la ciudad existe
-        ciudadRepository.buscarPorIdCompleto(codCiudad)
-                .orElseThrow(() -> new NotFoundException("Ciudad no encontrada"));
+        buscarPorId(codCiudad);
 
         ciudadRepository.eliminarCiudad(codCiudad, audUsuario);
+        invalidarCache();
 
         log.info("Ciudad eliminada exitosamente");
     }
+
+    /**
+     * Invalidar ciudades y países (el país expone el total de ciudades)
+     */
+    private void invalidarCache() {
+        cache.invalidar();
+        cacheRegistro.invalidar(CacheRegistro.PAIS);
+    }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.yahveh.service;
 
+import com.yahveh.cache.CacheRegistro;
 import com.yahveh.dto.request.ClienteRequest;
 import com.yahveh.dto.response.ClienteResponse;
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.exception.NotFoundException;
 import com.yahveh.model.Cliente;
 import com.yahveh.repository.ClienteRepository;
@@ -18,6 +20,9 @@ public class ClienteService {
     @Inject
     ClienteRepository clienteRepository;
 
+    @Inject
+    CacheRegistro cacheRegistro;
+
     /**
      * Listar todos los clientes
      */
@@ -26,6 +31,14 @@ public class ClienteService {
         return clienteRepository.listarTodosCompleto();
     }
 
+    /**
+     * Listar clientes paginados
+     */
+    public Pagina<ClienteResponse> listarPaginado(String cursor, int limite) {
+        log.info("Listando clientes paginados desde cursor: {}", cursor);
+        return clienteRepository.listarTodosPaginado(cursor, limite);
+    }
+
     /**
      * Buscar cliente por ID
      */
@@ -77,6 +90,7 @@ public class ClienteService {
                 .build();
 
         int codCliente = clienteRepository.crearCliente(cliente);
+        cacheRegistro.invalidar(CacheRegistro.ZONA);  // total de clientes por zona
 
         log.info("Cliente creado exitosamente con ID: {}", codCliente);
         return codCliente;
@@ -101,6 +115,7 @@ public class ClienteService {
                 .build();
 
         clienteRepository.actualizarCliente(cliente);
+        cacheRegistro.invalidar(CacheRegistro.ZONA);
 
         log.info("Cliente actualizado exitosamente");
     }
@@ -112,6 +127,7 @@ public class ClienteService {
         log.info("Eliminando cliente: {}", codCliente);
 
         clienteRepository.eliminarCliente(codCliente, audUsuario);
+        cacheRegistro.invalidar(CacheRegistro.ZONA);
 
         log.info("Cliente eliminado exitosamente");
     }
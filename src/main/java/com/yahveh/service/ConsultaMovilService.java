@@ -0,0 +1,86 @@
+package com.yahveh.service;
+
+import com.yahveh.dto.response.ArticuloResponse;
+import com.yahveh.dto.response.ClienteResponse;
+import com.yahveh.dto.response.NotaEntregaResponse;
+import com.yahveh.dto.response.PrecioArticuloResponse;
+import com.yahveh.exception.NotFoundException;
+import com.yahveh.repository.ArticuloRepositoryReactivo;
+import com.yahveh.repository.ClienteRepositoryReactivo;
+import com.yahveh.repository.NotaEntregaRepositoryReactivo;
+import com.yahveh.repository.PrecioArticuloRepositoryReactivo;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Consultas de solo lectura para la app de vendedores, resueltas sin bloquear hilos.
+ * El stock de los artículos es el del libro en memoria (el mismo que muestra /api/articulos) mientras
+ * esté vigente; si no, queda el que devolvió la base.
+ */
+@ApplicationScoped
+public class ConsultaMovilService {
+
+    @Inject
+    ArticuloRepositoryReactivo articuloRepository;
+
+    @Inject
+    ClienteRepositoryReactivo clienteRepository;
+
+    @Inject
+    PrecioArticuloRepositoryReactivo precioArticuloRepository;
+
+    @Inject
+    NotaEntregaRepositoryReactivo notaEntregaRepository;
+
+    @Inject
+    StockService stockService;
+
+    public Multi<ArticuloResponse> listarArticulos() {
+        return articuloRepository.listarTodos().map(this::conStock);
+    }
+
+    public Uni<ArticuloResponse> buscarArticulo(String codArticulo) {
+        return articuloRepository.buscarPorCodigo(codArticulo)
+                .map(articulo -> conStock(encontrado(articulo, "Artículo no encontrado")));
+    }
+
+    public Multi<ClienteResponse> listarClientes() {
+        return clienteRepository.listarTodos();
+    }
+
+    public Multi<ClienteResponse> listarClientesPorZona(int codZona) {
+        return clienteRepository.listarPorZona(codZona);
+    }
+
+    public Uni<ClienteResponse> buscarCliente(int codCliente) {
+        return clienteRepository.buscarPorCodigo(codCliente)
+                .map(cliente -> encontrado(cliente, "Cliente no encontrado"));
+    }
+
+    public Uni<List<PrecioArticuloResponse>> listarPreciosPorArticulo(String codArticulo) {
+        return precioArticuloRepository.listarPorArticulo(codArticulo);
+    }
+
+    public Uni<NotaEntregaResponse> buscarNotaEntrega(long codNotaEntrega) {
+        return notaEntregaRepository.buscarPorCodigo(codNotaEntrega)
+                .map(nota -> encontrado(nota, "Nota de entrega no encontrada"));
+    }
+
+    public Uni<List<NotaEntregaResponse>> listarNotasPorCliente(long codCliente) {
+        return notaEntregaRepository.listarPorCliente(codCliente);
+    }
+
+    private ArticuloResponse conStock(ArticuloResponse articulo) {
+        stockService.stockSiVigente(articulo.getCodArticulo()).ifPresent(articulo::setStockActual);
+        return articulo;
+    }
+
+    private static <T> T encontrado(Optional<T> valor, String mensaje) {
+        return valor.orElseThrow(() -> new NotFoundException(mensaje));
+    }
+}
@@ -0,0 +1,178 @@
+package com.yahveh.service;
+
+import com.yahveh.cache.BusInvalidacion;
+import com.yahveh.cache.CacheRegistro;
+import com.yahveh.cache.IndicePrecios;
+import com.yahveh.dto.request.CotizacionRequest;
+import com.yahveh.dto.request.LineaCotizacionRequest;
+import com.yahveh.dto.response.CotizacionResponse;
+import com.yahveh.dto.response.LineaCotizacionResponse;
+import com.yahveh.dto.response.PrecioArticuloResponse;
+import com.yahveh.exception.BusinessException;
+import com.yahveh.repository.PrecioArticuloRepository;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cotización de un carrito completo contra el índice de precios en memoria (IndicePrecios):
+ * una sola petición y ningún acceso a la base por línea. Las altas, cambios y bajas de precios
+ * actualizan el índice; las de otros nodos llegan como invalidación y fuerzan una recarga, o sin bus de
+ * invalidación se recogen al vencer el índice (vigencia de los catálogos).
+ */
+@Slf4j
+@ApplicationScoped
+public class CotizacionService {
+
+    private static final int MAXIMO_LINEAS = 500;
+
+    @Inject
+    PrecioArticuloRepository precioArticuloRepository;
+
+    @Inject
+    CacheRegistro cacheRegistro;
+
+    @Inject
+    TransactionSynchronizationRegistry transacciones;
+
+    @Inject
+    BusInvalidacion busInvalidacion;
+
+    @ConfigProperty(name = "yahveh.precios.memoria.precargar", defaultValue = "true")
+    boolean precargar;
+
+    @ConfigProperty(name = "yahveh.cache.catalogos.ttl", defaultValue = "PT10M")
+    Duration ttlSinBus;
+
+    private IndicePrecios indice;
+
+    @PostConstruct
+    void init() {
+        indice = new IndicePrecios(CacheRegistro.PRECIOS, precioArticuloRepository::listarTodosCompleto,
+                busInvalidacion.isHabilitada() ? null : ttlSinBus);
+        cacheRegistro.registrar(indice);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (!precargar) {
+            return;
+        }
+        try {
+            indice.cargar();
+        } catch (RuntimeException e) {
+            log.error("No se pudo precargar el índice de precios: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Precios de cada línea en la lista pedida, con subtotales y totales
+     */
+    public CotizacionResponse cotizar(CotizacionRequest request) {
+        if (request.getLineas().size() > MAXIMO_LINEAS) {
+            throw new BusinessException("No se pueden cotizar más de " + MAXIMO_LINEAS + " líneas");
+        }
+        int listaPrecio = request.getListaPrecio();
+
+        List<LineaCotizacionResponse> lineas = new ArrayList<>(request.getLineas().size());
+        BigDecimal total = BigDecimal.ZERO;
+        BigDecimal totalSinFactura = BigDecimal.ZERO;
+        int sinPrecio = 0;
+
+        for (LineaCotizacionRequest linea : request.getLineas()) {
+            String codArticulo = linea.getCodArticulo().trim().toUpperCase();
+            IndicePrecios.Precio precio = indice.buscar(codArticulo, listaPrecio);
+            if (precio == null) {
+                sinPrecio++;
+                lineas.add(LineaCotizacionResponse.builder()
+                        .codArticulo(codArticulo)
+                        .cantidad(linea.getCantidad())
+                        .conPrecio(false)
+                        .build());
+                continue;
+            }
+
+            BigDecimal cantidad = BigDecimal.valueOf(linea.getCantidad());
+            BigDecimal subtotal = importe(precio.precio()).multiply(cantidad).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal subtotalSinFactura = importe(precio.precioSinFactura()).multiply(cantidad)
+                    .setScale(2, RoundingMode.HALF_UP);
+            total = total.add(subtotal);
+            totalSinFactura = totalSinFactura.add(subtotalSinFactura);
+
+            lineas.add(LineaCotizacionResponse.builder()
+                    .codArticulo(codArticulo)
+                    .cantidad(linea.getCantidad())
+                    .conPrecio(true)
+                    .codPrecio(precio.codPrecio())
+                    .precioBase(precio.precioBase())
+                    .precio(precio.precio())
+                    .precioSinFactura(precio.precioSinFactura())
+                    .subtotal(subtotal)
+                    .subtotalSinFactura(subtotalSinFactura)
+                    .build());
+        }
+
+        return CotizacionResponse.builder()
+                .listaPrecio(listaPrecio)
+                .lineas(lineas)
+                .total(total.setScale(2, RoundingMode.HALF_UP))
+                .totalSinFactura(totalSinFactura.setScale(2, RoundingMode.HALF_UP))
+                .lineasSinPrecio(sinPrecio)
+                .build();
+    }
+
+    /**
+     * Alta o cambio de un precio (tal como quedó en la base), aplicado al índice después de confirmar si hay
+     * transacción
+     */
+    public void registrarPrecio(PrecioArticuloResponse precio) {
+        despuesDeConfirmar(() -> indice.fijar(precio.getCodPrecio(), precio.getCodArticulo(),
+                precio.getListaPrecio(), precio.getPrecioBase(), precio.getPrecio(), precio.getPrecioSinFactura()));
+    }
+
+    /**
+     * Baja de un precio
+     */
+    public void registrarBaja(int codPrecio) {
+        despuesDeConfirmar(() -> indice.quitar(codPrecio));
+    }
+
+    private void despuesDeConfirmar(Runnable cambio) {
+        if (transacciones.getTransactionKey() != null
+                && transacciones.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            transacciones.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == Status.STATUS_COMMITTED) {
+                        cambio.run();
+                    }
+                }
+            });
+            return;
+        }
+        cambio.run();
+    }
+
+    /**
+     * El float se toma por su representación decimal (2.3f es 2.30, no 2.2999999523...)
+     */
+    private static BigDecimal importe(float valor) {
+        return new BigDecimal(Float.toString(valor));
+    }
+}
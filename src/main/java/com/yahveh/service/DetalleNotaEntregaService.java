@@ -1,15 +1,20 @@
 package com.yahveh.service;
 
+import com.yahveh.cache.PdfNotaEntregaCache;
 import com.yahveh.dto.request.DetalleNotaEntregaRequest;
 import com.yahveh.dto.response.DetalleNotaEntregaResponse;
 import com.yahveh.repository.DetalleNotaEntregaRepository;
+import com.yahveh.repository.VentaDiariaRepository;
 import com.yahveh.security.SecurityUtils;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
 import jakarta.ws.rs.NotFoundException;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 @ApplicationScoped
 @Slf4j
@@ -21,6 +26,18 @@ public class DetalleNotaEntregaService {
     @Inject
     SecurityUtils securityUtils;
 
+    @Inject
+    PdfNotaEntregaCache pdfNotaEntregaCache;
+
+    @Inject
+    VentaDiariaService ventaDiariaService;
+
+    @Inject
+    StockService stockService;
+
+    @Inject
+    ReservaStockService reservaStockService;
+
     public List<DetalleNotaEntregaResponse> listarPorNotaEntrega(int codNotaEntrega) {
         log.info("Listando detalles de la nota de entrega: {}", codNotaEntrega);
         return detalleRepository.listarPorNotaEntrega(codNotaEntrega);
@@ -32,11 +49,14 @@ public class DetalleNotaEntregaService {
                 .orElseThrow(() -> new NotFoundException("Detalle no encontrado"));
     }
 
+    @Transactional
     public DetalleNotaEntregaResponse crear(int codNotaEntrega, DetalleNotaEntregaRequest request) {
         log.info("Creando detalle para nota de entrega: {}", codNotaEntrega);
 
         int audUsuario = securityUtils.getCurrentUserId();
+        VentaDiariaRepository.DiaCliente nota = ventaDiariaService.tomarNota(codNotaEntrega);
 
+        reservaStockService.reservar(Collections.singletonMap(request.getCodArticulo(), request.getCantidad()));
         long codDetalle = detalleRepository.crearDetalle(
                 codNotaEntrega,
                 request.getCodArticulo(),
@@ -45,15 +65,24 @@ public class DetalleNotaEntregaService {
                 request.getPrecioSinFactura(),
                 audUsuario
         );
+        pdfNotaEntregaCache.invalidar(codNotaEntrega);
+        ventaDiariaService.registrarCambio(nota, nota);
 
         return buscarPorCodigo((int) codDetalle);
     }
 
+    @Transactional
     public DetalleNotaEntregaResponse actualizar(int codDetalle, DetalleNotaEntregaRequest request) {
         log.info("Actualizando detalle: {}", codDetalle);
 
         int audUsuario = securityUtils.getCurrentUserId();
 
+        // Solo se reserva lo que aumenta la cantidad
+        DetalleNotaEntregaResponse anterior = buscarPorCodigo(codDetalle);
+        int aumento = request.getCantidad() - anterior.getCantidad();
+        VentaDiariaRepository.DiaCliente nota = ventaDiariaService.tomarNota(anterior.getCodNotaEntrega());
+
+        reservaStockService.reservar(Collections.singletonMap(anterior.getCodArticulo(), aumento));
         detalleRepository.actualizarDetalle(
                 codDetalle,
                 request.getCantidad(),
@@ -62,14 +91,28 @@ public class DetalleNotaEntregaService {
                 audUsuario
         );
 
-        return buscarPorCodigo(codDetalle);
+        DetalleNotaEntregaResponse detalle = buscarPorCodigo(codDetalle);
+        pdfNotaEntregaCache.invalidar(detalle.getCodNotaEntrega());
+        ventaDiariaService.registrarCambio(nota, nota);
+        return detalle;
     }
 
+    @Transactional
     public void eliminar(int codDetalle) {
         log.info("Eliminando detalle: {}", codDetalle);
 
         int audUsuario = securityUtils.getCurrentUserId();
 
+        // Se obtiene la nota antes de borrar el detalle para descartar su PDF y tomarla para el resumen de ventas
+        Optional<DetalleNotaEntregaResponse> detalle = detalleRepository.buscarPorCodigo(codDetalle);
+        detalle.ifPresent(d -> pdfNotaEntregaCache.invalidar(d.getCodNotaEntrega()));
+        VentaDiariaRepository.DiaCliente nota =
+                detalle.map(d -> ventaDiariaService.tomarNota(d.getCodNotaEntrega())).orElse(null);
+
         detalleRepository.eliminarDetalle(codDetalle, audUsuario);
+        detalle.ifPresent(d -> {
+            ventaDiariaService.registrarCambio(nota, nota);
+            stockService.registrarCambio(List.of(d.getCodArticulo()));
+        });
     }
 }
\ No newline at end of file
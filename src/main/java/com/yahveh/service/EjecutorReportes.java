@@ -0,0 +1,154 @@
+package com.yahveh.service;
+
+import com.yahveh.exception.ServicioSaturadoException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool dedicado para llenar y exportar reportes Jasper.
+ * Limita cuántos reportes se generan en paralelo para no dejar sin CPU a los endpoints CRUD.
+ */
+@Slf4j
+@ApplicationScoped
+public class EjecutorReportes {
+
+    private static final ThreadLocal<Boolean> EN_HILO_REPORTES = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Máximo de reportes generándose a la vez; por defecto la mitad de los núcleos
+     */
+    @ConfigProperty(name = "yahveh.reportes.ejecutor.paralelismo")
+    Optional<Integer> paralelismo;
+
+    /**
+     * Reportes que pueden esperar turno; al llenarse se responde 429
+     */
+    @ConfigProperty(name = "yahveh.reportes.ejecutor.cola", defaultValue = "20")
+    int capacidadCola;
+
+    /**
+     * Tiempo que una solicitud síncrona espera su PDF antes de responder 503
+     */
+    @ConfigProperty(name = "yahveh.reportes.ejecutor.espera-maxima", defaultValue = "PT60S")
+    Duration esperaMaxima;
+
+    private ThreadPoolExecutor ejecutor;
+
+    @PostConstruct
+    void init() {
+        int hilos = paralelismo.orElse(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        AtomicInteger contador = new AtomicInteger();
+
+        ejecutor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola),
+                tarea -> {
+                    Thread hilo = new Thread(() -> {
+                        EN_HILO_REPORTES.set(true);
+                        tarea.run();
+                    }, "reportes-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        log.info("Ejecutor de reportes: {} hilos, cola de {}", hilos, capacidadCola);
+    }
+
+    @PreDestroy
+    void destroy() {
+        ejecutor.shutdownNow();
+    }
+
+    /**
+     * Generar en el pool y esperar el resultado en el hilo actual
+     */
+    public byte[] ejecutar(Callable<byte[]> tarea) {
+        // Un trabajo que ya corre en el pool no vuelve a encolarse (evita que el pool se espere a sí mismo)
+        if (EN_HILO_REPORTES.get()) {
+            return llamar(tarea);
+        }
+
+        Future<byte[]> futuro = enviar(tarea);
+        try {
+            return futuro.get(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            throw new ServicioSaturadoException("La generación del reporte tardó demasiado, intente más tarde",
+                    false, reintentarEnSegundos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futuro.cancel(true);
+            throw new RuntimeException("Generación de reporte interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException("Error al generar reporte: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Encolar la generación sin esperar
+     */
+    public CompletableFuture<byte[]> enviar(Callable<byte[]> tarea) {
+        CompletableFuture<byte[]> futuro = new CompletableFuture<>();
+        try {
+            Future<?> ejecucion = ejecutor.submit(() -> {
+                try {
+                    futuro.complete(tarea.call());
+                } catch (Throwable t) {
+                    futuro.completeExceptionally(t);
+                }
+            });
+            futuro.whenComplete((resultado, error) -> {
+                if (futuro.isCancelled()) {
+                    ejecucion.cancel(true);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Cola de reportes llena ({} en espera, {} en proceso)",
+                    ejecutor.getQueue().size(), ejecutor.getActiveCount());
+            throw new ServicioSaturadoException("Demasiados reportes en proceso, intente más tarde",
+                    true, reintentarEnSegundos());
+        }
+        return futuro;
+    }
+
+    public int getEnProceso() {
+        return ejecutor.getActiveCount();
+    }
+
+    public int getEnEspera() {
+        return ejecutor.getQueue().size();
+    }
+
+    private int reintentarEnSegundos() {
+        return (int) Math.max(1, esperaMaxima.toSeconds() / 4);
+    }
+
+    private static byte[] llamar(Callable<byte[]> tarea) {
+        try {
+            return tarea.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Error al generar reporte: " + e.getMessage(), e);
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.yahveh.service;
 
+import com.yahveh.cache.CacheRegistro;
+import com.yahveh.cache.CatalogoCache;
 import com.yahveh.dto.request.FamiliaRequest;
 import com.yahveh.dto.response.FamiliaResponse;
 import com.yahveh.exception.NotFoundException;
 import com.yahveh.model.Familia;
 import com.yahveh.repository.FamiliaRepository;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
@@ -18,12 +21,23 @@ public class FamiliaService {
     @Inject
     FamiliaRepository familiaRepository;
 
+    @Inject
+    CacheRegistro cacheRegistro;
+
+    private CatalogoCache<FamiliaResponse> cache;
+
+    @PostConstruct
+    void init() {
+        cache = cacheRegistro.crearCatalogo(CacheRegistro.FAMILIA, familiaRepository::listarTodasCompleto,
+                FamiliaResponse::getCodFamilia, null);
+    }
+
     /**
      * Listar todas las familias
      */
     public List<FamiliaResponse> listarTodas() {
         log.info("Listando todas las familias");
-        return familiaRepository.listarTodasCompleto();
+        return cache.listar();
     }
 
     /**
@@ -31,10 +45,17 @@ public class FamiliaService {
      */
     public FamiliaResponse buscarPorId(int codFamilia) {
         log.info("Buscando familia con ID: {}", codFamilia);
-        return familiaRepository.buscarPorIdCompleto(codFamilia)
+        return cache.buscarPorCodigo(codFamilia)
                 .orElseThrow(() -> new NotFoundException("Familia no encontrada"));
     }
 
+    /**
+     * Verificar si existe una familia
+     */
+    public boolean existe(int codFamilia) {
+        return cache.buscarPorCodigo(codFamilia).isPresent();
+    }
+
     /**
      * Buscar familias por nombre
      */
@@ -55,6 +76,7 @@ public class FamiliaService {
                 .build();
 
         int codFamilia = familiaRepository.crearFamilia(familia);
+        cache.invalidar();
 
         log.info("Familia creada exitosamente con ID: {}", codFamilia);
         return codFamilia;
@@ -67,8 +89,7 @@ public class FamiliaService {
         log.info("Actualizando familia: {}", codFamilia);
 
         // Verificar que la familia existe
-        familiaRepository.buscarPorIdCompleto(codFamilia)
-                .orElseThrow(() -> new NotFoundException("Familia no encontrada"));
+        buscarPorId(codFamilia);
 
         Familia familia = Familia.builder()
                 .codFamilia(codFamilia)
@@ -77,6 +98,7 @@ public class FamiliaService {
                 .build();
 
         familiaRepository.actualizarFamilia(familia);
+        cache.invalidar();
 
         log.info("Familia actualizada exitosamente");
     }
@@ -88,10 +110,10 @@ public class FamiliaService {
         log.info("Eliminando familia: {}", codFamilia);
 
         // Verificar que la familia existe
-        familiaRepository.buscarPorIdCompleto(codFamilia)
-                .orElseThrow(() -> new NotFoundException("Familia no encontrada"));
+        buscarPorId(codFamilia);
 
         familiaRepository.eliminarFamilia(codFamilia, audUsuario);
+        cache.invalidar();
 
         log.info("Familia eliminada exitosamente");
     }
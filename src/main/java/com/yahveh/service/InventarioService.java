@@ -3,6 +3,7 @@ package com.yahveh.service;
 
 import com.yahveh.dto.request.InventarioRequest;
 import com.yahveh.dto.response.InventarioResponse;
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.repository.InventarioRepository;
 import com.yahveh.security.SecurityUtils;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -12,6 +13,8 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 @ApplicationScoped
 @Slf4j
@@ -23,11 +26,24 @@ public class InventarioService {
     @Inject
     SecurityUtils securityUtils;
 
+    @Inject
+    StockService stockService;
+
     public List<InventarioResponse> listar() {
         log.info("Listando todos los movimientos de inventario");
         return inventarioRepository.listarTodos();
     }
 
+    public void recorrerTodos(Consumer<InventarioResponse> consumidor) {
+        log.info("Recorriendo todos los movimientos de inventario en streaming");
+        inventarioRepository.recorrerTodos(consumidor);
+    }
+
+    public Pagina<InventarioResponse> listarPaginado(String cursor, int limite) {
+        log.info("Listando movimientos de inventario paginados desde cursor: {}", cursor);
+        return inventarioRepository.listarTodosPaginado(cursor, limite);
+    }
+
     public InventarioResponse buscarPorCodigo(int codInventario) {
         log.info("Buscando movimiento de inventario: {}", codInventario);
         return inventarioRepository.buscarPorCodigo(codInventario)
@@ -54,7 +70,7 @@ public class InventarioService {
 
         int audUsuario = securityUtils.getCurrentUserId();
 
-        long codInventario = inventarioRepository.crearMovimiento(
+        InventarioResponse movimiento = inventarioRepository.crearMovimiento(
                 request.getCodArticulo(),
                 request.getTipoMovimiento(),
                 request.getCantidad(),
@@ -62,9 +78,10 @@ public class InventarioService {
                 request.getFecha(),
                 request.getObservacion(),
                 audUsuario
-        );
+        ).orElseThrow(() -> new NotFoundException("Movimiento de inventario no encontrado"));
+        stockService.registrarCambio(List.of(movimiento.getCodArticulo()));
 
-        return buscarPorCodigo((int) codInventario);
+        return movimiento;
     }
 
     public InventarioResponse modificar(int codInventario, InventarioRequest request) {
@@ -72,13 +89,11 @@ public class InventarioService {
 
         int audUsuario = securityUtils.getCurrentUserId();
 
-        inventarioRepository.modificarObservacion(
+        return inventarioRepository.modificarObservacion(
                 codInventario,
                 request.getObservacion(),
                 audUsuario
-        );
-
-        return buscarPorCodigo(codInventario);
+        ).orElseThrow(() -> new NotFoundException("Movimiento de inventario no encontrado"));
     }
 
     public void eliminar(int codInventario) {
@@ -86,6 +101,10 @@ public class InventarioService {
 
         int audUsuario = securityUtils.getCurrentUserId();
 
+        // El artículo se obtiene antes de reversar para refrescar su stock
+        Optional<InventarioResponse> movimiento = inventarioRepository.buscarPorCodigo(codInventario);
+
         inventarioRepository.eliminarMovimiento(codInventario, audUsuario);
+        movimiento.ifPresent(m -> stockService.registrarCambio(List.of(m.getCodArticulo())));
     }
 }
\ No newline at end of file
@@ -1,13 +1,15 @@
 package com.yahveh.service;
 
+import com.yahveh.cache.CacheRegistro;
+import com.yahveh.cache.CatalogoCache;
 import com.yahveh.dto.request.LineaRequest;
 import com.yahveh.dto.response.LineaResponse;
 import com.yahveh.exception.BusinessException;
 import com.yahveh.exception.NotFoundException;
 import com.yahveh.model.Linea;
 import com.yahveh.repository.ArticuloRepository;
-import com.yahveh.repository.FamiliaRepository;
 import com.yahveh.repository.LineaRepository;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
@@ -22,17 +24,28 @@ public class LineaService {
     LineaRepository lineaRepository;
 
     @Inject
-    FamiliaRepository familiaRepository;
+    FamiliaService familiaService;
 
     @Inject
     ArticuloRepository articuloRepository;
 
+    @Inject
+    CacheRegistro cacheRegistro;
+
+    private CatalogoCache<LineaResponse> cache;
+
+    @PostConstruct
+    void init() {
+        cache = cacheRegistro.crearCatalogo(CacheRegistro.LINEA, lineaRepository::listarTodasCompleto,
+                LineaResponse::getCodLinea, LineaResponse::getCodFamilia);
+    }
+
     /**
      * Listar todas las líneas
      */
     public List<LineaResponse> listarTodas() {
         log.info("Listando todas las líneas");
-        return lineaRepository.listarTodasCompleto();
+        return cache.listar();
     }
 
     /**
@@ -40,7 +53,7 @@ public class LineaService {
      */
     public LineaResponse buscarPorId(int codLinea) {
         log.info("Buscando línea con ID: {}", codLinea);
-        return lineaRepository.buscarPorIdCompleto(codLinea)
+        return cache.buscarPorCodigo(codLinea)
                 .orElseThrow(() -> new NotFoundException("Línea no encontrada"));
     }
 
@@ -51,11 +64,11 @@ public class LineaService {
         log.info("Listando líneas de familia: {}", codFamilia);
 
         // Verificar que la familia existe
-        if (!familiaRepository.existeFamilia(codFamilia)) {
+        if (!familiaService.existe(codFamilia)) {
             throw new NotFoundException("Familia no encontrada");
         }
 
-        return lineaRepository.listarPorFamiliaCompleto(codFamilia);
+        return cache.listarPorPadre(codFamilia);
     }
 
     /**
@@ -73,7 +86,7 @@ public class LineaService {
         log.info("Creando nueva línea: {}", request.getLinea());
 
         // Verificar que la familia existe
-        if (!familiaRepository.existeFamilia(request.getCodFamilia())) {
+        if (!familiaService.existe(request.getCodFamilia())) {
             throw new NotFoundException("Familia no encontrada");
         }
 
@@ -84,6 +97,7 @@ public class LineaService {
                 .build();
 
         int codLinea = lineaRepository.crearLinea(linea);
+        invalidarCache();
 
         log.info("Línea creada exitosamente con ID: {}", codLinea);
         return codLinea;
@@ -96,11 +110,10 @@ public class LineaService {
         log.info("Actualizando línea ID: {}", codLinea);
 
         // Verificar que la línea existe
-        lineaRepository.buscarPorIdCompleto(codLinea)
-                .orElseThrow(() -> new NotFoundException("Línea no encontrada"));
+        buscarPorId(codLinea);
 
         // Verificar que la familia existe
-        if (!familiaRepository.existeFamilia(request.getCodFamilia())) {
+        if (!familiaService.existe(request.getCodFamilia())) {
             throw new NotFoundException("Familia no encontrada");
         }
 
@@ -112,6 +125,7 @@ public class LineaService {
                 .build();
 
         lineaRepository.actualizarLinea(linea);
+        invalidarCache();
 
         log.info("Línea actualizada exitosamente");
     }
@@ -123,8 +137,7 @@ public class LineaService {
         log.info("Eliminando línea ID: {}", codLinea);
 
         // Verificar que la línea existe
-        lineaRepository.buscarPorIdCompleto(codLinea)
-                .orElseThrow(() -> new NotFoundException("Línea no encontrada"));
+        buscarPorId(codLinea);
 
         // Verificar que no tenga artículos
         var articulos = articuloRepository.listarPorLineaCompleto(codLinea);
@@ -133,7 +146,17 @@ public class LineaService {
         }
 
         lineaRepository.eliminarLinea(codLinea, audUsuario);
+        invalidarCache();
 
         log.info("Línea eliminada exitosamente");
     }
+
+    /**
+     * Invalidar líneas, familias (la familia expone el total de líneas) y artículos (muestran la línea)
+     */
+    private void invalidarCache() {
+        cache.invalidar();
+        cacheRegistro.invalidar(CacheRegistro.FAMILIA);
+        cacheRegistro.invalidar(CacheRegistro.ARTICULOS);
+    }
 }
\ No newline at end of file
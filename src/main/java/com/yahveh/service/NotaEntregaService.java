@@ -1,13 +1,18 @@
 package com.yahveh.service;
 
+import com.yahveh.cache.PdfNotaEntregaCache;
 import com.yahveh.dto.NotaEntregaReporteDTO;
 import com.yahveh.dto.VentaReporteDTO;
 import com.yahveh.dto.request.DetalleNotaEntregaRequest;
 import com.yahveh.dto.request.NotaEntregaRequest;
+import com.yahveh.dto.response.DetalleNotaEntregaResponse;
 import com.yahveh.dto.response.NotaEntregaResponse;
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.exception.BusinessException;
+import com.yahveh.exception.ServicioSaturadoException;
 import com.yahveh.repository.DetalleNotaEntregaRepository;
 import com.yahveh.repository.NotaEntregaRepository;
+import com.yahveh.repository.VentaDiariaRepository;
 import com.yahveh.security.SecurityUtils;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -17,11 +22,14 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
 
 @ApplicationScoped
 @Slf4j
 public class NotaEntregaService {
 
+    private static final int TAMANIO_LOTE_DETALLES = 500;
+
     @Inject
     NotaEntregaRepository notaEntregaRepository;
 
@@ -34,6 +42,18 @@ public class NotaEntregaService {
     @Inject
     ReporteService reporteService;
 
+    @Inject
+    PdfNotaEntregaCache pdfNotaEntregaCache;
+
+    @Inject
+    VentaDiariaService ventaDiariaService;
+
+    @Inject
+    StockService stockService;
+
+    @Inject
+    ReservaStockService reservaStockService;
+
     /**
      * Listar solo notas válidas
      */
@@ -41,10 +61,8 @@ public class NotaEntregaService {
         log.info("Listando todas las notas de entrega válidas");
         List<NotaEntregaResponse> notas = notaEntregaRepository.listarTodas();
 
-        // Cargar detalles para cada nota
-        notas.forEach(nota -> {
-            nota.setDetalles(detalleRepository.listarPorNotaEntrega(nota.getCodNotaEntrega()));
-        });
+        // Cargar detalles de todas las notas en una sola consulta
+        cargarDetalles(notas);
 
         return notas;
     }
@@ -56,13 +74,25 @@ public class NotaEntregaService {
         log.info("Listando todas las notas de entrega (válidas y anuladas)");
         List<NotaEntregaResponse> notas = notaEntregaRepository.listarTodasConAnuladas();
 
-        notas.forEach(nota -> {
-            nota.setDetalles(detalleRepository.listarPorNotaEntrega(nota.getCodNotaEntrega()));
-        });
+        cargarDetalles(notas);
 
         return notas;
     }
 
+    /**
+     * Recorrer todas las notas (válidas y anuladas) en streaming.
+     * Cada lote de notas se lee completo y recién entonces se cargan sus detalles (una consulta por lote) y
+     * se escribe: la exportación usa una sola conexión a la vez y no la retiene mientras escribe al cliente.
+     */
+    public void recorrerTodasConAnuladas(Consumer<NotaEntregaResponse> consumidor) {
+        log.info("Recorriendo todas las notas de entrega (válidas y anuladas) en streaming");
+
+        notaEntregaRepository.recorrerTodasConAnuladas(TAMANIO_LOTE_DETALLES, lote -> {
+            cargarDetalles(lote);
+            lote.forEach(consumidor);
+        });
+    }
+
     /**
      * Listar solo notas anuladas
      */
@@ -70,13 +100,23 @@ public class NotaEntregaService {
         log.info("Listando notas de entrega anuladas");
         List<NotaEntregaResponse> notas = notaEntregaRepository.listarAnuladas();
 
-        notas.forEach(nota -> {
-            nota.setDetalles(detalleRepository.listarPorNotaEntrega(nota.getCodNotaEntrega()));
-        });
+        cargarDetalles(notas);
 
         return notas;
     }
 
+    /**
+     * Listar notas paginadas (estado 1 válidas, 0 anuladas, null todas)
+     */
+    public Pagina<NotaEntregaResponse> listarPaginado(Integer estado, String cursor, int limite) {
+        log.info("Listando notas de entrega paginadas. Estado: {}, cursor: {}", estado, cursor);
+        Pagina<NotaEntregaResponse> pagina = notaEntregaRepository.listarPaginado(estado, cursor, limite);
+
+        cargarDetalles(pagina.getItems());
+
+        return pagina;
+    }
+
     public NotaEntregaResponse buscarPorCodigo(int codNotaEntrega) {
         log.info("Buscando nota de entrega: {}", codNotaEntrega);
         NotaEntregaResponse nota = notaEntregaRepository.buscarPorCodigo(codNotaEntrega)
@@ -92,9 +132,7 @@ public class NotaEntregaService {
         log.info("Listando notas de entrega del cliente: {}", codCliente);
         List<NotaEntregaResponse> notas = notaEntregaRepository.listarPorCliente(codCliente);
 
-        notas.forEach(nota -> {
-            nota.setDetalles(detalleRepository.listarPorNotaEntrega(nota.getCodNotaEntrega()));
-        });
+        cargarDetalles(notas);
 
         return notas;
     }
@@ -103,44 +141,53 @@ public class NotaEntregaService {
         log.info("Listando notas de entrega entre {} y {}", fechaDesde, fechaHasta);
         List<NotaEntregaResponse> notas = notaEntregaRepository.listarPorFechas(fechaDesde, fechaHasta);
 
-        notas.forEach(nota -> {
-            nota.setDetalles(detalleRepository.listarPorNotaEntrega(nota.getCodNotaEntrega()));
-        });
+        cargarDetalles(notas);
 
         return notas;
     }
 
+    /**
+     * Asignar los detalles a cada nota usando una única consulta por lote
+     */
+    private void cargarDetalles(List<NotaEntregaResponse> notas) {
+        List<Integer> codigos = notas.stream()
+                .map(NotaEntregaResponse::getCodNotaEntrega)
+                .toList();
+
+        Map<Integer, List<DetalleNotaEntregaResponse>> detallesPorNota = detalleRepository.listarPorNotasEntrega(codigos);
+
+        notas.forEach(nota -> nota.setDetalles(
+                detallesPorNota.getOrDefault(nota.getCodNotaEntrega(), new ArrayList<>())));
+    }
+
     @Transactional
     public NotaEntregaResponse crear(NotaEntregaRequest request) {
         log.info("Creando nota de entrega para cliente: {}", request.getCodCliente());
 
         long audUsuario = securityUtils.getCurrentUserId();
 
-        // Crear la nota de entrega (siempre con estado = 1 VÁLIDO)
-        // ⭐ Ahora incluye codEmpleado
-        long codNotaEntrega = notaEntregaRepository.crearNotaEntrega(
+        // Reservar el stock antes de escribir; se libera (y se refresca el stock) al terminar la transacción
+        Map<String, Integer> cantidades = new HashMap<>();
+        if (request.getDetalles() != null && !request.getDetalles().isEmpty()) {
+            for (DetalleNotaEntregaRequest detalle : request.getDetalles()) {
+                cantidades.merge(detalle.getCodArticulo(), detalle.getCantidad(), Integer::sum);
+            }
+        }
+        reservaStockService.reservar(cantidades);
+
+        // Crear la nota de entrega (siempre con estado = 1 VÁLIDO) junto con sus detalles en una sola llamada
+        long codNotaEntrega = notaEntregaRepository.crearNotaEntregaConDetalles(
                 request.getCodCliente(),
                 request.getFecha(),
                 request.getDireccion(),
                 request.getZona(),
+                request.getDetalles(),
                 audUsuario
         );
 
-        // Agregar detalles si existen
-        if (request.getDetalles() != null && !request.getDetalles().isEmpty()) {
-            for (DetalleNotaEntregaRequest detalle : request.getDetalles()) {
-                detalleRepository.crearDetalle(
-                        (int) codNotaEntrega,
-                        detalle.getCodArticulo(),
-                        detalle.getCantidad(),
-                        detalle.getPrecioUnitario(),
-                        detalle.getPrecioSinFactura(),
-                        (int) audUsuario
-                );
-            }
-        }
-
-        return buscarPorCodigo((int) codNotaEntrega);
+        NotaEntregaResponse nota = buscarPorCodigo((int) codNotaEntrega);
+        ventaDiariaService.registrarCambio(null, VentaDiariaService.diaCliente(nota));
+        return nota;
     }
 
     @Transactional
@@ -149,6 +196,9 @@ public class NotaEntregaService {
 
         long audUsuario = securityUtils.getCurrentUserId();
 
+        // Día y cliente antes del cambio (si cambia la fecha también se rearma el día anterior)
+        VentaDiariaRepository.DiaCliente anterior = ventaDiariaService.tomarNota(codNotaEntrega);
+
         // ⭐ Ya no se pasa codCliente (no se puede cambiar el cliente)
         notaEntregaRepository.actualizarNotaEntrega(
                 codNotaEntrega,
@@ -157,8 +207,11 @@ public class NotaEntregaService {
                 request.getZona(),
                 audUsuario
         );
+        pdfNotaEntregaCache.invalidar(codNotaEntrega);
 
-        return buscarPorCodigo(codNotaEntrega);
+        NotaEntregaResponse nota = buscarPorCodigo(codNotaEntrega);
+        ventaDiariaService.registrarCambio(anterior, VentaDiariaService.diaCliente(nota));
+        return nota;
     }
 
     /**
@@ -170,9 +223,14 @@ public class NotaEntregaService {
 
         int audUsuario = securityUtils.getCurrentUserId();
 
+        VentaDiariaRepository.DiaCliente anterior = ventaDiariaService.tomarNota(codNotaEntrega);
         notaEntregaRepository.anularNotaEntrega(codNotaEntrega, audUsuario);
+        pdfNotaEntregaCache.invalidar(codNotaEntrega);
 
-        return buscarPorCodigo(codNotaEntrega);
+        NotaEntregaResponse nota = buscarPorCodigo(codNotaEntrega);
+        ventaDiariaService.registrarCambio(anterior, VentaDiariaService.diaCliente(nota));
+        stockService.registrarCambio(articulos(nota));
+        return nota;
     }
 
     @Transactional
@@ -181,7 +239,23 @@ public class NotaEntregaService {
 
         int audUsuario = securityUtils.getCurrentUserId();
 
+        VentaDiariaRepository.DiaCliente anterior = ventaDiariaService.tomarNota(codNotaEntrega);
+        List<String> articulos = anterior != null
+                ? detalleRepository.listarPorNotaEntrega(codNotaEntrega).stream()
+                        .map(DetalleNotaEntregaResponse::getCodArticulo)
+                        .toList()
+                : List.of();
+
         notaEntregaRepository.eliminarNotaEntrega(codNotaEntrega, audUsuario);
+        pdfNotaEntregaCache.invalidar(codNotaEntrega);
+        ventaDiariaService.registrarCambio(anterior, null);
+        stockService.registrarCambio(articulos);
+    }
+
+    private static List<String> articulos(NotaEntregaResponse nota) {
+        return nota.getDetalles().stream()
+                .map(DetalleNotaEntregaResponse::getCodArticulo)
+                .toList();
     }
 
     /**
@@ -190,7 +264,7 @@ public class NotaEntregaService {
     public List<VentaReporteDTO> obtenerDatosReporteVentas(LocalDate fechaDesde, LocalDate fechaHasta) {
         log.info("Obteniendo datos del reporte de ventas desde {} hasta {}", fechaDesde, fechaHasta);
 
-        List<VentaReporteDTO> ventas = notaEntregaRepository.obtenerReporteVentas(fechaDesde, fechaHasta);
+        List<VentaReporteDTO> ventas = ventaDiariaService.obtenerReporteVentas(fechaDesde, fechaHasta);
 
         if (ventas.isEmpty()) {
             log.warn("No hay datos para el reporte de ventas en el período especificado");
@@ -201,7 +275,26 @@ public class NotaEntregaService {
         return ventas;
     }
 
+    /**
+     * PDF de la nota de entrega; se reutiliza el ya generado mientras la nota no cambie
+     */
     public byte[] generarPDF(Long codNotaEntrega) {
+        NotaEntregaResponse nota = notaEntregaRepository.buscarPorCodigo(codNotaEntrega)
+                .orElseThrow(() -> new NotFoundException("Nota de entrega no encontrada"));
+        String version = PdfNotaEntregaCache.version(nota.getEstado(), nota.getAudFecha());
+
+        Optional<byte[]> enCache = pdfNotaEntregaCache.obtener(codNotaEntrega, version);
+        if (enCache.isPresent()) {
+            log.info("PDF de nota de entrega {} servido desde cache", codNotaEntrega);
+            return enCache.get();
+        }
+
+        byte[] pdf = renderizarPDF(codNotaEntrega);
+        pdfNotaEntregaCache.guardar(codNotaEntrega, version, pdf);
+        return pdf;
+    }
+
+    private byte[] renderizarPDF(long codNotaEntrega) {
         log.info("Generando PDF para nota de entrega: {}", codNotaEntrega);
 
         // Obtener datos del reporte
@@ -268,7 +361,7 @@ public class NotaEntregaService {
 
         try {
             // 1. Obtener datos
-            List<VentaReporteDTO> ventas = notaEntregaRepository.obtenerReporteVentas(fechaDesde, fechaHasta);
+            List<VentaReporteDTO> ventas = ventaDiariaService.obtenerReporteVentas(fechaDesde, fechaHasta);
 
             if (ventas.isEmpty()) {
                 log.warn("No hay datos para el reporte de ventas");
@@ -288,6 +381,8 @@ public class NotaEntregaService {
 
             return pdfBytes;
 
+        } catch (ServicioSaturadoException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error al generar reporte de ventas", e);
             throw new RuntimeException("Error al generar reporte de ventas: " + e.getMessage(), e);
@@ -1,10 +1,13 @@
 package com.yahveh.service;
 
+import com.yahveh.cache.CacheRegistro;
+import com.yahveh.cache.CatalogoCache;
 import com.yahveh.dto.request.PaisRequest;
 import com.yahveh.dto.response.PaisResponse;
 import com.yahveh.exception.NotFoundException;
 import com.yahveh.model.Pais;
 import com.yahveh.repository.PaisRepository;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
@@ -18,12 +21,23 @@ public class PaisService {
     @Inject
     PaisRepository paisRepository;
 
+    @Inject
+    CacheRegistro cacheRegistro;
+
+    private CatalogoCache<PaisResponse> cache;
+
+    @PostConstruct
+    void init() {
+        cache = cacheRegistro.crearCatalogo(CacheRegistro.PAIS, paisRepository::listarTodosCompleto,
+                PaisResponse::getCodPais, null);
+    }
+
     /**
      * Listar todos los países
      */
     public List<PaisResponse> listarTodos() {
         log.info("Listando todos los países");
-        return paisRepository.listarTodosCompleto();
+        return cache.listar();
     }
 
     /**
@@ -31,7 +45,7 @@ public class PaisService {
      */
     public PaisResponse buscarPorId(int codPais) {
         log.info("Buscando país con ID: {}", codPais);
-        return paisRepository.buscarPorIdCompleto(codPais)
+        return cache.buscarPorCodigo(codPais)
                 .orElseThrow(() -> new NotFoundException("País no encontrado"));
     }
 
@@ -55,6 +69,7 @@ public class PaisService {
                 .build();
 
         int codPais = paisRepository.crearPais(pais);
+        cache.invalidar();
 
         log.info("País creado exitosamente con ID: {}", codPais);
         return codPais;
@@ -67,8 +82,7 @@ public class PaisService {
         log.info("Actualizando país: {}", codPais);
 
         // Verificar que el país existe
-        paisRepository.buscarPorIdCompleto(codPais)
-                .orElseThrow(() -> new NotFoundException("País no encontrado"));
+        buscarPorId(codPais);
 
         Pais pais = Pais.builder()
                 .codPais(codPais)
@@ -77,6 +91,7 @@ public class PaisService {
                 .build();
 
         paisRepository.actualizarPais(pais);
+        cache.invalidar();
 
         log.info("País actualizado exitosamente");
     }
@@ -88,10 +103,10 @@ public class PaisService {
         log.info("Eliminando país: {}", codPais);
 
         // Verificar que el país existe
-        paisRepository.buscarPorIdCompleto(codPais)
-                .orElseThrow(() -> new NotFoundException("País no encontrado"));
+        buscarPorId(codPais);
 
         paisRepository.eliminarPais(codPais, audUsuario);
+        cache.invalidar();
 
         log.info("País eliminado exitosamente");
     }
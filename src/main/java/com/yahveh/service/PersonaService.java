@@ -1,6 +1,7 @@
 package com.yahveh.service;
 
 import com.yahveh.dto.request.PersonaRequest;
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.dto.response.PersonaResponse;
 import com.yahveh.exception.BusinessException;
 import com.yahveh.model.Persona;
@@ -33,6 +34,11 @@ public class PersonaService {
                 .collect(Collectors.toList());
     }
 
+    public Pagina<PersonaResponse> listarPaginado(String cursor, int limite) {
+        log.info("Listando personas paginadas desde cursor: {}", cursor);
+        return personaRepository.listarTodasPaginado(cursor, limite).map(this::toResponse);
+    }
+
     public PersonaResponse buscarPorCodigo(long codPersona) {
         log.info("Buscando persona: {}", codPersona);
         Persona persona = personaRepository.buscarPorCodigo(codPersona)
@@ -76,17 +82,14 @@ public class PersonaService {
                 .audUsuario(audUsuario)
                 .build();
 
-        long codPersona = personaRepository.crearPersona(persona);
-
-        return buscarPorCodigo(codPersona);
+        return personaRepository.crearPersona(persona)
+                .map(this::toResponse)
+                .orElseThrow(() -> new NotFoundException("Persona no encontrada"));
     }
 
     public PersonaResponse actualizar(long codPersona, PersonaRequest request) {
         log.info("Actualizando persona: {}", codPersona);
 
-        // Validar que existe
-        buscarPorCodigo(codPersona);
-
         validarRequest(request);
 
         long audUsuario = securityUtils.getCurrentUserId();
@@ -107,17 +110,14 @@ public class PersonaService {
                 .audUsuario(audUsuario)
                 .build();
 
-        personaRepository.actualizarPersona(persona);
-
-        return buscarPorCodigo(codPersona);
+        return personaRepository.actualizarPersona(persona)
+                .map(this::toResponse)
+                .orElseThrow(() -> new NotFoundException("Persona no encontrada"));
     }
 
     public void eliminar(long codPersona) {
         log.info("Eliminando persona: {}", codPersona);
 
-        // Validar que existe
-        buscarPorCodigo(codPersona);
-
         long audUsuario = securityUtils.getCurrentUserId();
 
         personaRepository.eliminarPersona(codPersona, audUsuario);
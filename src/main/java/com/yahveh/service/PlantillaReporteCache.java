@@ -0,0 +1,99 @@
+package com.yahveh.service;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.util.JRLoader;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache de plantillas JasperReports compiladas.
+ * Cada JRXML se compila una sola vez (al iniciar) y se reutiliza en todas las solicitudes.
+ */
+@Slf4j
+@ApplicationScoped
+public class PlantillaReporteCache {
+
+    private static final String RUTA_REPORTES = "/reportes/";
+
+    private final Map<String, JasperReport> plantillas = new ConcurrentHashMap<>();
+
+    @ConfigProperty(name = "yahveh.reportes.precargar", defaultValue = "nota_entrega,reporte_ventas")
+    List<String> reportesPrecargados;
+
+    /**
+     * Si está activo se recompila el JRXML en cada solicitud (solo para desarrollo)
+     */
+    @ConfigProperty(name = "yahveh.reportes.recarga-en-caliente", defaultValue = "false")
+    boolean recargaEnCaliente;
+
+    void onStart(@Observes StartupEvent event) {
+        if (recargaEnCaliente) {
+            log.info("Recarga en caliente de reportes activa, no se precargan plantillas");
+            return;
+        }
+
+        for (String nombreReporte : reportesPrecargados) {
+            try {
+                obtener(nombreReporte);
+            } catch (RuntimeException e) {
+                log.error("No se pudo precargar el reporte {}: {}", nombreReporte, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Obtener la plantilla compilada de un reporte
+     */
+    public JasperReport obtener(String nombreReporte) {
+        if (recargaEnCaliente) {
+            return cargar(nombreReporte);
+        }
+        return plantillas.computeIfAbsent(nombreReporte, this::cargar);
+    }
+
+    /**
+     * Descartar plantillas en cache para forzar su recompilación
+     */
+    public void invalidar() {
+        plantillas.clear();
+    }
+
+    /**
+     * Compilar el JRXML; si no existe se usa el .jasper precompilado
+     */
+    private JasperReport cargar(String nombreReporte) {
+        long inicio = System.currentTimeMillis();
+
+        try (InputStream jrxml = getClass().getResourceAsStream(RUTA_REPORTES + nombreReporte + ".jrxml")) {
+            if (jrxml != null) {
+                JasperReport reporte = JasperCompileManager.compileReport(jrxml);
+                log.info("Reporte {} compilado en {} ms", nombreReporte, System.currentTimeMillis() - inicio);
+                return reporte;
+            }
+        } catch (JRException | IOException e) {
+            throw new RuntimeException("Error al compilar el reporte: " + nombreReporte + ".jrxml", e);
+        }
+
+        try (InputStream jasper = getClass().getResourceAsStream(RUTA_REPORTES + nombreReporte + ".jasper")) {
+            if (jasper == null) {
+                throw new RuntimeException("No se encontró el archivo de reporte: " + nombreReporte);
+            }
+            JasperReport reporte = (JasperReport) JRLoader.loadObject(jasper);
+            log.info("Reporte {} cargado desde .jasper", nombreReporte);
+            return reporte;
+        } catch (JRException | IOException e) {
+            throw new RuntimeException("Error al cargar el reporte: " + nombreReporte + ".jasper", e);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.yahveh.service;
 
+import com.yahveh.cache.CacheRegistro;
 import com.yahveh.dto.request.PrecioArticuloRequest;
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.dto.response.PrecioArticuloResponse;
 import com.yahveh.exception.NotFoundException;
 import com.yahveh.model.PrecioArticulo;
@@ -18,6 +20,12 @@ public class PrecioArticuloService {
     @Inject
     PrecioArticuloRepository precioArticuloRepository;
 
+    @Inject
+    CacheRegistro cacheRegistro;
+
+    @Inject
+    CotizacionService cotizacionService;
+
     /**
      * Listar todos los precios
      */
@@ -26,6 +34,14 @@ public class PrecioArticuloService {
         return precioArticuloRepository.listarTodosCompleto();
     }
 
+    /**
+     * Listar precios paginados
+     */
+    public Pagina<PrecioArticuloResponse> listarPaginado(String cursor, int limite) {
+        log.info("Listando precios paginados desde cursor: {}", cursor);
+        return precioArticuloRepository.listarTodosPaginado(cursor, limite);
+    }
+
     /**
      * Buscar precio por ID
      */
@@ -59,6 +75,8 @@ public class PrecioArticuloService {
                 .build();
 
         int codPrecio = precioArticuloRepository.crearPrecio(precio);
+        cacheRegistro.invalidar(CacheRegistro.ARTICULOS);  // precio actual del listado de artículos
+        registrarEnIndice(codPrecio);
 
         log.info("Precio creado exitosamente con ID: {}", codPrecio);
         return codPrecio;
@@ -70,10 +88,6 @@ public class PrecioArticuloService {
     public void actualizarPrecio(int codPrecio, PrecioArticuloRequest request, int audUsuario) {
         log.info("Actualizando precio: {}", codPrecio);
 
-        // Verificar que el precio existe
-        precioArticuloRepository.buscarPorIdCompleto(codPrecio)
-                .orElseThrow(() -> new NotFoundException("Precio no encontrado"));
-
         PrecioArticulo precio = PrecioArticulo.builder()
                 .codPrecio(codPrecio)
                 .codArticulo(request.getCodArticulo())
@@ -85,6 +99,8 @@ public class PrecioArticuloService {
                 .build();
 
         precioArticuloRepository.actualizarPrecio(precio);
+        cacheRegistro.invalidar(CacheRegistro.ARTICULOS);
+        registrarEnIndice(codPrecio);
 
         log.info("Precio actualizado exitosamente");
     }
@@ -106,6 +122,8 @@ public class PrecioArticuloService {
                 .build();
 
         int codPrecio = precioArticuloRepository.mergePrecio(precio);
+        cacheRegistro.invalidar(CacheRegistro.ARTICULOS);
+        registrarEnIndice(codPrecio);
 
         log.info("Precio procesado exitosamente (merge) con ID: {}", codPrecio);
         return codPrecio;
@@ -117,12 +135,20 @@ public class PrecioArticuloService {
     public void eliminarPrecio(int codPrecio, int audUsuario) {
         log.info("Eliminando precio: {}", codPrecio);
 
-        // Verificar que el precio existe
-        precioArticuloRepository.buscarPorIdCompleto(codPrecio)
-                .orElseThrow(() -> new NotFoundException("Precio no encontrado"));
-
         precioArticuloRepository.eliminarPrecio(codPrecio, audUsuario);
+        cacheRegistro.invalidar(CacheRegistro.ARTICULOS);
+        cotizacionService.registrarBaja(codPrecio);
 
         log.info("Precio eliminado exitosamente");
     }
-}
\ No newline at end of file
+
+    /**
+     * Llevar al índice de cotización el precio tal como quedó en la base (código y montos normalizados
+     * por el procedimiento)
+     */
+    private void registrarEnIndice(int codPrecio) {
+        precioArticuloRepository.buscarPorIdCompleto(codPrecio).ifPresentOrElse(
+                cotizacionService::registrarPrecio,
+                () -> cotizacionService.registrarBaja(codPrecio));
+    }
+}
@@ -1,6 +1,8 @@
 package com.yahveh.service;
 
+import com.yahveh.exception.ServicioSaturadoException;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import net.sf.jasperreports.engine.*;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
@@ -9,7 +11,6 @@ import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
 
 import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -17,12 +18,20 @@ import java.util.Map;
 @Slf4j
 public class ReporteService {
 
+    @Inject
+    PlantillaReporteCache plantillaReporteCache;
+
+    @Inject
+    EjecutorReportes ejecutorReportes;
+
     /**
-     * Generar reporte en PDF
+     * Generar reporte en PDF (el llenado y exportación corren en el pool de reportes)
      */
     public byte[] generarReportePDF(String nombreReporte, Map<String, Object> parametros, List<?> datos) {
         try {
-            return generarPDFSimple(nombreReporte, parametros, datos);
+            return ejecutorReportes.ejecutar(() -> generarPDFSimple(nombreReporte, parametros, datos));
+        } catch (ServicioSaturadoException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error al generar reporte: {}", e.getMessage(), e);
             throw new RuntimeException("Error al generar reporte: " + e.getMessage(), e);
@@ -33,14 +42,8 @@ public class ReporteService {
         try {
             log.info("Generando PDF simple para reporte: {}", nombreReporte);
 
-            // Cargar el archivo JRXML
-            InputStream reportStream = getClass().getResourceAsStream("/reportes/" + nombreReporte + ".jrxml");
-            if (reportStream == null) {
-                throw new RuntimeException("No se encontró el archivo de reporte: " + nombreReporte + ".jrxml");
-            }
-
-            // Compilar el reporte
-            JasperReport jasperReport = JasperCompileManager.compileReport(reportStream);
+            // Obtener el reporte compilado desde la cache
+            JasperReport jasperReport = plantillaReporteCache.obtener(nombreReporte);
 
             // Crear el datasource con los datos
             JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(datos);
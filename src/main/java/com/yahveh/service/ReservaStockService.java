@@ -0,0 +1,279 @@
+package com.yahveh.service;
+
+import com.yahveh.dto.response.EstadisticasReservas;
+import com.yahveh.exception.BusinessException;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reserva de stock en memoria antes de escribir la nota: dos vendedores del mismo artículo se ordenan
+ * aquí (por franjas de artículos, cada una con su lock) y no en los locks de fila de
+ * p_abm_detalle_nota_entrega. Si no alcanza el stock se rechaza al instante sin ir a la base, pero solo
+ * cuando el stock en memoria es confiable (bus de invalidación activo y libro vigente); si puede estar
+ * atrasado se reserva igual y decide el procedimiento.
+ * La reserva dura lo que la transacción de la escritura: al confirmar se refresca el stock en memoria y
+ * recién entonces se libera; si se revierte se libera sin más. La base sigue siendo la validación final.
+ */
+@Slf4j
+@ApplicationScoped
+public class ReservaStockService {
+
+    @Inject
+    StockService stockService;
+
+    @Inject
+    TransactionSynchronizationRegistry transacciones;
+
+    @ConfigProperty(name = "yahveh.stock.reservas.habilitadas", defaultValue = "true")
+    boolean habilitadas;
+
+    /**
+     * Cantidad de franjas (se redondea a potencia de dos)
+     */
+    @ConfigProperty(name = "yahveh.stock.reservas.franjas", defaultValue = "64")
+    int cantidadFranjas;
+
+    private Franja[] franjas;
+    private int mascara;
+
+    private final AtomicInteger activas = new AtomicInteger();
+    private final AtomicLong unidadesReservadas = new AtomicLong();
+    private final LongAdder reservas = new LongAdder();
+    private final LongAdder rechazos = new LongAdder();
+    private final LongAdder liberadasPorError = new LongAdder();
+    private final LongAdder bloqueos = new LongAdder();
+    private final LongAdder contenciones = new LongAdder();
+    private final LongAdder esperaNanos = new LongAdder();
+    private final LongAccumulator esperaMaximaNanos = new LongAccumulator(Math::max, 0);
+
+    @PostConstruct
+    void init() {
+        int tamanio = Integer.highestOneBit(Math.max(1, cantidadFranjas));
+        if (tamanio < cantidadFranjas) {
+            tamanio <<= 1;
+        }
+        franjas = new Franja[tamanio];
+        for (int i = 0; i < tamanio; i++) {
+            franjas[i] = new Franja();
+        }
+        mascara = tamanio - 1;
+        log.info("Reservas de stock {} con {} franjas", habilitadas ? "activas" : "deshabilitadas", tamanio);
+    }
+
+    /**
+     * Reservar las cantidades por artículo hasta el fin de la transacción; lanza BusinessException si alguna
+     * no alcanza
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void reservar(Map<String, Integer> cantidades) {
+        Map<String, Integer> porArticulo = new LinkedHashMap<>();
+        cantidades.forEach((codArticulo, cantidad) -> {
+            if (codArticulo != null) {
+                porArticulo.merge(codArticulo, Math.max(cantidad != null ? cantidad : 0, 0), Integer::sum);
+            }
+        });
+
+        Map<String, Integer> reservadas = habilitadas ? tomar(porArticulo) : Map.of();
+        Reserva reserva = new Reserva(List.copyOf(porArticulo.keySet()), reservadas);
+
+        transacciones.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    // La transacción ya terminó en este hilo: el refresco se hace fuera de ella
+                    Thread.ofVirtual().name("reserva-stock").start(() -> finalizar(reserva, true));
+                } else {
+                    finalizar(reserva, false);
+                }
+            }
+        });
+    }
+
+    public EstadisticasReservas estadisticas() {
+        int masDisputada = 0;
+        long maximo = 0;
+        for (int i = 0; i < franjas.length; i++) {
+            long valor = franjas[i].contenciones.sum();
+            if (valor > maximo) {
+                maximo = valor;
+                masDisputada = i;
+            }
+        }
+        long totalContenciones = contenciones.sum();
+
+        return EstadisticasReservas.builder()
+                .franjas(franjas.length)
+                .reservas(reservas.sum())
+                .rechazos(rechazos.sum())
+                .liberadasPorError(liberadasPorError.sum())
+                .reservasActivas(activas.get())
+                .unidadesReservadas(unidadesReservadas.get())
+                .bloqueos(bloqueos.sum())
+                .contenciones(totalContenciones)
+                .esperaPromedioMs(totalContenciones > 0 ? esperaNanos.sum() / 1_000_000d / totalContenciones : 0)
+                .esperaMaximaMs(esperaMaximaNanos.get() / 1_000_000d)
+                .franjaMasDisputada(masDisputada)
+                .contencionesFranjaMasDisputada(maximo)
+                .build();
+    }
+
+    /**
+     * Verificar y reservar todo o nada, con las franjas tomadas siempre en orden (sin deadlocks)
+     */
+    private Map<String, Integer> tomar(Map<String, Integer> porArticulo) {
+        Map<String, Integer> pedidas = new HashMap<>();
+        porArticulo.forEach((codArticulo, cantidad) -> {
+            if (cantidad > 0) {
+                pedidas.put(codArticulo, cantidad);
+            }
+        });
+        if (pedidas.isEmpty()) {
+            return Map.of();
+        }
+
+        // Si el libro no está cargado (o venció) se carga antes de tomar los locks: con una franja tomada no se
+        // va a la base
+        stockService.stock(pedidas.keySet().iterator().next());
+        boolean rechazar = stockService.stockConfiable();
+
+        TreeSet<Integer> indices = new TreeSet<>();
+        pedidas.keySet().forEach(codArticulo -> indices.add(indice(codArticulo)));
+
+        for (int indice : indices) {
+            bloquear(franjas[indice]);
+        }
+        try {
+            // El stock se lee con la franja tomada: una reserva no puede liberarse entre ambas lecturas.
+            // Se usa el último valor en memoria aunque el libro se haya invalidado en el medio (la base valida al final)
+            for (Map.Entry<String, Integer> pedida : pedidas.entrySet()) {
+                String codArticulo = pedida.getKey();
+                OptionalInt stock = stockService.stockEnMemoria(codArticulo);
+                if (stock.isEmpty()) {
+                    continue;
+                }
+                int reservado = franjas[indice(codArticulo)].reservado.getOrDefault(codArticulo, 0);
+                int disponible = stock.getAsInt() - reservado;
+                if (pedida.getValue() > disponible) {
+                    if (!rechazar) {
+                        log.debug("Stock en memoria insuficiente para {} (puede estar atrasado), decide la base",
+                                codArticulo);
+                        continue;
+                    }
+                    rechazos.increment();
+                    throw new BusinessException("Stock insuficiente para el artículo " + codArticulo
+                            + ": disponible " + Math.max(disponible, 0) + ", solicitado " + pedida.getValue());
+                }
+            }
+
+            pedidas.forEach((codArticulo, cantidad) ->
+                    franjas[indice(codArticulo)].reservado.merge(codArticulo, cantidad, Integer::sum));
+        } finally {
+            for (int indice : indices.descendingSet()) {
+                franjas[indice].lock.unlock();
+            }
+        }
+
+        reservas.increment();
+        activas.incrementAndGet();
+        pedidas.values().forEach(unidadesReservadas::addAndGet);
+        return pedidas;
+    }
+
+    private void bloquear(Franja franja) {
+        bloqueos.increment();
+        if (franja.lock.tryLock()) {
+            return;
+        }
+        contenciones.increment();
+        franja.contenciones.increment();
+        long inicio = System.nanoTime();
+        franja.lock.lock();
+        long espera = System.nanoTime() - inicio;
+        esperaNanos.add(espera);
+        esperaMaximaNanos.accumulate(espera);
+    }
+
+    /**
+     * Al confirmar primero se refresca el stock en memoria y después se libera la reserva,
+     * así nunca queda un momento sin el stock descontado ni la reserva
+     */
+    private void finalizar(Reserva reserva, boolean confirmada) {
+        if (!reserva.finalizada().compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (confirmada) {
+                stockService.refrescarAhora(reserva.articulos());
+            }
+        } finally {
+            liberar(reserva.reservadas(), confirmada);
+        }
+    }
+
+    private void liberar(Map<String, Integer> reservadas, boolean confirmada) {
+        if (reservadas.isEmpty()) {
+            return;
+        }
+        reservadas.forEach((codArticulo, cantidad) -> {
+            Franja franja = franjas[indice(codArticulo)];
+            franja.lock.lock();
+            try {
+                franja.reservado.computeIfPresent(codArticulo, (k, actual) -> actual > cantidad ? actual - cantidad : null);
+            } finally {
+                franja.lock.unlock();
+            }
+            unidadesReservadas.addAndGet(-cantidad);
+        });
+        activas.decrementAndGet();
+        if (!confirmada) {
+            liberadasPorError.increment();
+        }
+    }
+
+    private int indice(String codArticulo) {
+        int hash = codArticulo.hashCode();
+        return (hash ^ (hash >>> 16)) & mascara;
+    }
+
+    /**
+     * Cantidades reservadas de una franja de artículos; solo se tocan con su lock tomado
+     */
+    private static final class Franja {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Integer> reservado = new HashMap<>();
+        private final LongAdder contenciones = new LongAdder();
+    }
+
+    /**
+     * Reserva tomada para una escritura; se finaliza una sola vez al terminar su transacción
+     */
+    private record Reserva(List<String> articulos, Map<String, Integer> reservadas, AtomicBoolean finalizada) {
+        private Reserva(List<String> articulos, Map<String, Integer> reservadas) {
+            this(articulos, reservadas, new AtomicBoolean());
+        }
+    }
+}
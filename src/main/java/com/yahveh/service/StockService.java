@@ -0,0 +1,236 @@
+package com.yahveh.service;
+
+import com.yahveh.cache.BusInvalidacion;
+import com.yahveh.cache.CacheRegistro;
+import com.yahveh.cache.LibroStock;
+import com.yahveh.dto.response.ArticuloResponse;
+import com.yahveh.dto.response.Pagina;
+import com.yahveh.exception.BusinessException;
+import com.yahveh.repository.ArticuloRepository;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.Set;
+
+/**
+ * Stock de artículos servido desde memoria (LibroStock). Los listados de artículos y la consulta de stock
+ * de la carga de notas no vuelven a calcular el stock en la base; las escrituras que lo mueven
+ * (movimientos de inventario, notas y sus detalles) avisan qué artículos refrescar.
+ */
+@Slf4j
+@ApplicationScoped
+public class StockService {
+
+    private static final int MAXIMO_ARTICULOS_CONSULTA = 500;
+
+    private static final int LIMITE_MAXIMO_PAGINA = 1000;
+
+    @Inject
+    ArticuloRepository articuloRepository;
+
+    @Inject
+    CacheRegistro cacheRegistro;
+
+    @Inject
+    TransactionSynchronizationRegistry transacciones;
+
+    @Inject
+    BusInvalidacion busInvalidacion;
+
+    @ConfigProperty(name = "yahveh.stock.memoria.precargar", defaultValue = "true")
+    boolean precargar;
+
+    /**
+     * Sin bus de invalidación el libro se vuelve a cargar completo con la vigencia de los catálogos
+     */
+    @ConfigProperty(name = "yahveh.cache.catalogos.ttl", defaultValue = "PT10M")
+    Duration ttlSinBus;
+
+    private LibroStock libro;
+
+    @PostConstruct
+    void init() {
+        libro = new LibroStock(CacheRegistro.ARTICULOS, articuloRepository::listarTodosCompleto,
+                articuloRepository::stockPorArticulos, busInvalidacion.isHabilitada() ? null : ttlSinBus);
+        cacheRegistro.registrar(libro);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (!precargar) {
+            return;
+        }
+        try {
+            libro.catalogo();
+        } catch (RuntimeException e) {
+            log.error("No se pudo precargar el libro de stock: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Todos los artículos con su stock en memoria
+     */
+    public List<ArticuloResponse> listarArticulos() {
+        return conStock(libro.catalogo());
+    }
+
+    public List<ArticuloResponse> listarArticulosPorLinea(int codLinea) {
+        return conStock(libro.catalogo().stream()
+                .filter(articulo -> articulo.getCodLinea() == codLinea)
+                .toList());
+    }
+
+    /**
+     * Página de artículos ordenada por código (mismo cursor que el listado desde la base)
+     */
+    public Pagina<ArticuloResponse> listarArticulosPaginado(String cursor, int limite) {
+        int tamanio = Math.max(1, Math.min(limite, LIMITE_MAXIMO_PAGINA));
+        String desde = cursor == null || cursor.isBlank() ? null : cursor.trim();
+
+        List<ArticuloResponse> ordenados = libro.catalogo().stream()
+                .filter(articulo -> desde == null || articulo.getCodArticulo().compareTo(desde) > 0)
+                .sorted(Comparator.comparing(ArticuloResponse::getCodArticulo))
+                .limit(tamanio + 1L)
+                .toList();
+
+        String nextCursor = null;
+        if (ordenados.size() > tamanio) {
+            ordenados = ordenados.subList(0, tamanio);
+            nextCursor = ordenados.get(tamanio - 1).getCodArticulo();
+        }
+        return new Pagina<>(conStock(ordenados), nextCursor);
+    }
+
+    /**
+     * Stock de varios artículos; los códigos que no existen vuelven con null
+     */
+    public Map<String, Integer> consultar(Collection<String> codArticulos) {
+        Set<String> codigos = new LinkedHashSet<>();
+        for (String codigo : codArticulos) {
+            if (codigo != null && !codigo.isBlank()) {
+                codigos.add(codigo.trim().toUpperCase());
+            }
+        }
+        if (codigos.isEmpty()) {
+            throw new BusinessException("Debe indicar al menos un artículo");
+        }
+        if (codigos.size() > MAXIMO_ARTICULOS_CONSULTA) {
+            throw new BusinessException("No se pueden consultar más de " + MAXIMO_ARTICULOS_CONSULTA + " artículos");
+        }
+
+        Map<String, Integer> stock = new LinkedHashMap<>();
+        for (String codigo : codigos) {
+            OptionalInt actual = libro.stock(codigo);
+            stock.put(codigo, actual.isPresent() ? actual.getAsInt() : null);
+        }
+        return stock;
+    }
+
+    /**
+     * Refrescar el stock de los artículos movidos, después de confirmar si hay transacción
+     */
+    public void registrarCambio(Collection<String> codArticulos) {
+        List<String> codigos = codArticulos.stream().filter(Objects::nonNull).distinct().toList();
+        if (codigos.isEmpty()) {
+            return;
+        }
+
+        if (transacciones.getTransactionKey() != null
+                && transacciones.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            transacciones.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == Status.STATUS_COMMITTED) {
+                        // La transacción ya terminó en este hilo: la lectura se hace fuera de ella
+                        Thread.ofVirtual().name("refresco-stock").start(() -> refrescarAhora(codigos));
+                    }
+                }
+            });
+            return;
+        }
+        refrescarAhora(codigos);
+    }
+
+    /**
+     * Stock en memoria de un artículo, vacío si no está en el libro
+     */
+    public OptionalInt stock(String codArticulo) {
+        return libro.stock(codArticulo);
+    }
+
+    /**
+     * El stock en memoria refleja todas las escrituras: el bus trae las de otros nodos y el libro está vigente.
+     * Si no, puede estar atrasado y solo sirve como referencia.
+     */
+    public boolean stockConfiable() {
+        return busInvalidacion.isHabilitada() && libro.vigente();
+    }
+
+    /**
+     * Último stock en memoria del artículo, sin ir nunca a la base (aunque el libro esté invalidado)
+     */
+    public OptionalInt stockEnMemoria(String codArticulo) {
+        return libro.stockEnMemoria(codArticulo);
+    }
+
+    /**
+     * Stock en memoria solo si el libro está vigente; nunca va a la base (para quien no puede bloquear)
+     */
+    public OptionalInt stockSiVigente(String codArticulo) {
+        return libro.vigente() ? libro.stockEnMemoria(codArticulo) : OptionalInt.empty();
+    }
+
+    /**
+     * Leer ya el stock de los artículos (el llamador sabe que la escritura está confirmada)
+     */
+    public void refrescarAhora(Collection<String> codigos) {
+        try {
+            libro.refrescar(codigos);
+        } catch (RuntimeException e) {
+            // Sin el refresco el valor quedaría viejo: se descarta todo y se recarga en la próxima consulta
+            log.error("No se pudo refrescar el stock de {}: {}", codigos, e.getMessage());
+            libro.invalidar();
+        }
+    }
+
+    /**
+     * Copias de los artículos con el stock del libro (el catálogo compartido no se modifica)
+     */
+    private List<ArticuloResponse> conStock(List<ArticuloResponse> articulos) {
+        List<ArticuloResponse> resultado = new ArrayList<>(articulos.size());
+        for (ArticuloResponse articulo : articulos) {
+            resultado.add(ArticuloResponse.builder()
+                    .codArticulo(articulo.getCodArticulo())
+                    .codLinea(articulo.getCodLinea())
+                    .linea(articulo.getLinea())
+                    .descripcion(articulo.getDescripcion())
+                    .descripcion2(articulo.getDescripcion2())
+                    .stockActual(libro.stock(articulo.getCodArticulo()).orElse(articulo.getStockActual()))
+                    .precioActual(articulo.getPrecioActual())
+                    .audUsuario(articulo.getAudUsuario())
+                    .build());
+        }
+        return resultado;
+    }
+}
@@ -1,6 +1,7 @@
 package com.yahveh.service;
 
 import com.yahveh.dto.request.TelefonoClienteRequest;
+import com.yahveh.dto.response.Pagina;
 import com.yahveh.dto.response.TelefonoClienteResponse;
 import com.yahveh.exception.BusinessException;
 import com.yahveh.model.TelefonoCliente;
@@ -31,6 +32,11 @@ public class TelefonoClienteService {
                 .collect(Collectors.toList());
     }
 
+    public Pagina<TelefonoClienteResponse> listarPaginado(String cursor, int limite) {
+        log.info("Listando teléfonos de clientes paginados desde cursor: {}", cursor);
+        return telefonoClienteRepository.listarTodosPaginado(cursor, limite).map(this::toResponse);
+    }
+
     public TelefonoClienteResponse buscarPorCodigo(Long codTlfCliente) {
         log.info("Buscando teléfono: {}", codTlfCliente);
         TelefonoClienteRepository.TelefonoClienteDetalle detalle =
@@ -59,9 +65,9 @@ public class TelefonoClienteService {
                 .audUsuario(audUsuario)
                 .build();
 
-        long codTlfCliente = telefonoClienteRepository.crearTelefono(telefono);
-
-        return buscarPorCodigo(codTlfCliente);
+        return telefonoClienteRepository.crearTelefono(telefono)
+                .map(this::toResponse)
+                .orElseThrow(() -> new NotFoundException("Teléfono no encontrado"));
     }
 
     public TelefonoClienteResponse actualizar(long codTlfCliente, TelefonoClienteRequest request) {
@@ -0,0 +1,147 @@
+package com.yahveh.service;
+
+import com.yahveh.dto.response.TrabajoReporteResponse;
+import com.yahveh.exception.BusinessException;
+import com.yahveh.exception.NotFoundException;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trabajos de generación de reportes en segundo plano: encolar, consultar estado y descargar
+ */
+@Slf4j
+@ApplicationScoped
+public class TrabajoReporteService {
+
+    public enum Estado { PENDIENTE, EN_PROCESO, COMPLETADO, ERROR }
+
+    @Inject
+    EjecutorReportes ejecutorReportes;
+
+    /**
+     * Tiempo que se conserva un trabajo terminado para su descarga
+     */
+    @ConfigProperty(name = "yahveh.reportes.trabajos.retencion", defaultValue = "PT30M")
+    Duration retencion;
+
+    private final Map<String, Trabajo> trabajos = new ConcurrentHashMap<>();
+
+    /**
+     * Encolar un reporte; lanza ServicioSaturadoException si la cola está llena
+     */
+    public TrabajoReporteResponse enviar(String tipo, String nombreArchivo, int codUsuario, Callable<byte[]> generador) {
+        depurarVencidos();
+
+        Trabajo trabajo = new Trabajo(UUID.randomUUID().toString(), tipo, nombreArchivo, codUsuario);
+        trabajos.put(trabajo.id, trabajo);
+
+        try {
+            ejecutorReportes.enviar(() -> {
+                trabajo.estado = Estado.EN_PROCESO;
+                return generador.call();
+            }).whenComplete((pdf, error) -> {
+                if (error != null) {
+                    log.error("Trabajo de reporte {} ({}) falló: {}", trabajo.id, tipo, error.getMessage());
+                    trabajo.error = error.getMessage();
+                    trabajo.estado = Estado.ERROR;
+                } else {
+                    trabajo.pdf = pdf;
+                    trabajo.estado = Estado.COMPLETADO;
+                }
+                trabajo.fechaFin = LocalDateTime.now();
+            });
+        } catch (RuntimeException e) {
+            trabajos.remove(trabajo.id);
+            throw e;
+        }
+
+        log.info("Trabajo de reporte {} ({}) encolado", trabajo.id, tipo);
+        return toResponse(trabajo);
+    }
+
+    /**
+     * Consultar el estado de un trabajo
+     */
+    public TrabajoReporteResponse consultar(String id, int codUsuario, boolean admin) {
+        return toResponse(buscar(id, codUsuario, admin));
+    }
+
+    /**
+     * Obtener el PDF de un trabajo completado
+     */
+    public byte[] descargar(String id, int codUsuario, boolean admin) {
+        Trabajo trabajo = buscar(id, codUsuario, admin);
+
+        if (trabajo.estado == Estado.ERROR) {
+            throw new BusinessException("El reporte no pudo generarse: " + trabajo.error);
+        }
+        if (trabajo.estado != Estado.COMPLETADO) {
+            throw new BusinessException("El reporte aún no está listo");
+        }
+        return trabajo.pdf;
+    }
+
+    public String nombreArchivo(String id, int codUsuario, boolean admin) {
+        return buscar(id, codUsuario, admin).nombreArchivo;
+    }
+
+    private Trabajo buscar(String id, int codUsuario, boolean admin) {
+        depurarVencidos();
+
+        Trabajo trabajo = trabajos.get(id);
+        if (trabajo == null || (!admin && trabajo.codUsuario != codUsuario)) {
+            throw new NotFoundException("Trabajo de reporte no encontrado");
+        }
+        return trabajo;
+    }
+
+    /**
+     * Quitar trabajos terminados hace más tiempo que la retención
+     */
+    private void depurarVencidos() {
+        LocalDateTime limite = LocalDateTime.now().minus(retencion);
+        trabajos.values().removeIf(t -> t.fechaFin != null && t.fechaFin.isBefore(limite));
+    }
+
+    private TrabajoReporteResponse toResponse(Trabajo trabajo) {
+        byte[] pdf = trabajo.pdf;
+        return TrabajoReporteResponse.builder()
+                .id(trabajo.id)
+                .tipo(trabajo.tipo)
+                .estado(trabajo.estado.name())
+                .nombreArchivo(trabajo.nombreArchivo)
+                .tamanio(pdf != null ? pdf.length : null)
+                .error(trabajo.error)
+                .fechaCreacion(trabajo.fechaCreacion)
+                .fechaFin(trabajo.fechaFin)
+                .build();
+    }
+
+    private static final class Trabajo {
+        final String id;
+        final String tipo;
+        final String nombreArchivo;
+        final int codUsuario;
+        final LocalDateTime fechaCreacion = LocalDateTime.now();
+        volatile Estado estado = Estado.PENDIENTE;
+        volatile byte[] pdf;
+        volatile String error;
+        volatile LocalDateTime fechaFin;
+
+        Trabajo(String id, String tipo, String nombreArchivo, int codUsuario) {
+            this.id = id;
+            this.tipo = tipo;
+            this.nombreArchivo = nombreArchivo;
+            this.codUsuario = codUsuario;
+        }
+    }
+}
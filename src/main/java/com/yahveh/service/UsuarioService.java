@@ -19,6 +19,9 @@ public class UsuarioService {
     @Inject
     UsuarioRepository usuarioRepository;
 
+    @Inject
+    VistaService vistaService;
+
     /**
      * Listar todos los usuarios
      */
@@ -87,6 +90,8 @@ public class UsuarioService {
             usuarioRepository.actualizarUsuario(usuario);
         }
 
+        vistaService.invalidarMenu(codUsuario);
+
         log.info("Usuario actualizado exitosamente");
     }
 
@@ -101,6 +106,7 @@ public class UsuarioService {
                 .orElseThrow(() -> new NotFoundException("Usuario no encontrado"));
 
         usuarioRepository.eliminarUsuario(codUsuario, audUsuario);
+        vistaService.invalidarMenu(codUsuario);
 
         log.info("Usuario eliminado exitosamente");
     }
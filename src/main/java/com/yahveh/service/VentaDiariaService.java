@@ -0,0 +1,200 @@
+package com.yahveh.service;
+
+import com.yahveh.dto.VentaReporteDTO;
+import com.yahveh.dto.response.NotaEntregaResponse;
+import com.yahveh.exception.BusinessException;
+import com.yahveh.repository.NotaEntregaRepository;
+import com.yahveh.repository.VentaDiariaRepository;
+import com.yahveh.repository.VentaDiariaRepository.DiaCliente;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mantiene el resumen diario de ventas que usa el reporte de ventas (esquema en db/venta_diaria.sql).
+ * Cada alta/cambio/anulación de nota o detalle rearma, en la misma transacción y en una sola llamada,
+ * las filas del cliente de la nota en su día (y en el día anterior si la fecha cambió). La carga inicial
+ * y la reconstrucción van por meses en el pool de reportes, cada mes en una sola sentencia.
+ */
+@Slf4j
+@ApplicationScoped
+public class VentaDiariaService {
+
+    @Inject
+    VentaDiariaRepository ventaDiariaRepository;
+
+    @Inject
+    NotaEntregaRepository notaEntregaRepository;
+
+    @Inject
+    AnaliticaVentasService analiticaVentasService;
+
+    /**
+     * Activar solo con db/venta_diaria.sql desplegado en la base
+     */
+    @ConfigProperty(name = "yahveh.reportes.ventas.resumen.habilitado", defaultValue = "false")
+    boolean habilitado;
+
+    /**
+     * Primer día de la carga inicial del resumen
+     */
+    @ConfigProperty(name = "yahveh.reportes.ventas.resumen.desde", defaultValue = "2020-01-01")
+    LocalDate cargarDesde;
+
+    /**
+     * Mientras la carga inicial no está registrada como completa el reporte se sigue armando desde las notas
+     */
+    private volatile boolean disponible;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!habilitado) {
+            log.info("Resumen diario de ventas deshabilitado, el reporte se arma desde las notas");
+            return;
+        }
+
+        VentaDiariaRepository.EstadoCarga estado;
+        try {
+            estado = ventaDiariaRepository.estadoCarga();
+        } catch (RuntimeException e) {
+            log.error("No se pudo leer el resumen diario de ventas (¿falta desplegar db/venta_diaria.sql?): {}",
+                    e.getMessage());
+            return;
+        }
+        if (estado.completa()) {
+            disponible = true;
+            return;
+        }
+
+        // Una carga cortada (caída o error) sigue desde el último mes confirmado; llega hasta la última
+        // nota aunque tenga fecha futura (los días siguientes ya los mantienen las escrituras)
+        LocalDate desde = estado.cargadoHasta() != null ? estado.cargadoHasta().plusDays(1) : cargarDesde;
+        LocalDate hoy = LocalDate.now();
+        LocalDate hasta = estado.ultimaFecha() != null && estado.ultimaFecha().isAfter(hoy)
+                ? estado.ultimaFecha() : hoy;
+        Thread.ofVirtual().name("venta-diaria-carga").start(() -> {
+            try {
+                completarCarga(desde, hasta);
+            } catch (RuntimeException e) {
+                log.error("Falló la carga inicial del resumen diario de ventas, se retoma en el próximo inicio", e);
+            }
+        });
+    }
+
+    /**
+     * Filas del reporte de ventas del período
+     */
+    public List<VentaReporteDTO> obtenerReporteVentas(LocalDate fechaDesde, LocalDate fechaHasta) {
+        if (!disponible) {
+            return notaEntregaRepository.obtenerReporteVentas(fechaDesde, fechaHasta);
+        }
+        return ventaDiariaRepository.listar(fechaDesde, fechaHasta);
+    }
+
+    /**
+     * Día y cliente de una nota existente, a tomar antes de modificarla y dentro de la transacción de la
+     * escritura (null si no existe). Con el resumen activo la nota queda tomada hasta el fin de la transacción,
+     * así dos escrituras de la misma nota no se cruzan.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public DiaCliente tomarNota(long codNotaEntrega) {
+        if (habilitado) {
+            return ventaDiariaRepository.tomarNota(codNotaEntrega).orElse(null);
+        }
+        return notaEntregaRepository.buscarPorCodigo(codNotaEntrega)
+                .map(VentaDiariaService::diaCliente)
+                .orElse(null);
+    }
+
+    /**
+     * Rearmar en el resumen lo que la nota aportaba antes y lo que aporta ahora (en la misma transacción).
+     * Cualquiera de los dos puede ser null (nota nueva o eliminada).
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void registrarCambio(DiaCliente anterior, DiaCliente actual) {
+        analiticaVentasService.registrarCambio(anterior != null ? anterior.fecha() : null,
+                actual != null ? actual.fecha() : null);
+        if (!habilitado) {
+            return;
+        }
+
+        Set<DiaCliente> pares = new LinkedHashSet<>();
+        if (anterior != null) {
+            pares.add(anterior);
+        }
+        if (actual != null) {
+            pares.add(actual);
+        }
+        ventaDiariaRepository.recalcularClientes(pares);
+    }
+
+    /**
+     * Día y cliente de una nota leída (null si no hay nota)
+     */
+    public static DiaCliente diaCliente(NotaEntregaResponse nota) {
+        if (nota == null || nota.getFecha() == null) {
+            return null;
+        }
+        return new DiaCliente(nota.getFecha(), nota.getCodCliente());
+    }
+
+    /**
+     * Volver a armar el resumen del rango, un mes por sentencia. Devuelve las filas generadas.
+     */
+    public int reconstruir(LocalDate fechaDesde, LocalDate fechaHasta) {
+        if (!habilitado) {
+            throw new BusinessException("El resumen diario de ventas está deshabilitado");
+        }
+        if (fechaHasta.isBefore(fechaDesde)) {
+            throw new BusinessException("La fecha hasta no puede ser anterior a la fecha desde");
+        }
+        log.info("Reconstruyendo resumen diario de ventas desde {} hasta {}", fechaDesde, fechaHasta);
+        long inicio = System.currentTimeMillis();
+        int filas = recalcularPorMeses(fechaDesde, fechaHasta, false);
+        log.info("Resumen diario de ventas reconstruido: {} filas en {} ms", filas,
+                System.currentTimeMillis() - inicio);
+        return filas;
+    }
+
+    /**
+     * Carga inicial; cada mes confirma su avance y el reporte pasa al resumen solo al terminar
+     */
+    private void completarCarga(LocalDate fechaDesde, LocalDate fechaHasta) {
+        log.info("Cargando resumen diario de ventas desde {} hasta {}", fechaDesde, fechaHasta);
+        long inicio = System.currentTimeMillis();
+
+        int filas = fechaDesde.isAfter(fechaHasta) ? 0 : recalcularPorMeses(fechaDesde, fechaHasta, true);
+        ventaDiariaRepository.completarCarga(fechaHasta);
+
+        disponible = true;
+        log.info("Resumen diario de ventas cargado: {} filas en {} ms", filas, System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Rearmar el rango un mes por sentencia, fuera de toda transacción de la aplicación: cada llamada es su
+     * propia transacción en el pool de reportes y solo la limita el timeout de la sentencia. En la carga
+     * inicial la misma sentencia registra hasta dónde se llegó.
+     */
+    private int recalcularPorMeses(LocalDate fechaDesde, LocalDate fechaHasta, boolean registrarAvance) {
+        int filas = 0;
+        LocalDate desde = fechaDesde;
+        while (!desde.isAfter(fechaHasta)) {
+            LocalDate finMes = desde.withDayOfMonth(desde.lengthOfMonth());
+            LocalDate hasta = finMes.isBefore(fechaHasta) ? finMes : fechaHasta;
+
+            filas += registrarAvance
+                    ? ventaDiariaRepository.cargarTramo(desde, hasta)
+                    : ventaDiariaRepository.recalcular(desde, hasta);
+            desde = hasta.plusDays(1);
+        }
+        return filas;
+    }
+}
@@ -1,13 +1,21 @@
 package com.yahveh.service;
 
+import com.yahveh.cache.CacheAcotada;
+import com.yahveh.cache.CacheRegistro;
 import com.yahveh.dto.response.VistaResponse;
 import com.yahveh.model.Vista;
 import com.yahveh.repository.VistaRepository;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -17,15 +25,85 @@ public class VistaService {
     @Inject
     VistaRepository vistaRepository;
 
+    @Inject
+    CacheRegistro cacheRegistro;
+
+    @ConfigProperty(name = "yahveh.cache.menu.max-entradas", defaultValue = "1000")
+    int maxEntradasMenu;
+
+    @ConfigProperty(name = "yahveh.cache.menu.ttl", defaultValue = "PT30M")
+    Duration ttlMenu;
+
+    private CacheAcotada<ClaveMenu, MenuUsuario> cache;
+
+    @PostConstruct
+    void init() {
+        cache = cacheRegistro.crearAcotada(CacheRegistro.MENU, maxEntradasMenu, ttlMenu);
+    }
+
     /**
      * Listar todas las vistas (plano)
      */
-    public List<VistaResponse> listarTodas( long codUsuario ) {
+    public List<VistaResponse> listarTodas(long codUsuario, String rol) {
         log.info("Listando todas las vistas");
+        return obtenerMenu(codUsuario, rol).plano();
+    }
 
-        return vistaRepository.listarTodas( codUsuario ).stream()
+    /**
+     * Listar las vistas como árbol según codVistaPadre
+     */
+    public List<VistaResponse> listarArbol(long codUsuario, String rol) {
+        log.info("Listando vistas en árbol");
+        return obtenerMenu(codUsuario, rol).arbol();
+    }
+
+    /**
+     * Descartar el menú en cache de un usuario (cambio de permisos o baja)
+     */
+    public void invalidarMenu(long codUsuario) {
+        cache.invalidarSi(clave -> clave.codUsuario() == codUsuario);
+    }
+
+    /**
+     * El rol forma parte de la clave: si cambia el rol del token no se reutiliza el menú anterior
+     */
+    private MenuUsuario obtenerMenu(long codUsuario, String rol) {
+        return cache.obtener(new ClaveMenu(codUsuario, rol), clave -> cargarMenu(clave.codUsuario()));
+    }
+
+    private MenuUsuario cargarMenu(long codUsuario) {
+        List<Vista> vistas = vistaRepository.listarTodas(codUsuario);
+
+        List<VistaResponse> plano = vistas.stream()
                 .map(this::toResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toUnmodifiableList());
+
+        return new MenuUsuario(plano, construirArbol(vistas));
+    }
+
+    /**
+     * Armar el árbol en una pasada; las vistas sin padre en el conjunto quedan como raíz
+     */
+    private List<VistaResponse> construirArbol(List<Vista> vistas) {
+        Map<Long, VistaResponse> nodos = new LinkedHashMap<>();
+        for (Vista vista : vistas) {
+            VistaResponse nodo = toResponse(vista);
+            nodo.setHijos(new ArrayList<>());
+            nodos.put(vista.getCodVista(), nodo);
+        }
+
+        List<VistaResponse> raices = new ArrayList<>();
+        for (VistaResponse nodo : nodos.values()) {
+            VistaResponse padre = nodo.getCodVistaPadre().equals(nodo.getCodVista())
+                    ? null
+                    : nodos.get(nodo.getCodVistaPadre());
+            if (padre != null) {
+                padre.getHijos().add(nodo);
+            } else {
+                raices.add(nodo);
+            }
+        }
+        return List.copyOf(raices);
     }
 
     /**
@@ -40,5 +118,9 @@ public class VistaService {
                 .build();
     }
 
+    private record ClaveMenu(long codUsuario, String rol) {
+    }
 
-}
\ No newline at end of file
+    private record MenuUsuario(List<VistaResponse> plano, List<VistaResponse> arbol) {
+    }
+}
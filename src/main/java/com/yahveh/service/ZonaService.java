@@ -1,10 +1,13 @@
 package com.yahveh.service;
 
+import com.yahveh.cache.CacheRegistro;
+import com.yahveh.cache.CatalogoCache;
 import com.yahveh.dto.request.ZonaRequest;
 import com.yahveh.dto.response.ZonaResponse;
 import com.yahveh.exception.NotFoundException;
 import com.yahveh.model.Zona;
 import com.yahveh.repository.ZonaRepository;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
@@ -18,12 +21,23 @@ public class ZonaService {
     @Inject
     ZonaRepository zonaRepository;
 
+    @Inject
+    CacheRegistro cacheRegistro;
+
+    private CatalogoCache<ZonaResponse> cache;
+
+    @PostConstruct
+    void init() {
+        cache = cacheRegistro.crearCatalogo(CacheRegistro.ZONA, zonaRepository::listarTodasCompleto,
+                ZonaResponse::getCodZona, ZonaResponse::getCodCiudad);
+    }
+
     /**
      * Listar todas las zonas
      */
     public List<ZonaResponse> listarTodas() {
         log.info("Listando todas las zonas");
-        return zonaRepository.listarTodasCompleto();
+        return cache.listar();
     }
 
     /**
@@ -31,7 +45,7 @@ public class ZonaService {
      */
     public ZonaResponse buscarPorId(int codZona) {
         log.info("Buscando zona con ID: {}", codZona);
-        return zonaRepository.buscarPorIdCompleto(codZona)
+        return cache.buscarPorCodigo(codZona)
                 .orElseThrow(() -> new NotFoundException("Zona no encontrada"));
     }
 
@@ -40,7 +54,7 @@ public class ZonaService {
      */
     public List<ZonaResponse> listarPorCiudad(int codCiudad) {
         log.info("Listando zonas de ciudad: {}", codCiudad);
-        return zonaRepository.listarPorCiudadCompleto(codCiudad);
+        return cache.listarPorPadre(codCiudad);
     }
 
     /**
@@ -64,6 +78,7 @@ public class ZonaService {
                 .build();
 
         int codZona = zonaRepository.crearZona(zona);
+        invalidarCache();
 
         log.info("Zona creada exitosamente con ID: {}", codZona);
         return codZona;
@@ -76,8 +91,7 @@ public class ZonaService {
         log.info("Actualizando zona: {}", codZona);
 
         // Verificar que la zona existe
-        zonaRepository.buscarPorIdCompleto(codZona)
-                .orElseThrow(() -> new NotFoundException("Zona no encontrada"));
+        buscarPorId(codZona);
 
         Zona zona = Zona.builder()
                 .codZona(codZona)
@@ -87,6 +101,7 @@ public class ZonaService {
                 .build();
 
         zonaRepository.actualizarZona(zona);
+        invalidarCache();
 
         log.info("Zona actualizada exitosamente");
     }
@@ -98,11 +113,19 @@ public class ZonaService {
         log.info("Eliminando zona: {}", codZona);
 
         // Verificar que la zona existe
-        zonaRepository.buscarPorIdCompleto(codZona)
-                .orElseThrow(() -> new NotFoundException("Zona no encontrada"));
+        buscarPorId(codZona);
 
         zonaRepository.eliminarZona(codZona, audUsuario);
+        invalidarCache();
 
         log.info("Zona eliminada exitosamente");
     }
+
+    /**
+     * Invalidar zonas y ciudades (la ciudad expone el total de zonas)
+     */
+    private void invalidarCache() {
+        cache.invalidar();
+        cacheRegistro.invalidar(CacheRegistro.CIUDAD);
+    }
 }
\ No newline at end of file